@@ -101,6 +101,18 @@ public class Appointment implements Comparable<Appointment> {
                 && this.patient.equals(other.patient);
     }
 
+    /**
+     * Returns a hash code consistent with equals.
+     *
+     * @return the hash code of the appointment's date, timeslot and patient
+     */
+    @Override
+    public int hashCode() {
+        int h = date.hashCode();
+        h = 31 * h + timeslot.hashCode();
+        return 31 * h + patient.hashCode();
+    }
+
     /**
      * Returns a string representation of the appointment.
      * 
@@ -0,0 +1,502 @@
+package com.example.clinicmanager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Memory-mapped columnar archive of past appointments, kept off the Java heap.
+ * Rows are stored in blocks of BLOCK_ROWS. Each block holds parallel columns of epoch day, provider id,
+ * patient id, timeslot ordinal and room, so a report that needs only the provider or patient of every
+ * row reads one column sequentially. Patients are interned in a small side file that is loaded on open.
+ * The row count in the header is written last, after the rows themselves, so a crash while appending
+ * leaves the archive as it was before the append. Next to it the header keeps the cutoff day: every
+ * appointment before it has been archived, so one still on the schedule after a crash is a duplicate.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class AppointmentArchive {
+    private static final int MAGIC = 0x434D4152; // "CMAR"
+    private static final short VERSION = 2; // 2 widened the provider column from shorts to ints
+    private static final int HEADER_BYTES = 32;  // Magic, version, reserved, roster fingerprint, row count, cutoff, padding
+    private static final int COUNT_OFFSET = 16;  // Row count and cutoff day, written together as the commit point
+    static final int BLOCK_ROWS = 1 << 16;
+    private static final int DAY_COLUMN = 0;                   // int per row
+    private static final int PROVIDER_COLUMN = 4 * BLOCK_ROWS;  // int per row
+    private static final int PATIENT_COLUMN = 8 * BLOCK_ROWS;   // int per row
+    private static final int SLOT_COLUMN = 12 * BLOCK_ROWS;     // byte per row
+    private static final int ROOM_COLUMN = 13 * BLOCK_ROWS;     // byte per row
+    private static final int BLOCK_BYTES = 14 * BLOCK_ROWS;
+    private static final int MAX_STRING_BYTES = 1024;
+    private static final int MAX_PATIENT_BYTES = 2 * (2 + MAX_STRING_BYTES) + 4; // Two names and a date of birth
+    private static final int PATIENT_BUFFER_BYTES = 64 * 1024;
+    private static final byte NO_ROOM = -1;
+
+    private final FileChannel channel;
+    private final FileChannel patientChannel;
+    private final ProviderRegistry registry;
+    private final ArrayList<MappedByteBuffer> blocks;
+    private final List<Person> patients;
+    private final HashMap<Profile, Integer> patientIds;
+    private final int[] rateCents; // Rate of each provider in cents, indexed by provider id
+    private long patientBytes; // End of the last patient in the table within the patient file
+    private int rows;
+    private int cutoff; // Epoch day before which every appointment is archived
+
+    /**
+     * Constructor to create an archive over its open files.
+     *
+     * @param channel The column file.
+     * @param patientChannel The patient file.
+     * @param registry The roster that provider ids refer to.
+     */
+    private AppointmentArchive(FileChannel channel, FileChannel patientChannel, ProviderRegistry registry) {
+        this.channel = channel;
+        this.patientChannel = patientChannel;
+        this.registry = registry;
+        this.blocks = new ArrayList<>();
+        this.patients = new List<>();
+        this.patientIds = new HashMap<>();
+        this.rateCents = new int[registry.size()];
+        for (int i = 0; i < rateCents.length; i++) {
+            rateCents[i] = registry.getProvider(i).rate() * 100;
+        }
+    }
+
+    /**
+     * Opens an archive, creating it if needed. The patients are kept in a second file next to it.
+     *
+     * @param file The path of the column file.
+     * @param registry The roster that provider ids refer to.
+     * @return The open archive.
+     * @throws IOException If the files cannot be opened, or were written for another roster or format.
+     */
+    public static AppointmentArchive open(Path file, ProviderRegistry registry) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FileChannel patientChannel = null;
+        try {
+            patientChannel = FileChannel.open(file.resolveSibling(file.getFileName() + ".patients"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            AppointmentArchive archive = new AppointmentArchive(channel, patientChannel, registry);
+            if (channel.size() == 0) {
+                archive.writeHeader();
+            } else {
+                archive.readHeader();
+            }
+            archive.loadPatients();
+            return archive;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            if (patientChannel != null) {
+                patientChannel.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the number of archived appointments.
+     *
+     * @return The number of rows.
+     */
+    public synchronized int size() {
+        return rows;
+    }
+
+    /**
+     * Gets the cutoff day: every appointment before it has been archived.
+     *
+     * @return The cutoff as an epoch day, or Integer.MIN_VALUE if nothing has been archived.
+     */
+    public synchronized int getCutoff() {
+        return cutoff;
+    }
+
+    /**
+     * Appends appointments to the archive and makes them durable, together with the new cutoff day.
+     *
+     * @param appointments The appointments to archive.
+     * @param newCutoff The epoch day before which every appointment is archived once these are.
+     * @throws IOException If the appointments cannot be written or a provider is not on the roster.
+     */
+    public synchronized void append(List<Appointment> appointments, int newCutoff) throws IOException {
+        int[] providerOf = new int[appointments.size()];
+        for (int i = 0; i < appointments.size(); i++) {
+            providerOf[i] = registry.idOf(appointments.get(i).getProvider());
+            if (providerOf[i] < 0) {
+                throw new IOException("Provider is not on the roster: " + appointments.get(i).getProvider().getProfile());
+            }
+        }
+
+        int firstNewPatient = patients.size();
+        long firstNewPatientByte = patientBytes;
+        int row = rows;
+        try {
+            int[] patientOf = new int[appointments.size()];
+            for (int i = 0; i < appointments.size(); i++) {
+                patientOf[i] = internPatient(appointments.get(i).getPatient());
+            }
+            writePatients(firstNewPatient);
+
+            for (int i = 0; i < appointments.size(); i++, row++) {
+                Appointment appointment = appointments.get(i);
+                MappedByteBuffer block = block(row / BLOCK_ROWS);
+                int r = row % BLOCK_ROWS;
+                block.putInt(DAY_COLUMN + 4 * r, appointment.getDate().toEpochDay());
+                block.putInt(PROVIDER_COLUMN + 4 * r, providerOf[i]);
+                block.putInt(PATIENT_COLUMN + 4 * r, patientOf[i]);
+                block.put(SLOT_COLUMN + r, (byte) appointment.getTimeslot().ordinal());
+                block.put(ROOM_COLUMN + r, appointment instanceof Imaging
+                        ? (byte) ((Imaging) appointment).getRoom().ordinal() : NO_ROOM);
+            }
+            for (int b = rows / BLOCK_ROWS; b * BLOCK_ROWS < row; b++) {
+                blocks.get(b).force();
+            }
+        } catch (IOException | RuntimeException e) {
+            dropPatients(firstNewPatient, firstNewPatientByte);
+            throw e;
+        }
+        ByteBuffer commit = ByteBuffer.allocate(8).putInt(row).putInt(Math.max(cutoff, newCutoff));
+        commit.flip();
+        while (commit.hasRemaining()) {
+            channel.write(commit, COUNT_OFFSET + commit.position());
+        }
+        channel.force(false);
+        rows = row;
+        cutoff = Math.max(cutoff, newCutoff);
+    }
+
+    /**
+     * Gets one archived appointment.
+     *
+     * @param row The index of the row.
+     * @return The appointment stored in that row.
+     * @throws IndexOutOfBoundsException If the row is out of range.
+     */
+    public synchronized Appointment get(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Archive row " + row);
+        }
+        MappedByteBuffer block = blocks.get(row / BLOCK_ROWS);
+        int r = row % BLOCK_ROWS;
+        Date date = Date.ofEpochDay(block.getInt(DAY_COLUMN + 4 * r));
+        Timeslot timeslot = Timeslot.fromOrdinal(block.get(SLOT_COLUMN + r));
+        Person patient = patients.get(block.getInt(PATIENT_COLUMN + 4 * r));
+        Provider provider = registry.getProvider(block.getInt(PROVIDER_COLUMN + 4 * r));
+        byte room = block.get(ROOM_COLUMN + r);
+        return room == NO_ROOM ? new Appointment(date, timeslot, patient, provider)
+                : new Imaging(date, timeslot, patient, provider, Radiology.values()[room]);
+    }
+
+    /**
+     * Adds the credit of the first rows to per-provider totals, reading only the provider column.
+     *
+     * @param credits The totals in cents, indexed by provider id.
+     * @param count The number of rows to scan, as returned by size() earlier.
+     */
+    public synchronized void addCredits(long[] credits, int count) {
+        int n = Math.min(count, rows);
+        for (int start = 0; start < n; start += BLOCK_ROWS) {
+            MappedByteBuffer block = blocks.get(start / BLOCK_ROWS);
+            int end = Math.min(BLOCK_ROWS, n - start);
+            for (int r = 0; r < end; r++) {
+                int providerId = block.getInt(PROVIDER_COLUMN + 4 * r);
+                credits[providerId] += rateCents[providerId];
+            }
+        }
+    }
+
+    /**
+     * Charges the first rows to a billing ledger, reading only the patient and provider columns.
+     * Totals are summed per patient first, so the ledger is updated once per patient.
+     *
+     * @param ledger The ledger to charge.
+     * @param count The number of rows to scan, as returned by size() earlier.
+     */
+    public synchronized void chargeTo(BillingLedger ledger, int count) {
+        int n = Math.min(count, rows);
+        long[] cents = new long[patients.size()];
+        int[] visits = new int[patients.size()];
+        for (int start = 0; start < n; start += BLOCK_ROWS) {
+            MappedByteBuffer block = blocks.get(start / BLOCK_ROWS);
+            int end = Math.min(BLOCK_ROWS, n - start);
+            for (int r = 0; r < end; r++) {
+                int patientId = block.getInt(PATIENT_COLUMN + 4 * r);
+                cents[patientId] += rateCents[block.getInt(PROVIDER_COLUMN + 4 * r)];
+                visits[patientId]++;
+            }
+        }
+        for (int id = 0; id < visits.length; id++) {
+            if (visits[id] > 0) {
+                ledger.charge(patients.get(id), cents[id], visits[id]);
+            }
+        }
+    }
+
+    /**
+     * Closes the archive files.
+     *
+     * @throws IOException If a file cannot be closed.
+     */
+    public synchronized void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            patientChannel.close();
+        }
+    }
+
+    /**
+     * Gets the id of a patient, adding the patient to the table if needed.
+     *
+     * @param patient The patient.
+     * @return The patient id.
+     */
+    private int internPatient(Person patient) {
+        Integer id = patientIds.get(patient.getProfile());
+        if (id == null) {
+            id = patients.size();
+            patientIds.put(patient.getProfile(), id);
+            patients.add(patient);
+        }
+        return id;
+    }
+
+    /**
+     * Forgets the patients added since an index and cuts them off the patient file, after a failed append.
+     *
+     * @param from The index of the first patient to drop.
+     * @param fromByte The position of that patient in the patient file.
+     */
+    private void dropPatients(int from, long fromByte) {
+        while (patients.size() > from) {
+            patientIds.remove(patients.removeAt(patients.size() - 1).getProfile());
+        }
+        patientBytes = fromByte;
+        try {
+            patientChannel.truncate(patientBytes);
+        } catch (IOException e) {
+            // No committed row refers to the leftovers, and the next append writes over them
+        }
+    }
+
+    /**
+     * Appends the patients added since an index to the patient file and forces it.
+     *
+     * @param from The index of the first patient to write.
+     * @throws IOException If the patients cannot be written or a name is too long.
+     */
+    private void writePatients(int from) throws IOException {
+        if (from == patients.size()) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(PATIENT_BUFFER_BYTES);
+        long position = patientBytes;
+        for (int i = from; i < patients.size(); i++) {
+            if (buffer.remaining() < MAX_PATIENT_BYTES) {
+                position = flush(buffer, position);
+            }
+            Profile profile = patients.get(i).getProfile();
+            putString(buffer, profile.getFirstName());
+            putString(buffer, profile.getLastName());
+            buffer.putInt(profile.getDob().toEpochDay());
+        }
+        position = flush(buffer, position);
+        patientChannel.force(false);
+        patientBytes = position;
+    }
+
+    /**
+     * Writes the contents of a buffer to the patient file and clears it.
+     *
+     * @param buffer The buffer to write.
+     * @param position The file position to write at.
+     * @return The file position after the written bytes.
+     * @throws IOException If the bytes cannot be written.
+     */
+    private long flush(ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += patientChannel.write(buffer, position);
+        }
+        buffer.clear();
+        return position;
+    }
+
+    /**
+     * Reads the patient file into the patient table.
+     * A patient cut off by a crash is dropped, since no row refers to it.
+     *
+     * @throws IOException If the file cannot be read.
+     */
+    private void loadPatients() throws IOException {
+        long size = patientChannel.size();
+        if (size == 0) {
+            return;
+        }
+        ByteBuffer data = patientChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        while (data.hasRemaining()) {
+            int start = data.position();
+            try {
+                String firstName = getString(data);
+                String lastName = getString(data);
+                Profile profile = new Profile(firstName, lastName, Date.ofEpochDay(data.getInt()));
+                patientIds.put(profile, patients.size());
+                patients.add(new Person(profile));
+                patientBytes = data.position();
+            } catch (RuntimeException e) {
+                patientChannel.truncate(start);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Writes the header of a new archive.
+     *
+     * @throws IOException If the header cannot be written.
+     */
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(registry.fingerprint()).putInt(0)
+                .putInt(Integer.MIN_VALUE);
+        header.clear();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+        rows = 0;
+        cutoff = Integer.MIN_VALUE;
+    }
+
+    /**
+     * Reads and checks the header of an existing archive and maps its blocks.
+     *
+     * @throws IOException If the file is not an archive, has another version, or was written for another roster.
+     */
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // Keep reading until the header is full or the file ends
+        }
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+            throw new IOException("Not an appointment archive");
+        }
+        if (header.getShort() != VERSION) {
+            throw new IOException("Unsupported archive version");
+        }
+        header.getShort();
+        if (header.getLong() != registry.fingerprint()) {
+            throw new IOException("Archive was written for a different provider roster");
+        }
+        rows = header.getInt();
+        cutoff = header.getInt();
+        long blocksNeeded = (rows + (long) BLOCK_ROWS - 1) / BLOCK_ROWS;
+        if (rows < 0 || HEADER_BYTES + blocksNeeded * BLOCK_BYTES > channel.size()) {
+            throw new IOException("Archive is damaged");
+        }
+        for (int b = 0; b * BLOCK_ROWS < rows; b++) {
+            block(b);
+        }
+    }
+
+    /**
+     * Gets a block, mapping it and growing the file if it does not exist yet.
+     *
+     * @param index The index of the block.
+     * @return The mapped block.
+     * @throws IOException If the block cannot be mapped.
+     */
+    private MappedByteBuffer block(int index) throws IOException {
+        while (blocks.size() <= index) {
+            long offset = HEADER_BYTES + (long) blocks.size() * BLOCK_BYTES;
+            blocks.add(channel.map(FileChannel.MapMode.READ_WRITE, offset, BLOCK_BYTES));
+        }
+        return blocks.get(index);
+    }
+
+    /**
+     * Encodes a string as its UTF-8 length and bytes.
+     *
+     * @param buffer The buffer to write to.
+     * @param text The string.
+     * @throws IOException If the string is too long to store.
+     */
+    private static void putString(ByteBuffer buffer, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IOException("Name is too long for the archive");
+        }
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    /**
+     * Decodes a string stored as its UTF-8 length and bytes.
+     *
+     * @param data The buffer to read from.
+     * @return The string.
+     */
+    private static String getString(ByteBuffer data) {
+        byte[] bytes = new byte[data.getShort() & 0xFFFF];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Main testbed method: measures archiving 1,000,000 appointments and scanning them for the
+     * credit and billing reports, against the same reports over an in-heap list.
+     *
+     * @param args Command-line arguments (not used).
+     * @throws IOException If the benchmark archive cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        List<Appointment> appointments = SampleAppointments.random(1_000_000, new Random(22));
+        ProviderRegistry registry = new ProviderRegistry();
+        for (Appointment appointment : appointments) {
+            if (registry.idOf(appointment.getProvider()) < 0) {
+                registry.add((Provider) appointment.getProvider());
+            }
+        }
+        Path dir = Files.createTempDirectory("archive-bench");
+        Path file = dir.resolve("bench.archive");
+        AppointmentArchive archive = open(file, registry);
+        try {
+            long start = System.nanoTime();
+            archive.append(appointments, Integer.MIN_VALUE);
+            System.out.printf("append %,d rows: %.0f ms%n", archive.size(), (System.nanoTime() - start) / 1e6);
+            for (int round = 0; round < 3; round++) {
+                start = System.nanoTime();
+                long[] credits = new long[registry.size()];
+                archive.addCredits(credits, archive.size());
+                double archiveCredits = (System.nanoTime() - start) / 1e6;
+                start = System.nanoTime();
+                registry.creditCents(appointments);
+                double heapCredits = (System.nanoTime() - start) / 1e6;
+                start = System.nanoTime();
+                BillingLedger ledger = new BillingLedger();
+                archive.chargeTo(ledger, archive.size());
+                double archiveBilling = (System.nanoTime() - start) / 1e6;
+                start = System.nanoTime();
+                BillingLedger.of(appointments);
+                double heapBilling = (System.nanoTime() - start) / 1e6;
+                System.out.printf("credits: archive %.1f ms, heap %.1f ms; billing: archive %.1f ms, heap %.1f ms%n",
+                        archiveCredits, heapCredits, archiveBilling, heapBilling);
+            }
+        } finally {
+            archive.close();
+            Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".patients"));
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the AppointmentArchive class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class AppointmentArchiveTest {
+    private final ClinicFixture clinic = new ClinicFixture();
+
+    /**
+     * Deletes the files of an archive.
+     *
+     * @param file The column file.
+     */
+    private void delete(Path file) throws IOException {
+        Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".patients"));
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Test case for archived rows and the cutoff day surviving a reopen.
+     */
+    @Test
+    public void testReopen() throws IOException {
+        Path file = ClinicFixture.newTempPath("archive-test");
+        try {
+            List<Appointment> appointments = clinic.appointments();
+            int cutoff = new Date(2024, 11, 5).toEpochDay();
+            AppointmentArchive archive = AppointmentArchive.open(file, clinic.registry());
+            assertEquals(Integer.MIN_VALUE, archive.getCutoff());
+            archive.append(appointments, cutoff);
+            archive.close();
+
+            archive = AppointmentArchive.open(file, clinic.registry());
+            assertEquals(appointments.size(), archive.size());
+            assertEquals(cutoff, archive.getCutoff());
+            for (int i = 0; i < appointments.size(); i++) {
+                assertEquals(appointments.get(i).toString(), archive.get(i).toString());
+            }
+            assertTrue(archive.get(1) instanceof Imaging);
+            archive.close();
+        } finally {
+            delete(file);
+        }
+    }
+
+    /**
+     * Test case for the column scans giving the same totals as the in-heap reports.
+     */
+    @Test
+    public void testScansMatchHeapTotals() throws IOException {
+        Path file = ClinicFixture.newTempPath("archive-test");
+        try {
+            ProviderRegistry registry = clinic.registry();
+            List<Appointment> appointments = clinic.appointments();
+            AppointmentArchive archive = AppointmentArchive.open(file, registry);
+            archive.append(appointments, Integer.MIN_VALUE);
+
+            long[] credits = new long[registry.size()];
+            archive.addCredits(credits, archive.size());
+            assertArrayEquals(registry.creditCents(appointments), credits);
+
+            BillingLedger ledger = new BillingLedger();
+            archive.chargeTo(ledger, archive.size());
+            BillingLedger expected = BillingLedger.of(appointments);
+            assertEquals(expected.size(), ledger.size());
+            assertEquals(expected.find(clinic.patient.getProfile()).getCents(), ledger.find(clinic.patient.getProfile()).getCents());
+            assertEquals(2, ledger.find(clinic.patient.getProfile()).getVisits());
+            assertEquals(expected.find(clinic.other.getProfile()).getCents(), ledger.find(clinic.other.getProfile()).getCents());
+
+            credits = new long[registry.size()];
+            archive.addCredits(credits, 1);
+            assertEquals(clinic.doctor.rate() * 100L, credits[registry.idOf(clinic.doctor)]);
+            assertEquals(0, credits[registry.idOf(clinic.technician)]);
+            archive.close();
+        } finally {
+            delete(file);
+        }
+    }
+
+    /**
+     * Test case for provider ids beyond 16 bits being read back and credited to the right provider.
+     */
+    @Test
+    public void testLargeRoster() throws IOException {
+        Path file = ClinicFixture.newTempPath("archive-test");
+        try {
+            ProviderRegistry registry = clinic.registry(70_000);
+            Provider provider = registry.getProvider(66_000);
+            List<Appointment> appointments = new List<>();
+            appointments.add(new Imaging(new Date(2024, 10, 31), Timeslot.getTimeslot(3), clinic.patient, provider, Radiology.XRAY));
+            AppointmentArchive archive = AppointmentArchive.open(file, registry);
+            archive.append(appointments, Integer.MIN_VALUE);
+
+            assertSame(provider, archive.get(0).getProvider());
+            long[] credits = new long[registry.size()];
+            archive.addCredits(credits, archive.size());
+            assertEquals(provider.rate() * 100L, credits[66_000]);
+            assertEquals(0, credits[66_000 & 0xFFFF]);
+            archive.close();
+        } finally {
+            delete(file);
+        }
+    }
+
+    /**
+     * Test case for a failed append leaving neither rows nor patients behind, so later patient ids still match the file.
+     */
+    @Test
+    public void testFailedAppendAddsNoPatients() throws IOException {
+        Path file = ClinicFixture.newTempPath("archive-test");
+        try {
+            AppointmentArchive archive = AppointmentArchive.open(file, clinic.registry());
+            Doctor stranger = new Doctor(new Profile("Gary", "Smith", new Date(1985, 5, 5)), Location.EDISON, Specialty.PEDIATRICIAN, "99");
+            List<Appointment> unknownProvider = new List<>();
+            unknownProvider.add(new Appointment(new Date(2024, 10, 29), Timeslot.getTimeslot(2), clinic.other, stranger));
+            try {
+                archive.append(unknownProvider, Integer.MIN_VALUE);
+                fail("Provider off the roster was archived");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("roster"));
+            }
+
+            char[] letters = new char[2000];
+            Arrays.fill(letters, 'a');
+            Person longName = new Person(new Profile(new String(letters), "Smith", new Date(1985, 5, 5)));
+            List<Appointment> tooLong = new List<>();
+            tooLong.add(new Appointment(new Date(2024, 10, 29), Timeslot.getTimeslot(2), clinic.other, clinic.doctor));
+            tooLong.add(new Appointment(new Date(2024, 10, 29), Timeslot.getTimeslot(3), longName, clinic.doctor));
+            try {
+                archive.append(tooLong, Integer.MIN_VALUE);
+                fail("Name longer than the patient file allows was archived");
+            } catch (IOException e) {
+                assertEquals(0, archive.size());
+            }
+
+            List<Appointment> appointments = clinic.appointments();
+            archive.append(appointments, Integer.MIN_VALUE);
+            archive.close();
+            archive = AppointmentArchive.open(file, clinic.registry());
+            assertEquals(appointments.size(), archive.size());
+            for (int i = 0; i < appointments.size(); i++) {
+                assertEquals(appointments.get(i).toString(), archive.get(i).toString());
+            }
+            archive.close();
+        } finally {
+            delete(file);
+        }
+    }
+
+    /**
+     * Test case for an archive written for another roster being rejected.
+     */
+    @Test
+    public void testDifferentRosterRejected() throws IOException {
+        Path file = ClinicFixture.newTempPath("archive-test");
+        try {
+            AppointmentArchive.open(file, clinic.registry()).close();
+            ProviderRegistry changed = clinic.registry();
+            changed.add(new Technician(new Profile("Gary", "Smith", new Date(1985, 5, 5)), Location.EDISON, 100));
+            try {
+                AppointmentArchive.open(file, changed);
+                fail("Archive for another roster was opened");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("roster"));
+            }
+        } finally {
+            delete(file);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.clinicmanager;
+
+import java.util.HashMap;
+
+/**
+ * Hash index over the scheduled appointments, keyed by date, timeslot and patient profile.
+ * Used for the cancel, reschedule and duplicate checks so they take constant time
+ * however many appointments are on the schedule. The key leaves out the kind of appointment, so an
+ * office visit and an imaging appointment of one patient at the same date and timeslot share a key.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class AppointmentIndex {
+    private final HashMap<Key, Appointment> appointments;
+
+    /**
+     * Constructor to create an empty index.
+     */
+    public AppointmentIndex() {
+        appointments = new HashMap<>();
+    }
+
+    /**
+     * Adds an appointment to the index, replacing any appointment with the same key.
+     *
+     * @param appointment The appointment to add.
+     */
+    public void add(Appointment appointment) {
+        appointments.put(keyOf(appointment), appointment);
+    }
+
+    /**
+     * Removes an appointment from the index.
+     *
+     * @param appointment The appointment to remove.
+     * @return True if the appointment was in the index, false otherwise.
+     */
+    public boolean remove(Appointment appointment) {
+        return appointments.remove(keyOf(appointment)) != null;
+    }
+
+    /**
+     * Finds the appointment of a patient at a date and timeslot.
+     *
+     * @param date The appointment date.
+     * @param timeslot The appointment timeslot.
+     * @param profile The patient profile.
+     * @return The appointment if found, null otherwise.
+     */
+    public Appointment find(Date date, Timeslot timeslot, Profile profile) {
+        return appointments.get(new Key(date, timeslot, profile));
+    }
+
+    /**
+     * Checks if an appointment with the same date, timeslot and patient is in the index.
+     *
+     * @param appointment The appointment to check.
+     * @return True if a matching appointment exists, false otherwise.
+     */
+    public boolean contains(Appointment appointment) {
+        return appointments.containsKey(keyOf(appointment));
+    }
+
+    /**
+     * Returns the number of appointments in the index.
+     *
+     * @return The number of indexed appointments.
+     */
+    public int size() {
+        return appointments.size();
+    }
+
+    /**
+     * Removes every appointment from the index.
+     */
+    public void clear() {
+        appointments.clear();
+    }
+
+    /**
+     * Builds the index key of an appointment.
+     *
+     * @param appointment The appointment.
+     * @return The key made of its date, timeslot and patient profile.
+     */
+    private static Key keyOf(Appointment appointment) {
+        return new Key(appointment.getDate(), appointment.getTimeslot(), appointment.getPatient().getProfile());
+    }
+
+    /**
+     * Immutable (date, timeslot, profile) key of the index.
+     */
+    private static final class Key {
+        private final Date date;
+        private final Timeslot timeslot;
+        private final Profile profile;
+        private final int hash;
+
+        /**
+         * Constructor to create a key.
+         *
+         * @param date The appointment date.
+         * @param timeslot The appointment timeslot.
+         * @param profile The patient profile.
+         */
+        Key(Date date, Timeslot timeslot, Profile profile) {
+            this.date = date;
+            this.timeslot = timeslot;
+            this.profile = profile;
+            this.hash = 31 * (31 * date.hashCode() + timeslot.hashCode()) + profile.hashCode();
+        }
+
+        /**
+         * Returns the precomputed hash code of the key.
+         *
+         * @return The hash code of the key.
+         */
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /**
+         * Checks if this key has the same date, timeslot and profile as another object.
+         *
+         * @param obj The object to compare to.
+         * @return True if the keys match, false otherwise.
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key other = (Key) obj;
+            return hash == other.hash
+                    && date.equals(other.date)
+                    && timeslot.equals(other.timeslot)
+                    && profile.equals(other.profile);
+        }
+    }
+}
@@ -0,0 +1,837 @@
+package com.example.clinicmanager;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only binary write-ahead journal of the schedule, cancel and reschedule operations.
+ * Each operation is one record: its length, a CRC-32C of its body, and a body that stores dates as
+ * epoch days, timeslots as ordinals and providers as registry ids. Records are buffered and written
+ * through a FileChannel. Threads that commit at the same time share one write and one fsync (group
+ * commit), and the SyncPolicy decides how often the file is forced to disk.
+ * On open, the journal replays its valid records and cuts off a torn record at the end, if any.
+ * Every journal file has a random id, so a snapshot can name the journal and offset it was taken at
+ * and replay can start reading at that offset. When a snapshot is taken the journal is rotated: the
+ * current file is kept as the previous journal, next to it, until the snapshot is durable, and new
+ * records go to a fresh file. The journal therefore only grows by the records since the last snapshot.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class AppointmentJournal {
+    private static final int MAGIC = 0x434D4A4C; // "CMJL"
+    private static final short VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 2 + 8 + 8;  // Magic, version, roster fingerprint, journal id
+    private static final int RECORD_HEADER_BYTES = 4 + 4;   // Body length, body checksum
+    private static final int MAX_RECORD_BYTES = 8192;
+    private static final int MAX_STRING_BYTES = 1024;
+    private static final int INITIAL_BUFFER_BYTES = 1 << 16;
+    private static final int REPLAY_BUFFER_BYTES = 1 << 16; // Holds at least one whole record
+    private static final String PREVIOUS_SUFFIX = ".prev";
+
+    private static final byte OP_SCHEDULE = 1;
+    private static final byte OP_CANCEL = 2;
+    private static final byte OP_RESCHEDULE = 3;
+    private static final byte NO_ROOM = -1;
+
+    /**
+     * When the journal forces its writes to disk.
+     */
+    public enum SyncPolicy {
+        EVERY_OP, // Every operation is forced before it returns
+        BATCHED,  // Every batchSize-th operation forces the ones before it
+        TIMED     // A background thread forces the journal at a fixed interval
+    }
+
+    /**
+     * Receives the operations read back from a journal.
+     */
+    public interface Listener {
+        /**
+         * Called for a scheduled appointment.
+         *
+         * @param appointment The appointment that was scheduled.
+         */
+        void scheduled(Appointment appointment);
+
+        /**
+         * Called for a cancelled appointment.
+         *
+         * @param date The date of the cancelled appointment.
+         * @param timeslot The timeslot of the cancelled appointment.
+         * @param patient The profile of the patient.
+         */
+        void cancelled(Date date, Timeslot timeslot, Profile patient);
+
+        /**
+         * Called for a rescheduled appointment.
+         *
+         * @param date The old date of the appointment.
+         * @param timeslot The old timeslot of the appointment.
+         * @param patient The profile of the patient.
+         * @param appointment The appointment at its new date and timeslot.
+         */
+        void rescheduled(Date date, Timeslot timeslot, Profile patient, Appointment appointment);
+    }
+
+    private final Path file;
+    private final Path previous; // The journal before the last rotation, kept until a snapshot holds it
+    private FileChannel channel; // Replaced by rotate() while no thread is committing
+    private final ProviderRegistry registry;
+    private final SyncPolicy policy;
+    private final int batchSize;
+    private final ByteBuffer scratch; // Body of the record being encoded
+    private final CRC32C crc;
+    private ScheduledExecutorService timer;
+    private long id;            // Random id written in the header
+    private long endOffset;     // File offset just past the last appended record
+    private ByteBuffer pending; // Records appended but not yet written
+    private ByteBuffer spare;   // Second buffer, swapped with pending by the committing thread
+    private long appended;      // Sequence number of the last appended record
+    private long written;       // Sequence number of the last record written to the channel
+    private long forced;        // Sequence number of the last record forced to disk
+    private boolean committing; // True while one thread writes for the others
+    private IOException failure; // First write error; the journal refuses appends after it
+    private boolean closed;
+
+    /**
+     * Constructor to create a journal over an open channel positioned at the end of its valid records.
+     *
+     * @param file The path of the journal file.
+     * @param channel The journal file.
+     * @param registry The roster that provider ids refer to.
+     * @param policy When writes are forced to disk.
+     * @param batchSize The number of operations per fsync under BATCHED.
+     */
+    private AppointmentJournal(Path file, FileChannel channel, ProviderRegistry registry, SyncPolicy policy,
+                               int batchSize) {
+        this.file = file;
+        this.previous = file.resolveSibling(file.getFileName() + PREVIOUS_SUFFIX);
+        this.channel = channel;
+        this.registry = registry;
+        this.policy = policy;
+        this.batchSize = Math.max(1, batchSize);
+        this.scratch = ByteBuffer.allocate(MAX_RECORD_BYTES);
+        this.crc = new CRC32C();
+        this.pending = ByteBuffer.allocateDirect(INITIAL_BUFFER_BYTES);
+        this.spare = ByteBuffer.allocateDirect(INITIAL_BUFFER_BYTES);
+    }
+
+    /**
+     * Opens a journal, creating it if needed, and replays the operations already in it.
+     *
+     * @param file The path of the journal file.
+     * @param registry The roster that provider ids refer to.
+     * @param policy When writes are forced to disk.
+     * @param batchSize The number of operations per fsync under BATCHED.
+     * @param intervalMillis The time between fsyncs under TIMED.
+     * @param listener Receives the replayed operations, or null to only check them.
+     * @return The open journal, positioned after its last valid record.
+     * @throws IOException If the file cannot be opened, or was written for another roster or format.
+     */
+    public static AppointmentJournal open(Path file, ProviderRegistry registry, SyncPolicy policy, int batchSize,
+                                          long intervalMillis, Listener listener) throws IOException {
+        return open(file, registry, policy, batchSize, intervalMillis, 0, 0, listener);
+    }
+
+    /**
+     * Opens a journal, creating it if needed, and replays the operations recorded after a checkpoint.
+     * If the file is the journal with the checkpoint id, reading starts at the checkpoint offset;
+     * otherwise every record is replayed. A previous journal left by rotate() is replayed first,
+     * from the checkpoint if it has the checkpoint id, unless the checkpoint is already in the current file.
+     *
+     * @param file The path of the journal file.
+     * @param registry The roster that provider ids refer to.
+     * @param policy When writes are forced to disk.
+     * @param batchSize The number of operations per fsync under BATCHED.
+     * @param intervalMillis The time between fsyncs under TIMED.
+     * @param checkpointId The id of the journal the checkpoint was taken from, or 0 for none.
+     * @param checkpointOffset The end offset of that journal when the checkpoint was taken.
+     * @param listener Receives the replayed operations, or null to only check them.
+     * @return The open journal, positioned after its last valid record.
+     * @throws IOException If the file cannot be opened, or was written for another roster or format.
+     */
+    public static AppointmentJournal open(Path file, ProviderRegistry registry, SyncPolicy policy, int batchSize,
+                                          long intervalMillis, long checkpointId, long checkpointOffset,
+                                          Listener listener) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        boolean opened = false;
+        try {
+            AppointmentJournal journal = new AppointmentJournal(file, channel, registry, policy, batchSize);
+            // A file shorter than its header next to a previous journal was cut off while rotating
+            boolean empty = channel.size() == 0
+                    || (channel.size() < HEADER_BYTES && Files.exists(journal.previous));
+            if (empty) {
+                journal.writeHeader();
+            } else {
+                journal.id = journal.readHeader(channel);
+            }
+            if (Files.exists(journal.previous)) {
+                if (journal.id == checkpointId) {
+                    journal.dropPrevious(); // The snapshot was taken after the rotation
+                } else {
+                    journal.replayPrevious(checkpointId, checkpointOffset, listener);
+                }
+            }
+            if (!empty) {
+                long start = journal.id == checkpointId ? checkpointOffset : HEADER_BYTES;
+                long validEnd = journal.replay(channel, start, listener);
+                if (validEnd < channel.size()) {
+                    channel.truncate(validEnd);
+                    channel.force(true);
+                }
+                channel.position(validEnd);
+                journal.endOffset = validEnd;
+            }
+            if (policy == SyncPolicy.TIMED) {
+                journal.startTimer(intervalMillis);
+            }
+            opened = true;
+            return journal;
+        } finally {
+            if (!opened) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Records a scheduled appointment.
+     *
+     * @param appointment The appointment that is being scheduled.
+     * @throws IOException If the record cannot be written.
+     */
+    public void scheduled(Appointment appointment) throws IOException {
+        record(OP_SCHEDULE, null, appointment);
+    }
+
+    /**
+     * Records a cancelled appointment.
+     *
+     * @param appointment The appointment that is being cancelled.
+     * @throws IOException If the record cannot be written.
+     */
+    public void cancelled(Appointment appointment) throws IOException {
+        record(OP_CANCEL, appointment, null);
+    }
+
+    /**
+     * Records a rescheduled appointment.
+     *
+     * @param oldAppointment The appointment that is being moved.
+     * @param newAppointment The appointment at its new date and timeslot.
+     * @throws IOException If the record cannot be written.
+     */
+    public void rescheduled(Appointment oldAppointment, Appointment newAppointment) throws IOException {
+        record(OP_RESCHEDULE, oldAppointment, newAppointment);
+    }
+
+    /**
+     * Gets the random id of this journal file.
+     *
+     * @return The journal id, never 0.
+     */
+    public synchronized long getId() {
+        return id;
+    }
+
+    /**
+     * Gets the file offset just past the last appended record.
+     * A snapshot taken together with this offset holds every operation recorded before it.
+     *
+     * @return The end offset.
+     */
+    public synchronized long getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * Starts a fresh journal file, so that the next snapshot lets the journal shrink.
+     * Call it just before copying the state for a snapshot, and take the snapshot's journal id and offset
+     * after it. Everything appended so far is forced to the current file, which is then kept as the
+     * previous journal until dropPrevious() is called once the snapshot is durable. While a previous
+     * journal is kept, because a snapshot has not completed since the last rotation, the file is not
+     * rotated again.
+     *
+     * @return True if a fresh file was started, false if the journal was kept as it is.
+     * @throws IOException If the records cannot be written or the fresh file cannot be created.
+     */
+    public synchronized boolean rotate() throws IOException {
+        if (closed || failure != null || Files.exists(previous)) {
+            return false;
+        }
+        while (committing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while rotating the journal");
+            }
+        }
+        try {
+            // Holding the lock with no commit running, no other thread can append or write
+            pending.flip();
+            while (pending.hasRemaining()) {
+                channel.write(pending);
+            }
+            pending.clear();
+            channel.force(false);
+            written = appended;
+            forced = appended;
+            channel.close();
+            Files.move(file, previous, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            writeHeader();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Deletes the previous journal kept by rotate(). Call it once a snapshot taken after the rotation
+     * is durable.
+     *
+     * @throws IOException If the file cannot be deleted.
+     */
+    public void dropPrevious() throws IOException {
+        Files.deleteIfExists(previous);
+    }
+
+    /**
+     * Forces every appended record to disk.
+     *
+     * @throws IOException If the records cannot be written.
+     */
+    public void sync() throws IOException {
+        long target;
+        synchronized (this) {
+            target = appended;
+        }
+        commit(target, true);
+    }
+
+    /**
+     * Forces every appended record to disk and closes the journal.
+     *
+     * @throws IOException If the records cannot be written.
+     */
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Encodes an operation into the pending buffer and commits it as the sync policy requires.
+     *
+     * @param op The operation code.
+     * @param removed The appointment the operation removes, or null.
+     * @param added The appointment the operation adds, or null.
+     * @throws IOException If the record cannot be encoded or written.
+     */
+    private void record(byte op, Appointment removed, Appointment added) throws IOException {
+        long seq;
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("Journal is closed");
+            }
+            if (failure != null) {
+                throw new IOException("Journal failed earlier", failure);
+            }
+            scratch.clear();
+            scratch.put(op);
+            if (removed != null) {
+                putKey(removed);
+            }
+            if (added != null) {
+                putAppointment(added);
+            }
+            scratch.flip();
+            crc.reset();
+            crc.update(scratch.array(), 0, scratch.limit());
+            reserve(RECORD_HEADER_BYTES + scratch.limit());
+            endOffset += RECORD_HEADER_BYTES + scratch.limit();
+            pending.putInt(scratch.limit()).putInt((int) crc.getValue()).put(scratch);
+            seq = ++appended;
+        }
+        switch (policy) {
+            case EVERY_OP:
+                commit(seq, true);
+                break;
+            case BATCHED:
+                commit(seq, seq % batchSize == 0);
+                break;
+            case TIMED:
+                commit(seq, false);
+                break;
+        }
+    }
+
+    /**
+     * Makes sure a record is written, and forced if asked, using group commit.
+     * One thread at a time writes everything pending and, if needed, forces it, while the threads
+     * whose records it carried wait for it instead of issuing their own writes.
+     *
+     * @param seq The sequence number of the record.
+     * @param force True if the record must also be forced to disk.
+     * @throws IOException If the write or the force fails.
+     */
+    private void commit(long seq, boolean force) throws IOException {
+        while (true) {
+            ByteBuffer batch;
+            long target;
+            synchronized (this) {
+                while (committing) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Interrupted while committing the journal");
+                    }
+                }
+                if (failure != null) {
+                    throw new IOException("Journal failed earlier", failure);
+                }
+                if (force ? forced >= seq : written >= seq) {
+                    return;
+                }
+                committing = true;
+                batch = pending;
+                pending = spare;
+                spare = null;
+                target = appended;
+            }
+            IOException error = null;
+            try {
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                if (force) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+            synchronized (this) {
+                batch.clear();
+                spare = batch;
+                committing = false;
+                if (error == null) {
+                    written = target;
+                    if (force) {
+                        forced = target;
+                    }
+                } else if (failure == null) {
+                    failure = error;
+                }
+                notifyAll();
+            }
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
+    /**
+     * Makes room in the pending buffer for a record.
+     *
+     * @param bytes The size of the record.
+     */
+    private void reserve(int bytes) {
+        if (pending.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+    }
+
+    /**
+     * Starts the background thread that forces the journal under TIMED.
+     *
+     * @param intervalMillis The time between fsyncs.
+     */
+    private void startTimer(long intervalMillis) {
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, intervalMillis);
+        timer.scheduleWithFixedDelay(() -> {
+            try {
+                sync();
+            } catch (IOException e) {
+                // The failure is kept and reported by the next append
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the file header of a new journal.
+     *
+     * @throws IOException If the header cannot be written.
+     */
+    private void writeHeader() throws IOException {
+        id = new SecureRandom().nextLong() | 1; // Odd, so never 0
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putShort(VERSION).putLong(registry.fingerprint()).putLong(id).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+        channel.position(HEADER_BYTES);
+        endOffset = HEADER_BYTES;
+    }
+
+    /**
+     * Checks the file header of an existing journal.
+     *
+     * @param in The journal file.
+     * @return The id of the journal.
+     * @throws IOException If the file is not a journal, has another version, or was written for another roster.
+     */
+    private long readHeader(FileChannel in) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining() && in.read(header, header.position()) >= 0) {
+            // Keep reading until the header is full or the file ends
+        }
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+            throw new IOException("Not an appointment journal");
+        }
+        if (header.getShort() != VERSION) {
+            throw new IOException("Unsupported journal version");
+        }
+        if (header.getLong() != registry.fingerprint()) {
+            throw new IOException("Journal was written for a different provider roster");
+        }
+        return header.getLong();
+    }
+
+    /**
+     * Replays the previous journal kept by rotate(), from the checkpoint if it is the checkpoint's journal.
+     *
+     * @param checkpointId The id of the journal the checkpoint was taken from, or 0 for none.
+     * @param checkpointOffset The end offset of that journal when the checkpoint was taken.
+     * @param listener Receives the replayed operations, or null.
+     * @throws IOException If the file cannot be read or was written for another roster or format.
+     */
+    private void replayPrevious(long checkpointId, long checkpointOffset, Listener listener) throws IOException {
+        try (FileChannel in = FileChannel.open(previous, StandardOpenOption.READ)) {
+            long previousId = readHeader(in);
+            replay(in, previousId == checkpointId ? checkpointOffset : HEADER_BYTES, listener);
+        }
+    }
+
+    /**
+     * Reads the valid records from an offset on, passing each operation to a listener.
+     * The file is read in chunks through one small buffer, so its size does not matter.
+     *
+     * @param in The journal file.
+     * @param start The file offset of the first record to replay.
+     * @param listener Receives the replayed operations, or null.
+     * @return The file offset just past the last valid record.
+     * @throws IOException If the file cannot be read, or is shorter than the start offset.
+     */
+    private long replay(FileChannel in, long start, Listener listener) throws IOException {
+        if (start < HEADER_BYTES || start > in.size()) {
+            throw new IOException("Journal does not reach the snapshot checkpoint");
+        }
+        ByteBuffer data = ByteBuffer.allocate(REPLAY_BUFFER_BYTES);
+        data.flip();
+        long next = start;     // File offset of the record at the buffer's position
+        long readFrom = start; // File offset of the next byte to read into the buffer
+        boolean eof = false;
+        while (true) {
+            if (!eof && data.remaining() < RECORD_HEADER_BYTES + MAX_RECORD_BYTES) {
+                data.compact();
+                while (data.hasRemaining()) {
+                    int n = in.read(data, readFrom);
+                    if (n < 0) {
+                        eof = true;
+                        break;
+                    }
+                    readFrom += n;
+                }
+                data.flip();
+            }
+            if (data.remaining() < RECORD_HEADER_BYTES) {
+                break;
+            }
+            int length = data.getInt();
+            int checksum = data.getInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES || length > data.remaining()) {
+                break;
+            }
+            ByteBuffer body = data.slice(data.position(), length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != checksum || !apply(body, listener)) {
+                break;
+            }
+            data.position(data.position() + length);
+            next += RECORD_HEADER_BYTES + length;
+        }
+        return next;
+    }
+
+    /**
+     * Decodes one record body and passes its operation to a listener.
+     *
+     * @param body The record body.
+     * @param listener Receives the operation, or null.
+     * @return True if the body was a valid operation, false otherwise.
+     */
+    private boolean apply(ByteBuffer body, Listener listener) {
+        byte op;
+        Date date = null;
+        Timeslot timeslot = null;
+        Profile patient = null;
+        Appointment appointment = null;
+        try {
+            op = body.get();
+            if (op == OP_CANCEL || op == OP_RESCHEDULE) {
+                date = Date.ofEpochDay(body.getInt());
+                timeslot = getTimeslot(body);
+                patient = getProfile(body);
+                if (timeslot == null) {
+                    return false;
+                }
+            }
+            if (op == OP_SCHEDULE || op == OP_RESCHEDULE) {
+                appointment = getAppointment(body);
+                if (appointment == null) {
+                    return false;
+                }
+            }
+            if (op < OP_SCHEDULE || op > OP_RESCHEDULE || body.hasRemaining()) {
+                return false;
+            }
+        } catch (BufferUnderflowException e) {
+            return false; // A body too short for its fields
+        }
+        if (listener != null) {
+            switch (op) {
+                case OP_SCHEDULE:
+                    listener.scheduled(appointment);
+                    break;
+                case OP_CANCEL:
+                    listener.cancelled(date, timeslot, patient);
+                    break;
+                default:
+                    listener.rescheduled(date, timeslot, patient, appointment);
+                    break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encodes the key of an appointment: its date, timeslot and patient.
+     *
+     * @param appointment The appointment.
+     * @throws IOException If a name is too long to store.
+     */
+    private void putKey(Appointment appointment) throws IOException {
+        scratch.putInt(appointment.getDate().toEpochDay());
+        scratch.put((byte) appointment.getTimeslot().ordinal());
+        Profile patient = appointment.getPatient().getProfile();
+        putString(patient.getFirstName());
+        putString(patient.getLastName());
+        scratch.putInt(patient.getDob().toEpochDay());
+    }
+
+    /**
+     * Encodes a whole appointment: its key, provider id and imaging room.
+     *
+     * @param appointment The appointment.
+     * @throws IOException If the provider is not on the roster or a name is too long to store.
+     */
+    private void putAppointment(Appointment appointment) throws IOException {
+        int providerId = registry.idOf(appointment.getProvider());
+        if (providerId < 0) {
+            throw new IOException("Provider is not on the roster: " + appointment.getProvider().getProfile());
+        }
+        putKey(appointment);
+        scratch.putInt(providerId);
+        scratch.put(appointment instanceof Imaging ? (byte) ((Imaging) appointment).getRoom().ordinal() : NO_ROOM);
+    }
+
+    /**
+     * Encodes a string as its UTF-8 length and bytes.
+     *
+     * @param text The string.
+     * @throws IOException If the string is too long to store.
+     */
+    private void putString(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IOException("Name is too long for the journal");
+        }
+        scratch.putShort((short) bytes.length);
+        scratch.put(bytes);
+    }
+
+    /**
+     * Decodes a whole appointment.
+     *
+     * @param body The record body.
+     * @return The appointment, or null if a field is out of range.
+     */
+    private Appointment getAppointment(ByteBuffer body) {
+        Date date = Date.ofEpochDay(body.getInt());
+        Timeslot timeslot = getTimeslot(body);
+        Profile patient = getProfile(body);
+        int providerId = body.getInt();
+        byte room = body.get();
+        if (timeslot == null || providerId < 0 || providerId >= registry.size()) {
+            return null;
+        }
+        Provider provider = registry.getProvider(providerId);
+        if (room == NO_ROOM) {
+            return new Appointment(date, timeslot, new Person(patient), provider);
+        }
+        if (room < 0 || room >= Radiology.values().length) {
+            return null;
+        }
+        return new Imaging(date, timeslot, new Person(patient), provider, Radiology.values()[room]);
+    }
+
+    /**
+     * Decodes a timeslot ordinal.
+     *
+     * @param body The record body.
+     * @return The timeslot, or null if the ordinal is out of range.
+     */
+    private static Timeslot getTimeslot(ByteBuffer body) {
+        int ordinal = body.get();
+        return ordinal >= 0 && ordinal < Timeslot.COUNT ? Timeslot.fromOrdinal(ordinal) : null;
+    }
+
+    /**
+     * Decodes a patient profile.
+     *
+     * @param body The record body.
+     * @return The profile.
+     */
+    private static Profile getProfile(ByteBuffer body) {
+        String firstName = getString(body);
+        String lastName = getString(body);
+        return new Profile(firstName, lastName, Date.ofEpochDay(body.getInt()));
+    }
+
+    /**
+     * Decodes a string stored as its UTF-8 length and bytes.
+     *
+     * @param body The record body.
+     * @return The string.
+     */
+    private static String getString(ByteBuffer body) {
+        byte[] bytes = new byte[body.getShort() & 0xFFFF];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Main testbed method: measures durable operations per second under each sync policy,
+     * with one thread and with several threads sharing group commits.
+     *
+     * @param args Command-line arguments (not used).
+     * @throws Exception If the benchmark journal cannot be written.
+     */
+    public static void main(String[] args) throws Exception {
+        List<Appointment> appointments = SampleAppointments.random(20000, new Random(20));
+        ProviderRegistry registry = new ProviderRegistry();
+        for (Appointment appointment : appointments) {
+            if (registry.idOf(appointment.getProvider()) < 0) {
+                registry.add((Provider) appointment.getProvider());
+            }
+        }
+        int[] threadCounts = {1, 4};
+        System.out.printf("%-9s %8s %8s %12s%n", "policy", "threads", "ops", "ops/second");
+        for (SyncPolicy policy : SyncPolicy.values()) {
+            for (int threads : threadCounts) {
+                int ops = policy == SyncPolicy.EVERY_OP ? 2000 : appointments.size();
+                Path file = Files.createTempFile("journal-bench", ".bin");
+                Files.delete(file);
+                AppointmentJournal journal = open(file, registry, policy, 64, 10, null);
+                Thread[] workers = new Thread[threads];
+                long start = System.nanoTime();
+                for (int t = 0; t < threads; t++) {
+                    int first = t;
+                    workers[t] = new Thread(() -> {
+                        try {
+                            for (int i = first; i < ops; i += threads) {
+                                journal.scheduled(appointments.get(i));
+                            }
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    });
+                    workers[t].start();
+                }
+                for (Thread worker : workers) {
+                    worker.join();
+                }
+                journal.close();
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%-9s %8d %8d %12.0f%n", policy, threads, ops, ops / seconds);
+
+                int[] replayed = new int[1];
+                long replayStart = System.nanoTime();
+                AppointmentJournal reopened = open(file, registry, policy, 64, 10, new Listener() {
+                    @Override
+                    public void scheduled(Appointment appointment) {
+                        replayed[0]++;
+                    }
+
+                    @Override
+                    public void cancelled(Date date, Timeslot timeslot, Profile patient) {
+                    }
+
+                    @Override
+                    public void rescheduled(Date date, Timeslot timeslot, Profile patient, Appointment appointment) {
+                    }
+                });
+                reopened.close();
+                if (threads == 1) {
+                    System.out.printf("          replayed %d records in %.1f ms%n", replayed[0],
+                            (System.nanoTime() - replayStart) / 1e6);
+                }
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the AppointmentJournal class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class AppointmentJournalTest {
+    private final Doctor doctor = new Doctor(new Profile("John", "Doe", new Date(1970, 1, 1)), Location.BRIDGEWATER, Specialty.FAMILY, "01");
+    private final Technician technician = new Technician(new Profile("Jane", "Smith", new Date(1980, 3, 15)), Location.EDISON, 125);
+    private final Person patient = new Person(new Profile("Varun", "Bondugula", new Date(1989, 12, 13)));
+
+    /**
+     * Listener that writes each replayed operation as a line of text.
+     */
+    private static class RecordingListener implements AppointmentJournal.Listener {
+        private final StringBuilder log = new StringBuilder();
+
+        @Override
+        public void scheduled(Appointment appointment) {
+            log.append("S ").append(appointment).append('\n');
+        }
+
+        @Override
+        public void cancelled(Date date, Timeslot timeslot, Profile patient) {
+            log.append("C ").append(date).append(' ').append(timeslot).append(' ').append(patient).append('\n');
+        }
+
+        @Override
+        public void rescheduled(Date date, Timeslot timeslot, Profile patient, Appointment appointment) {
+            log.append("R ").append(date).append(' ').append(timeslot).append(' ').append(appointment).append('\n');
+        }
+    }
+
+    /**
+     * Creates a registry holding the test providers.
+     *
+     * @return The registry.
+     */
+    private ProviderRegistry registry() {
+        ProviderRegistry registry = new ProviderRegistry();
+        registry.add(doctor);
+        registry.add(technician);
+        return registry;
+    }
+
+    /**
+     * Creates a few appointments for two patients.
+     *
+     * @return The appointments, in date order.
+     */
+    private List<Appointment> appointments() {
+        Person other = new Person(new Profile("Sinan", "Merchant", new Date(1990, 6, 1)));
+        List<Appointment> appointments = new List<>();
+        appointments.add(new Appointment(new Date(2024, 10, 30), Timeslot.getTimeslot(1), patient, doctor));
+        appointments.add(new Imaging(new Date(2024, 10, 31), Timeslot.getTimeslot(12), other, technician, Radiology.ULTRASOUND));
+        appointments.add(new Appointment(new Date(2024, 11, 4), Timeslot.getTimeslot(6), patient, doctor));
+        return appointments;
+    }
+
+    /**
+     * Test case for operations read back in order after the journal is reopened.
+     */
+    @Test
+    public void testReplayAfterReopen() throws IOException {
+        Path file = Files.createTempFile("journal-test", ".bin");
+        Files.delete(file);
+        try {
+            Appointment office = new Appointment(new Date(2024, 10, 30), Timeslot.getTimeslot(1), patient, doctor);
+            Imaging imaging = new Imaging(new Date(2024, 10, 31), Timeslot.getTimeslot(2), patient, technician, Radiology.XRAY);
+            Appointment moved = new Appointment(new Date(2024, 11, 4), Timeslot.getTimeslot(6), patient, doctor);
+
+            AppointmentJournal journal = AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.BATCHED, 2, 0, null);
+            journal.scheduled(office);
+            journal.scheduled(imaging);
+            journal.cancelled(imaging);
+            journal.rescheduled(office, moved);
+            journal.close();
+
+            RecordingListener listener = new RecordingListener();
+            AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.EVERY_OP, 1, 0, listener).close();
+            String expected = "S " + office + "\n"
+                    + "S " + imaging + "\n"
+                    + "C " + imaging.getDate() + " " + imaging.getTimeslot() + " " + patient.getProfile() + "\n"
+                    + "R " + office.getDate() + " " + office.getTimeslot() + " " + moved + "\n";
+            assertEquals(expected, listener.log.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test case for a torn record at the end being cut off so that later records follow the valid ones.
+     */
+    @Test
+    public void testTornTailIsTruncated() throws IOException {
+        Path file = Files.createTempFile("journal-test", ".bin");
+        Files.delete(file);
+        try {
+            Appointment first = new Appointment(new Date(2024, 10, 30), Timeslot.getTimeslot(1), patient, doctor);
+            Appointment second = new Appointment(new Date(2024, 10, 30), Timeslot.getTimeslot(2), patient, doctor);
+            AppointmentJournal journal = AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.EVERY_OP, 1, 0, null);
+            journal.scheduled(first);
+            journal.scheduled(second);
+            journal.close();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(channel.size() - 3);
+            }
+
+            journal = AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.EVERY_OP, 1, 0, null);
+            journal.scheduled(second);
+            journal.close();
+
+            RecordingListener listener = new RecordingListener();
+            AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.EVERY_OP, 1, 0, listener).close();
+            assertEquals("S " + first + "\nS " + second + "\n", listener.log.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test case for a journal longer than the replay buffer being read back in full.
+     */
+    @Test
+    public void testReplayLongJournal() throws IOException {
+        Path file = Files.createTempFile("journal-test", ".bin");
+        Files.delete(file);
+        try {
+            Appointment office = new Appointment(new Date(2024, 10, 30), Timeslot.getTimeslot(1), patient, doctor);
+            AppointmentJournal journal = AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.BATCHED, 1000, 0, null);
+            for (int i = 0; i < 5000; i++) {
+                journal.scheduled(office);
+            }
+            journal.close();
+            assertTrue(Files.size(file) > 1 << 16);
+
+            RecordingListener listener = new RecordingListener();
+            AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.EVERY_OP, 1, 0, listener).close();
+            assertEquals(5000 * ("S " + office + "\n").length(), listener.log.length());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test case for a rotated journal: the previous file is replayed until a snapshot after the rotation
+     * holds it, and only the records after that snapshot are replayed once it does.
+     */
+    @Test
+    public void testRotation() throws IOException {
+        Path file = Files.createTempFile("journal-test", ".bin");
+        Files.delete(file);
+        Path previous = file.resolveSibling(file.getFileName() + ".prev");
+        try {
+            List<Appointment> appointments = appointments();
+            AppointmentJournal journal = AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.BATCHED, 64, 0, null);
+            journal.scheduled(appointments.get(0));
+            journal.scheduled(appointments.get(1));
+            long oldId = journal.getId();
+            assertTrue(journal.rotate());
+            assertFalse(journal.rotate());
+            long newId = journal.getId();
+            long checkpoint = journal.getEndOffset();
+            assertTrue(oldId != newId);
+            journal.scheduled(appointments.get(2));
+            journal.close();
+
+            // No snapshot holds the rotated records yet, so both files are replayed in order
+            RecordingListener listener = new RecordingListener();
+            AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.EVERY_OP, 1, 0, listener).close();
+            assertEquals("S " + appointments.get(0) + "\nS " + appointments.get(1) + "\nS " + appointments.get(2) + "\n",
+                    listener.log.toString());
+            assertTrue(Files.exists(previous));
+
+            // A snapshot taken after the rotation makes the previous file unnecessary
+            listener = new RecordingListener();
+            AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.EVERY_OP, 1, 0, newId, checkpoint, listener).close();
+            assertEquals("S " + appointments.get(2) + "\n", listener.log.toString());
+            assertFalse(Files.exists(previous));
+        } finally {
+            Files.deleteIfExists(previous);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test case for replay starting at the checkpoint without reading the records before it.
+     */
+    @Test
+    public void testReplayStartsAtCheckpoint() throws IOException {
+        Path file = Files.createTempFile("journal-test", ".bin");
+        Files.delete(file);
+        try {
+            List<Appointment> appointments = appointments();
+            AppointmentJournal journal = AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.EVERY_OP, 1, 0, null);
+            journal.scheduled(appointments.get(0));
+            long id = journal.getId();
+            long checkpoint = journal.getEndOffset();
+            journal.scheduled(appointments.get(1));
+            journal.close();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.wrap(new byte[] {0x7F}), checkpoint - 1); // Damage the skipped record
+            }
+
+            RecordingListener listener = new RecordingListener();
+            AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.EVERY_OP, 1, 0, id, checkpoint, listener).close();
+            assertEquals("S " + appointments.get(1) + "\n", listener.log.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test case for a journal refusing to open against a different roster.
+     */
+    @Test
+    public void testDifferentRosterRejected() throws IOException {
+        Path file = Files.createTempFile("journal-test", ".bin");
+        Files.delete(file);
+        try {
+            AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.EVERY_OP, 1, 0, null).close();
+            ProviderRegistry other = new ProviderRegistry();
+            other.add(technician);
+            try {
+                AppointmentJournal.open(file, other, AppointmentJournal.SyncPolicy.EVERY_OP, 1, 0, null);
+                fail("Expected the roster check to fail");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("roster"));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
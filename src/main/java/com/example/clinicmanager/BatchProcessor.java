@@ -0,0 +1,657 @@
+package com.example.clinicmanager;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Streams a command file through the scheduling engine, one line at a time, in file order.
+ * The file is read through one reusable buffer and each line is split and parsed in place, byte by byte,
+ * so a line costs no regex, tokenizer or exception however many lines there are. Every command gets one
+ * result in the output: its line number, its status and the message of the engine. At the end a Summary
+ * gives the throughput, the number of errors of each kind and percentiles of the time per command.
+ * The commands are those of ClinicBatchMain.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class BatchProcessor {
+    static final int DEFAULT_BUFFER_BYTES = 64 * 1024;
+    static final String INVALID_COMMAND = "INVALID_COMMAND";
+    static final String REPORT = "REPORT";
+    private static final int MAX_FIELDS = 9; // One more than the longest command, to detect extra fields
+    private static final Radiology[] ROOMS = Radiology.values();
+
+    private final ClinicScheduler scheduler;
+    private final ReportRenderer renderer;
+    private final int bufferBytes;
+    private final int[] fieldStarts;
+    private final int[] fieldEnds;
+    private byte[] line; // Bytes of the line being parsed
+    private int fields;  // Number of fields of the line being parsed
+
+    /**
+     * Outcome of a batch run.
+     */
+    public static final class Summary {
+        private long commands;
+        private long errors;
+        private long elapsedNanos;
+        private long[] latencies; // Time of each timed command in nanoseconds, sorted once the run ends
+        private int timed;        // Number of latencies recorded
+        private final Map<String, Long> errorCounts;
+
+        /**
+         * Constructor to create an empty summary.
+         */
+        private Summary() {
+            latencies = new long[1024];
+            errorCounts = new LinkedHashMap<>();
+        }
+
+        /**
+         * Records one command.
+         *
+         * @param status The status of the command.
+         * @param success True if the command succeeded.
+         * @param nanos The time the command took.
+         */
+        private void record(String status, boolean success, long nanos) {
+            if (timed == latencies.length) {
+                latencies = Arrays.copyOf(latencies, latencies.length * 2);
+            }
+            latencies[timed++] = nanos;
+            commands++;
+            if (!success) {
+                errors++;
+                errorCounts.merge(status, 1L, Long::sum);
+            }
+        }
+
+        /**
+         * Records a line rejected before it could be parsed. It counts as a failed command but is not timed,
+         * since no work was done on it.
+         *
+         * @param status The status of the line.
+         */
+        private void recordRejected(String status) {
+            commands++;
+            errors++;
+            errorCounts.merge(status, 1L, Long::sum);
+        }
+
+        /**
+         * Ends the run.
+         *
+         * @param nanos The time the whole run took.
+         */
+        private void finish(long nanos) {
+            elapsedNanos = nanos;
+            latencies = Arrays.copyOf(latencies, timed);
+            Arrays.sort(latencies);
+        }
+
+        /**
+         * Gets the number of commands run.
+         *
+         * @return The number of commands, not counting blank lines.
+         */
+        public long getCommands() {
+            return commands;
+        }
+
+        /**
+         * Gets the number of commands that failed or could not be parsed.
+         *
+         * @return The number of errors.
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * Gets the number of errors of each kind, in the order they first happened.
+         *
+         * @return The error counts by status.
+         */
+        public Map<String, Long> getErrorCounts() {
+            return errorCounts;
+        }
+
+        /**
+         * Gets the time the whole run took, including reading and writing.
+         *
+         * @return The elapsed time in nanoseconds.
+         */
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Gets the throughput of the run.
+         *
+         * @return The number of commands per second.
+         */
+        public double getCommandsPerSecond() {
+            return elapsedNanos == 0 ? 0 : commands * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Gets a percentile of the time per command, parsing included, by the nearest-rank method.
+         * Lines too long to parse are left out.
+         *
+         * @param percentile The percentile, from 0 to 100.
+         * @return The time in nanoseconds, or 0 if no command was timed.
+         */
+        public long getLatencyPercentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * latencies.length);
+            return latencies[Math.max(0, Math.min(latencies.length, rank) - 1)];
+        }
+
+        /**
+         * Returns the summary as text.
+         *
+         * @return The throughput, errors and latency percentiles, one per line.
+         */
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("%,d command(s) in %.3f s: %,.0f commands/s%n",
+                    commands, elapsedNanos / 1e9, getCommandsPerSecond()));
+            text.append(String.format("Errors: %,d", errors));
+            String separator = " (";
+            for (Map.Entry<String, Long> entry : errorCounts.entrySet()) {
+                text.append(separator).append(entry.getKey()).append(' ').append(entry.getValue());
+                separator = ", ";
+            }
+            text.append(errorCounts.isEmpty() ? "" : ")").append(String.format("%n"));
+            text.append(String.format("Latency: p50 %.1f us, p90 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us",
+                    getLatencyPercentile(50) / 1e3, getLatencyPercentile(90) / 1e3, getLatencyPercentile(99) / 1e3,
+                    getLatencyPercentile(99.9) / 1e3, getLatencyPercentile(100) / 1e3));
+            return text.toString();
+        }
+    }
+
+    /**
+     * Constructor to create a processor that runs commands on an engine.
+     *
+     * @param scheduler The engine to run the commands on.
+     */
+    public BatchProcessor(ClinicScheduler scheduler) {
+        this(scheduler, DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * Constructor to create a processor with a given read buffer size.
+     * Lines longer than the buffer are rejected.
+     *
+     * @param scheduler The engine to run the commands on.
+     * @param bufferBytes The size of the read buffer.
+     */
+    BatchProcessor(ClinicScheduler scheduler, int bufferBytes) {
+        this.scheduler = scheduler;
+        this.renderer = new ReportRenderer();
+        this.bufferBytes = bufferBytes;
+        this.fieldStarts = new int[MAX_FIELDS];
+        this.fieldEnds = new int[MAX_FIELDS];
+    }
+
+    /**
+     * Runs a command file and writes the result of every command to another file.
+     *
+     * @param commands The command file.
+     * @param results The file the results are written to, replacing it if it exists.
+     * @return The summary of the run.
+     * @throws IOException If a file cannot be read or written.
+     */
+    public Summary process(Path commands, Path results) throws IOException {
+        try (FileChannel in = FileChannel.open(commands, StandardOpenOption.READ);
+             Writer out = Files.newBufferedWriter(results, StandardCharsets.UTF_8)) {
+            return process(in, out);
+        }
+    }
+
+    /**
+     * Runs the commands read from a channel, stopping at the end of the input or at a Q command.
+     *
+     * @param in The channel the commands are read from.
+     * @param out The writer the results are written to; it is not flushed or closed.
+     * @return The summary of the run.
+     * @throws IOException If the commands cannot be read or the results cannot be written.
+     */
+    public Summary process(ReadableByteChannel in, Writer out) throws IOException {
+        Summary summary = new Summary();
+        long start = System.nanoTime();
+        ByteBuffer buffer = ByteBuffer.allocate(bufferBytes);
+        line = buffer.array();
+        int lineNumber = 0;
+        int lineStart = 0;
+        int scanned = 0;      // Bytes of the buffer already searched for a newline
+        boolean tooLong = false; // True while skipping the rest of a line longer than the buffer
+        boolean running = true;
+        while (running) {
+            boolean end = in.read(buffer) < 0;
+            int limit = buffer.position();
+            for (int i = scanned; i < limit && running; i++) {
+                if (line[i] == '\n') {
+                    lineNumber++;
+                    running = tooLong ? reject(lineNumber, "line is too long", out, summary)
+                            : run(lineStart, i, lineNumber, out, summary);
+                    tooLong = false;
+                    lineStart = i + 1;
+                }
+            }
+            if (!running) {
+                break;
+            }
+            if (end) {
+                if (tooLong) {
+                    reject(lineNumber + 1, "line is too long", out, summary);
+                } else if (lineStart < limit) {
+                    run(lineStart, limit, lineNumber + 1, out, summary);
+                }
+                break;
+            }
+            if (lineStart == 0 && limit == line.length) {
+                tooLong = true; // Drop what has been read of the line and skip to its end
+                lineStart = limit;
+            }
+            System.arraycopy(line, lineStart, line, 0, limit - lineStart);
+            buffer.position(limit - lineStart);
+            scanned = limit - lineStart;
+            lineStart = 0;
+        }
+        summary.finish(System.nanoTime() - start);
+        return summary;
+    }
+
+    /**
+     * Parses and runs one line.
+     *
+     * @param start The offset of the first byte of the line.
+     * @param end The offset just past the last byte of the line, before the newline.
+     * @param lineNumber The 1-based number of the line.
+     * @param out The writer the result is written to.
+     * @param summary The summary the command is recorded in.
+     * @return False if the line is a Q command, true to go on.
+     * @throws IOException If the result cannot be written.
+     */
+    private boolean run(int start, int end, int lineNumber, Writer out, Summary summary) throws IOException {
+        long began = System.nanoTime();
+        split(start, end);
+        if (fields == 1 && fieldEnds[0] == fieldStarts[0]) {
+            return true; // Blank line
+        }
+        if (fields == 1 && is(0, "Q")) {
+            return false;
+        }
+
+        String status;
+        String message;
+        boolean success;
+        ClinicScheduler.Result result = null;
+        String error = null;
+        if (is(0, "D") || is(0, "T") || is(0, "C") || is(0, "R")) {
+            int expected = is(0, "C") ? 6 : is(0, "R") ? 8 : 7;
+            Date date = fields == expected ? parseDate(1) : null;
+            Timeslot timeslot = fields == expected ? parseTimeslot(2) : null;
+            Date dob = fields == expected ? parseDate(5) : null;
+            if (fields != expected) {
+                error = "expected " + expected + " fields";
+            } else if (date == null || dob == null) {
+                error = "invalid date";
+            } else if (timeslot == null) {
+                error = "invalid timeslot";
+            } else {
+                Profile patient = new Profile(text(3), text(4), dob);
+                if (is(0, "D")) {
+                    result = scheduler.scheduleOffice(date, timeslot, patient, text(6));
+                } else if (is(0, "T")) {
+                    Radiology room = parseRoom(6);
+                    if (room == null) {
+                        error = "invalid room";
+                    } else {
+                        result = scheduler.scheduleImaging(date, timeslot, patient, room);
+                    }
+                } else if (is(0, "C")) {
+                    result = scheduler.cancel(date, timeslot, patient);
+                } else {
+                    Date newDate = parseDate(6);
+                    Timeslot newTimeslot = parseTimeslot(7);
+                    if (newDate == null) {
+                        error = "invalid date";
+                    } else if (newTimeslot == null) {
+                        error = "invalid timeslot";
+                    } else {
+                        result = scheduler.reschedule(date, timeslot, patient, newDate, newTimeslot);
+                    }
+                }
+            }
+        } else if (fields == 1 && fieldEnds[0] - fieldStarts[0] == 2 && line[fieldStarts[0]] == 'P') {
+            ReportRenderer.Body body = report((char) line[fieldStarts[0] + 1]);
+            if (body != null || isReportKey((char) line[fieldStarts[0] + 1])) {
+                status = REPORT;
+                message = body == null ? "Schedule calendar is empty." : reportText(body);
+                summary.record(status, true, System.nanoTime() - began);
+                write(out, lineNumber, status, message);
+                return true;
+            }
+            error = "unknown command";
+        } else {
+            error = "unknown command";
+        }
+
+        if (result != null) {
+            status = result.getStatus().name();
+            message = result.getMessage();
+            success = result.isSuccess();
+        } else {
+            status = INVALID_COMMAND;
+            message = error;
+            success = false;
+        }
+        summary.record(status, success, System.nanoTime() - began);
+        write(out, lineNumber, status, message);
+        return true;
+    }
+
+    /**
+     * Records a line that cannot be parsed.
+     *
+     * @param lineNumber The 1-based number of the line.
+     * @param message Why the line was rejected.
+     * @param out The writer the result is written to.
+     * @param summary The summary the error is recorded in.
+     * @return True, to go on with the next line.
+     * @throws IOException If the result cannot be written.
+     */
+    private boolean reject(int lineNumber, String message, Writer out, Summary summary) throws IOException {
+        summary.recordRejected(INVALID_COMMAND);
+        write(out, lineNumber, INVALID_COMMAND, message);
+        return true;
+    }
+
+    /**
+     * Writes the result of a line as "line status message".
+     *
+     * @param out The writer.
+     * @param lineNumber The 1-based number of the line.
+     * @param status The status of the command.
+     * @param message The message, which may span several lines.
+     * @throws IOException If the result cannot be written.
+     */
+    private static void write(Writer out, int lineNumber, String status, String message) throws IOException {
+        out.write(Integer.toString(lineNumber));
+        out.write(' ');
+        out.write(status);
+        out.write(' ');
+        out.write(message);
+        out.write('\n');
+    }
+
+    /**
+     * Prepares a report.
+     *
+     * @param key The second letter of the P command.
+     * @return The report, or null if the key is unknown or there is nothing to report.
+     */
+    private ReportRenderer.Body report(char key) {
+        switch (key) {
+            case 'A':
+            case 'P':
+            case 'L':
+            case 'O':
+            case 'I':
+                return scheduler.appointmentReport(key);
+            case 'S':
+                return scheduler.billingReport();
+            case 'C':
+                return scheduler.creditReport();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Checks whether a letter names a report.
+     *
+     * @param key The second letter of the P command.
+     * @return True if there is a report for it.
+     */
+    private static boolean isReportKey(char key) {
+        return "APLOISC".indexOf(key) >= 0;
+    }
+
+    /**
+     * Formats a report.
+     *
+     * @param body The report.
+     * @return The text of the report, without its last newline.
+     */
+    private String reportText(ReportRenderer.Body body) {
+        String text = renderer.render(body).getText();
+        return text.endsWith("\n") ? text.substring(0, text.length() - 1) : text;
+    }
+
+    /**
+     * Splits a line at its commas, trimming spaces, tabs and a carriage return around every field.
+     *
+     * @param start The offset of the first byte of the line.
+     * @param end The offset just past the last byte of the line.
+     */
+    private void split(int start, int end) {
+        fields = 0;
+        int fieldStart = start;
+        for (int i = start; i <= end && fields < MAX_FIELDS; i++) {
+            if (i == end || line[i] == ',') {
+                int s = fieldStart;
+                int e = i;
+                while (s < e && isBlank(line[s])) {
+                    s++;
+                }
+                while (e > s && isBlank(line[e - 1])) {
+                    e--;
+                }
+                fieldStarts[fields] = s;
+                fieldEnds[fields] = e;
+                fields++;
+                fieldStart = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a byte is white space around a field.
+     *
+     * @param b The byte.
+     * @return True for a space, tab or carriage return.
+     */
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Checks whether a field is exactly some ASCII text.
+     *
+     * @param field The index of the field.
+     * @param text The text.
+     * @return True if the field holds the text.
+     */
+    private boolean is(int field, String text) {
+        int start = fieldStarts[field];
+        if (fieldEnds[field] - start != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (line[start + i] != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a field as text.
+     *
+     * @param field The index of the field.
+     * @return The text of the field.
+     */
+    private String text(int field) {
+        return new String(line, fieldStarts[field], fieldEnds[field] - fieldStarts[field], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a field of digits.
+     *
+     * @param start The offset of the first digit.
+     * @param end The offset just past the last digit.
+     * @return The number, or -1 if the text is empty, too long or not all digits.
+     */
+    private int parseNumber(int start, int end) {
+        if (start == end || end - start > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Parses a field in MM/DD/YYYY format. The calendar validity of the date is left to the engine.
+     *
+     * @param field The index of the field.
+     * @return The date, or null if the field is not three numbers separated by slashes.
+     */
+    private Date parseDate(int field) {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        int first = start;
+        while (first < end && line[first] != '/') {
+            first++;
+        }
+        int second = first + 1;
+        while (second < end && line[second] != '/') {
+            second++;
+        }
+        if (second >= end) {
+            return null;
+        }
+        int month = parseNumber(start, first);
+        int day = parseNumber(first + 1, second);
+        int year = parseNumber(second + 1, end);
+        if (month < 0 || day < 0 || year < 0) {
+            return null;
+        }
+        return new Date(year, month, day);
+    }
+
+    /**
+     * Parses a timeslot number from 1 to 12.
+     *
+     * @param field The index of the field.
+     * @return The timeslot, or null if the field is not a timeslot number.
+     */
+    private Timeslot parseTimeslot(int field) {
+        int number = parseNumber(fieldStarts[field], fieldEnds[field]);
+        return number < 1 || number > Timeslot.COUNT ? null : Timeslot.getTimeslot(number);
+    }
+
+    /**
+     * Parses the name of an imaging room, ignoring case.
+     *
+     * @param field The index of the field.
+     * @return The room, or null if the field names no room.
+     */
+    private Radiology parseRoom(int field) {
+        int start = fieldStarts[field];
+        int length = fieldEnds[field] - start;
+        for (Radiology room : ROOMS) {
+            String name = room.name();
+            if (name.length() != length) {
+                continue;
+            }
+            int i = 0;
+            while (i < length && (line[start + i] & ~0x20) == name.charAt(i)) {
+                i++;
+            }
+            if (i == length) {
+                return room;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Main testbed method: writes 200,000 random schedule, imaging, cancel and reschedule commands
+     * and runs them through a processor, printing the summary of the run.
+     *
+     * @param args The roster file (optional; the roster on the classpath by default).
+     * @throws IOException If a file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        ProviderRegistry registry = args.length > 0 ? RosterLoader.load(Paths.get(args[0]), new List<>())
+                : RosterLoader.loadResource(RosterLoader.DEFAULT_RESOURCE, new List<>());
+        String[] npis = registry.getDoctorNpis();
+        String[] names = {"ANDREW", "RACHAEL", "MONICA", "JOHN", "TOM", "ERIC", "BEN", "JUSTIN", "GARY", "FRANK"};
+        LocalDate first = LocalDate.now().plusDays(1);
+        List<LocalDate> days = new List<>();
+        for (LocalDate day = first; day.isBefore(first.plusMonths(5)); day = day.plusDays(1)) {
+            if (day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                days.add(day);
+            }
+        }
+
+        Random random = new Random(24);
+        Path commands = Files.createTempFile("batch-bench", ".txt");
+        Path results = Files.createTempFile("batch-bench", ".out");
+        try {
+            try (Writer out = Files.newBufferedWriter(commands, StandardCharsets.UTF_8)) {
+                for (int i = 0; i < 200_000; i++) {
+                    LocalDate day = days.get(random.nextInt(days.size()));
+                    String date = day.getMonthValue() + "/" + day.getDayOfMonth() + "/" + day.getYear();
+                    String patient = names[random.nextInt(names.length)] + "," + names[random.nextInt(names.length)]
+                            + "," + (1 + random.nextInt(12)) + "/" + (1 + random.nextInt(28)) + "/" + (1950 + random.nextInt(60));
+                    int slot = 1 + random.nextInt(Timeslot.COUNT);
+                    int kind = random.nextInt(10);
+                    if (kind < 5) {
+                        out.write("D," + date + "," + slot + "," + patient + "," + npis[random.nextInt(npis.length)] + "\n");
+                    } else if (kind < 7) {
+                        out.write("T," + date + "," + slot + "," + patient + "," + ROOMS[random.nextInt(ROOMS.length)].name() + "\n");
+                    } else if (kind < 9) {
+                        out.write("C," + date + "," + slot + "," + patient + "\n");
+                    } else {
+                        out.write("R," + date + "," + slot + "," + patient + "," + date + "," + (1 + random.nextInt(Timeslot.COUNT)) + "\n");
+                    }
+                }
+            }
+            for (int round = 0; round < 3; round++) {
+                BatchProcessor processor = new BatchProcessor(new ClinicScheduler(registry));
+                System.out.println(processor.process(commands, results));
+            }
+        } finally {
+            Files.deleteIfExists(commands);
+            Files.deleteIfExists(results);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the BatchProcessor class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class BatchProcessorTest {
+    private final Doctor doctor = new Doctor(new Profile("John", "Doe", new Date(1970, 1, 1)), Location.BRIDGEWATER, Specialty.FAMILY, "01");
+    private final Technician technician = new Technician(new Profile("Jane", "Smith", new Date(1980, 3, 15)), Location.EDISON, 125);
+    private final LocalDate monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY)).plusWeeks(1);
+    private final String date = monday.getMonthValue() + "/" + monday.getDayOfMonth() + "/" + monday.getYear();
+
+    /**
+     * Runs commands through a processor with a small read buffer.
+     *
+     * @param commands The command text.
+     * @param bufferBytes The size of the read buffer.
+     * @param results The writer the results are written to.
+     * @return The summary of the run.
+     */
+    private BatchProcessor.Summary run(String commands, int bufferBytes, StringWriter results) throws IOException {
+        ProviderRegistry registry = new ProviderRegistry();
+        registry.add(doctor);
+        registry.add(technician);
+        BatchProcessor processor = new BatchProcessor(new ClinicScheduler(registry), bufferBytes);
+        return processor.process(Channels.newChannel(new ByteArrayInputStream(commands.getBytes(StandardCharsets.UTF_8))),
+                results);
+    }
+
+    /**
+     * Test case for commands split across reads giving one result per line, in order.
+     */
+    @Test
+    public void testResultsPerLine() throws IOException {
+        String commands = "D," + date + ",1,Varun,Bondugula,12/13/1989,01\r\n"
+                + "\n"
+                + " T , " + date + " , 2 , Sinan , Merchant , 6/1/1990 , xray \n"
+                + "C," + date + ",1,Varun,Bondugula,12/13/1989\n"
+                + "C," + date + ",1,Varun,Bondugula,12/13/1989";
+        StringWriter results = new StringWriter();
+        BatchProcessor.Summary summary = run(commands, 64, results);
+
+        String[] lines = results.toString().split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("1 SCHEDULED Office appointment scheduled: "));
+        assertTrue(lines[1].startsWith("3 SCHEDULED Imaging appointment scheduled: "));
+        assertTrue(lines[2].startsWith("4 CANCELLED "));
+        assertEquals("5 NOT_FOUND No matching appointment found for cancellation.", lines[3]);
+        assertEquals(4, summary.getCommands());
+        assertEquals(1, summary.getErrors());
+        assertEquals(Long.valueOf(1), summary.getErrorCounts().get("NOT_FOUND"));
+    }
+
+    /**
+     * Test case for malformed lines being reported without stopping the run.
+     */
+    @Test
+    public void testMalformedLines() throws IOException {
+        String commands = "D," + date + ",13,Varun,Bondugula,12/13/1989,01\n"
+                + "D,2024-10-21,1,Varun,Bondugula,12/13/1989,01\n"
+                + "T," + date + ",1,Varun,Bondugula,12/13/1989,MRI\n"
+                + "D," + date + ",1,Varun\n"
+                + "X\n"
+                + "D," + date + ",1,Varun,Bondugula,12/13/1989,01,This line is longer than the read buffer\n"
+                + "D," + date + ",1,Varun,Bondugula,12/13/1989,01\n";
+        StringWriter results = new StringWriter();
+        BatchProcessor.Summary summary = run(commands, 64, results);
+
+        String[] lines = results.toString().split("\n");
+        assertEquals("1 INVALID_COMMAND invalid timeslot", lines[0]);
+        assertEquals("2 INVALID_COMMAND invalid date", lines[1]);
+        assertEquals("3 INVALID_COMMAND invalid room", lines[2]);
+        assertEquals("4 INVALID_COMMAND expected 7 fields", lines[3]);
+        assertEquals("5 INVALID_COMMAND unknown command", lines[4]);
+        assertEquals("6 INVALID_COMMAND line is too long", lines[5]);
+        assertTrue(lines[6].startsWith("7 SCHEDULED "));
+        assertEquals(7, summary.getCommands());
+        assertEquals(Long.valueOf(6), summary.getErrorCounts().get(BatchProcessor.INVALID_COMMAND));
+    }
+
+    /**
+     * Test case for a line too long to parse counting as an error without adding a latency.
+     */
+    @Test
+    public void testTooLongLineNotTimed() throws IOException {
+        String commands = "D," + date + ",1,Varun,Bondugula,12/13/1989,01,This line is longer than the read buffer\n"
+                + "D," + date + ",1,Varun,Bondugula,12/13/1989,01\n";
+        BatchProcessor.Summary summary = run(commands, 64, new StringWriter());
+
+        assertEquals(2, summary.getCommands());
+        assertEquals(1, summary.getErrors());
+        assertTrue(summary.getLatencyPercentile(0) > 0);
+        assertEquals(summary.getLatencyPercentile(0), summary.getLatencyPercentile(100));
+    }
+
+    /**
+     * Test case for reports and for Q stopping the run.
+     */
+    @Test
+    public void testReportsAndQuit() throws IOException {
+        String commands = "PA\n"
+                + "D," + date + ",1,Varun,Bondugula,12/13/1989,01\n"
+                + "PS\n"
+                + "Q\n"
+                + "D," + date + ",2,Varun,Bondugula,12/13/1989,01\n";
+        StringWriter results = new StringWriter();
+        BatchProcessor.Summary summary = run(commands, BatchProcessor.DEFAULT_BUFFER_BYTES, results);
+
+        String[] lines = results.toString().split("\n");
+        assertEquals("1 REPORT Schedule calendar is empty.", lines[0]);
+        assertEquals("3 REPORT ** Billing Statements ordered by patient **", lines[2]);
+        assertEquals("** End of billing statements **", lines[lines.length - 1]);
+        assertEquals(3, summary.getCommands());
+        assertEquals(0, summary.getErrors());
+        assertTrue(summary.getLatencyPercentile(50) <= summary.getLatencyPercentile(100));
+    }
+}
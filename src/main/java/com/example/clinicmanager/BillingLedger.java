@@ -0,0 +1,156 @@
+package com.example.clinicmanager;
+
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * Billing totals of the patients on the schedule, built in one pass over the appointments.
+ * Each appointment is added to the account of its patient, found by hashing the patient profile,
+ * and amounts are kept in whole cents so totals are exact. Only the distinct patients are sorted
+ * for the statements, so a billing run takes time proportional to the number of appointments
+ * plus P log P for P patients.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class BillingLedger {
+    private static final Comparator<Account> BY_PATIENT = (a, b) -> a.getPatient().compareTo(b.getPatient());
+
+    private final HashMap<Profile, Account> accounts;
+    private final List<Account> order; // Accounts in the order their patients were first seen
+
+    /**
+     * Constructor to create an empty ledger.
+     */
+    public BillingLedger() {
+        accounts = new HashMap<>();
+        order = new List<>();
+    }
+
+    /**
+     * Builds the ledger of a list of appointments.
+     *
+     * @param appointments The appointments to bill.
+     * @return The ledger with every appointment charged.
+     */
+    public static BillingLedger of(List<Appointment> appointments) {
+        BillingLedger ledger = new BillingLedger();
+        for (int i = 0; i < appointments.size(); i++) {
+            ledger.charge(appointments.get(i));
+        }
+        return ledger;
+    }
+
+    /**
+     * Charges an appointment to the account of its patient.
+     * Appointments whose provider has no rate count as a visit with no charge.
+     *
+     * @param appointment The appointment to charge.
+     */
+    public void charge(Appointment appointment) {
+        Person provider = appointment.getProvider();
+        charge(appointment.getPatient(), provider instanceof Provider ? ((Provider) provider).rate() * 100L : 0, 1);
+    }
+
+    /**
+     * Charges a total already summed over several visits to the account of a patient.
+     *
+     * @param patient The patient.
+     * @param cents The total charge in cents.
+     * @param visits The number of visits the total covers.
+     */
+    public void charge(Person patient, long cents, int visits) {
+        Account account = accounts.get(patient.getProfile());
+        if (account == null) {
+            account = new Account(patient);
+            accounts.put(patient.getProfile(), account);
+            order.add(account);
+        }
+        account.cents += cents;
+        account.visits += visits;
+    }
+
+    /**
+     * Returns the accounts ordered by patient profile.
+     *
+     * @return A new list of the accounts, sorted by last name, first name and date of birth.
+     */
+    public List<Account> statements() {
+        List<Account> sorted = new List<>(order.size());
+        sorted.addAll(order);
+        Sort.mergeSort(sorted.elements(), sorted.size(), BY_PATIENT);
+        return sorted;
+    }
+
+    /**
+     * Finds the account of a patient.
+     *
+     * @param profile The profile of the patient.
+     * @return The account, or null if the patient has no appointments in the ledger.
+     */
+    public Account find(Profile profile) {
+        return accounts.get(profile);
+    }
+
+    /**
+     * Returns the number of distinct patients in the ledger.
+     *
+     * @return The number of accounts.
+     */
+    public int size() {
+        return order.size();
+    }
+
+    /**
+     * Billing total of one patient.
+     */
+    public static final class Account {
+        private final Person patient;
+        private long cents;
+        private int visits;
+
+        /**
+         * Constructor to create an empty account.
+         *
+         * @param patient The patient billed on the account.
+         */
+        private Account(Person patient) {
+            this.patient = patient;
+        }
+
+        /**
+         * Gets the patient billed on the account.
+         *
+         * @return The patient.
+         */
+        public Person getPatient() {
+            return patient;
+        }
+
+        /**
+         * Gets the amount due, in cents.
+         *
+         * @return The total of the charged appointments in cents.
+         */
+        public long getCents() {
+            return cents;
+        }
+
+        /**
+         * Gets the amount due, in dollars.
+         *
+         * @return The total of the charged appointments in dollars.
+         */
+        public double getDollars() {
+            return cents / 100.0;
+        }
+
+        /**
+         * Gets the number of appointments charged to the account.
+         *
+         * @return The number of appointments.
+         */
+        public int getVisits() {
+            return visits;
+        }
+    }
+}
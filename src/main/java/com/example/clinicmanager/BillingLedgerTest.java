@@ -0,0 +1,40 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the BillingLedger class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class BillingLedgerTest {
+
+    /**
+     * Test case for totals grouped by patient and statements ordered by patient profile.
+     */
+    @Test
+    public void testStatementsGroupedAndOrdered() {
+        Doctor doctor = new Doctor(new Profile("John", "Doe", new Date(1970, 1, 1)), Location.BRIDGEWATER, Specialty.FAMILY, "01");
+        Technician technician = new Technician(new Profile("Jane", "Smith", new Date(1980, 3, 15)), Location.EDISON, 125);
+        Person zed = new Person(new Profile("Zed", "Adams", new Date(1990, 5, 5)));
+        Person amy = new Person(new Profile("Amy", "Brown", new Date(1985, 2, 2)));
+        Person zedAgain = new Person(new Profile("ZED", "adams", new Date(1990, 5, 5)));
+
+        List<Appointment> appointments = new List<>();
+        appointments.add(new Appointment(new Date(2024, 10, 30), Timeslot.getTimeslot(1), amy, doctor));
+        appointments.add(new Imaging(new Date(2024, 10, 30), Timeslot.getTimeslot(2), zed, technician, Radiology.XRAY));
+        appointments.add(new Appointment(new Date(2024, 10, 31), Timeslot.getTimeslot(3), zedAgain, doctor));
+
+        BillingLedger ledger = BillingLedger.of(appointments);
+        assertEquals(2, ledger.size());
+
+        List<BillingLedger.Account> statements = ledger.statements();
+        assertEquals(zed.getProfile(), statements.get(0).getPatient().getProfile());
+        assertEquals(37500, statements.get(0).getCents());
+        assertEquals(2, statements.get(0).getVisits());
+        assertEquals(amy.getProfile(), statements.get(1).getPatient().getProfile());
+        assertEquals(250.0, statements.get(1).getDollars(), 0.0);
+    }
+}
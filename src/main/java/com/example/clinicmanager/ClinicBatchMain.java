@@ -0,0 +1,44 @@
+package com.example.clinicmanager;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Headless entry point that runs a file of commands through the scheduling engine, without the JavaFX UI.
+ * Each line is one comma-separated command:
+ * <ul>
+ *     <li>D,date,timeslot,first,last,dob,npi schedules an office appointment</li>
+ *     <li>T,date,timeslot,first,last,dob,room schedules an imaging appointment</li>
+ *     <li>C,date,timeslot,first,last,dob cancels an appointment</li>
+ *     <li>R,date,timeslot,first,last,dob,newDate,newTimeslot reschedules an appointment</li>
+ *     <li>PA, PP, PL, PO, PI print the appointments by date, patient, location, office or imaging;
+ *     PS prints the billing statements and PC the provider credits</li>
+ *     <li>Q stops processing</li>
+ * </ul>
+ * Dates are MM/DD/YYYY and timeslots are numbered 1 to 12. The schedule is kept in memory only.
+ * The commands are streamed through a BatchProcessor, which writes one result per command to the
+ * result file; the summary of the run is printed at the end.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class ClinicBatchMain {
+    /**
+     * Runs a command file, writes the result of every command to a result file and prints the summary.
+     *
+     * @param args The roster file, the command file and the result file.
+     * @throws IOException If a file cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: ClinicBatchMain <providers file> <command file> <result file>");
+            System.exit(2);
+        }
+        List<String> errors = new List<>();
+        ClinicScheduler scheduler = new ClinicScheduler(RosterLoader.load(Paths.get(args[0]), errors));
+        for (String error : errors) {
+            System.err.println(error);
+        }
+        BatchProcessor.Summary summary = new BatchProcessor(scheduler).process(Paths.get(args[1]), Paths.get(args[2]));
+        System.out.println(summary);
+    }
+}
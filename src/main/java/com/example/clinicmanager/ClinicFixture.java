@@ -0,0 +1,70 @@
+package com.example.clinicmanager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Shared data for the archive tests: one doctor, one technician, two patients and a few past appointments between them.
+ * Each test creates its own fixture, so tests never share providers or patients.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+class ClinicFixture {
+    final Doctor doctor = new Doctor(new Profile("John", "Doe", new Date(1970, 1, 1)), Location.BRIDGEWATER, Specialty.FAMILY, "01");
+    final Technician technician = new Technician(new Profile("Jane", "Smith", new Date(1980, 3, 15)), Location.EDISON, 125);
+    final Person patient = new Person(new Profile("Varun", "Bondugula", new Date(1989, 12, 13)));
+    final Person other = new Person(new Profile("Sinan", "Merchant", new Date(1990, 6, 1)));
+
+    /**
+     * Creates a registry holding the doctor and then the technician.
+     *
+     * @return The registry.
+     */
+    ProviderRegistry registry() {
+        ProviderRegistry registry = new ProviderRegistry();
+        registry.add(doctor);
+        registry.add(technician);
+        return registry;
+    }
+
+    /**
+     * Creates a registry holding the doctor, the technician and enough other technicians to reach a size.
+     *
+     * @param size The number of providers.
+     * @return The registry.
+     */
+    ProviderRegistry registry(int size) {
+        ProviderRegistry registry = registry();
+        for (int i = registry.size(); i < size; i++) {
+            registry.add(new Technician(new Profile("Tech", "Number" + i, new Date(1980, 1, 1)), Location.CLARK, 100));
+        }
+        return registry;
+    }
+
+    /**
+     * Creates three past appointments: two office visits for the patient and an ultrasound for the other patient.
+     *
+     * @return The appointments, in date order.
+     */
+    List<Appointment> appointments() {
+        List<Appointment> appointments = new List<>();
+        appointments.add(new Appointment(new Date(2024, 10, 30), Timeslot.getTimeslot(1), patient, doctor));
+        appointments.add(new Imaging(new Date(2024, 10, 31), Timeslot.getTimeslot(12), other, technician, Radiology.ULTRASOUND));
+        appointments.add(new Appointment(new Date(2024, 11, 4), Timeslot.getTimeslot(6), patient, doctor));
+        return appointments;
+    }
+
+    /**
+     * Gets a path for a temporary file that does not exist yet.
+     *
+     * @param prefix The prefix of the file name.
+     * @return The path.
+     * @throws IOException If the temporary directory cannot be used.
+     */
+    static Path newTempPath(String prefix) throws IOException {
+        Path file = Files.createTempFile(prefix, ".bin");
+        Files.delete(file);
+        return file;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.clinicmanager;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -7,14 +8,34 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.input.MouseEvent;
 
-import java.io.File;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.util.Scanner;
-import java.util.StringTokenizer;
-import java.io.FileNotFoundException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 
 public class ClinicManagerController {
+    private static final String ROTATION_ASSIGNMENT = "Technician rotation";
+    private static final String LEAST_LOADED_ASSIGNMENT = "Least-loaded technician";
+    private static final int MAX_OUTPUT_REPORT_LINES = 1000; // Longer reports are only shown in reportView
+    private static final String CONSOLE_LINES_PROPERTY = "clinicmanager.console.maxLines";
+    private static final String CONSOLE_SPILL_PROPERTY = "clinicmanager.console.spillFile";
+    private static final String JOURNAL_PROPERTY = "clinicmanager.journal";
+    private static final String JOURNAL_SYNC_PROPERTY = "clinicmanager.journal.sync";
+    private static final String DEFAULT_JOURNAL_FILE = "clinic-manager.journal";
+    private static final int JOURNAL_BATCH_SIZE = 64;        // Operations per fsync under BATCHED
+    private static final long JOURNAL_SYNC_INTERVAL_MS = 100; // Time between fsyncs under TIMED
+    private static final String SNAPSHOT_PROPERTY = "clinicmanager.snapshot";
+    private static final String DEFAULT_SNAPSHOT_FILE = "clinic-manager.snapshot";
+    private static final int SNAPSHOT_INTERVAL = 1000; // Schedule changes between snapshots
+    private static final String ARCHIVE_PROPERTY = "clinicmanager.archive";
+    private static final String ROSTER_PROPERTY = "clinicmanager.roster";
+    private static final String DEFAULT_ARCHIVE_FILE = "clinic-manager.archive";
+
     @FXML private DatePicker appointmentDate;
     @FXML private TextField firstName;
     @FXML private TextField lastName;
@@ -23,7 +44,11 @@ public class ClinicManagerController {
     @FXML private RadioButton imagingService;
     @FXML private ComboBox<String> timeslotComboBox;
     @FXML private ComboBox<String> providerOrRoom; // Used for both NPI or room selection
+    @FXML private ComboBox<String> technicianAssignment; // Rotation or least-loaded technician assignment
     @FXML private TextArea outputArea;
+    @FXML private ListView<String> reportView; // Virtualized view of the last report, one row per line
+    @FXML private ProgressBar reportProgress;
+    @FXML private Button cancelReportButton;
     @FXML private Button scheduleButton;
     @FXML private Button cancelButton;
 
@@ -49,9 +74,15 @@ public class ClinicManagerController {
     @FXML
     private TableColumn<Location, String> col_city, col_county, col_zip;
 
-    private List<Provider> providerList; // List of providers
-    private List<Appointment> appointmentList; // List of all appointments
-    private List<Technician> technicianList; // Circular list for assigning technicians
+    private ProviderRegistry providerRegistry; // Providers indexed by NPI, specialty and location
+    private ClinicScheduler scheduler; // Schedule and scheduling rules, shared with the batch runner
+    private OutputConsole console; // Bounded line buffer shown in outputArea
+    private ExecutorService snapshotExecutor; // Single worker thread that writes snapshots
+    private int changesSinceSnapshot; // Schedule changes since the last snapshot was started
+    private boolean snapshotRunning; // True while a snapshot is being written
+    private ReportRenderer reportRenderer; // Reusable buffer the reports are formatted into
+    private ExecutorService reportExecutor; // Single worker thread the reports run on, one at a time
+    private ReportTask currentReport; // Report that is running, or null
     private ToggleGroup visitTypeGroup;
 
 
@@ -60,12 +91,26 @@ public class ClinicManagerController {
      * Initializes the Clinic Manager Controller, sets up components and listeners for scheduling and managing appointments.
      */
     public void initialize() {
-        providerList = new List<>();
-        appointmentList = new List<>();
-        technicianList = new List<>();
+        initializeConsole();
+        reportRenderer = new ReportRenderer();
+        reportExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "report-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
         loadProviders();
-        displayProviders();
-        displayTechnicians();
+        scheduler = new ClinicScheduler(providerRegistry);
+        technicianAssignment.getItems().addAll(ROTATION_ASSIGNMENT, LEAST_LOADED_ASSIGNMENT);
+        technicianAssignment.getSelectionModel().select(0);
+        displayRoster();
+        snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        openJournal(loadSnapshot());
+        openArchive();
+        archivePastAppointments();
 
         populateTimeslotComboBox();
 
@@ -88,6 +133,8 @@ public class ClinicManagerController {
         printOfficeAppointmentsButton.addEventHandler(MouseEvent.MOUSE_CLICKED, event -> displayAppointments("Office"));
         printImagingAppointmentsButton.addEventHandler(MouseEvent.MOUSE_CLICKED, event -> displayAppointments("Radiology"));
         printProviderCreditsButton.addEventHandler(MouseEvent.MOUSE_CLICKED, event -> printProviderCredits());
+        cancelReportButton.addEventHandler(MouseEvent.MOUSE_CLICKED, event -> cancelReport());
+        cancelReportButton.setDisable(true);
 
         ObservableList<Location> locations =
                 FXCollections.observableArrayList(Location.values());
@@ -97,124 +144,170 @@ public class ClinicManagerController {
         col_county.setCellValueFactory(new PropertyValueFactory<>("county"));
     }
 
+    /**
+     * Creates the bounded console behind outputArea.
+     * The number of lines kept is read from the clinicmanager.console.maxLines system property, and
+     * evicted lines are appended to the file named by clinicmanager.console.spillFile if it is set.
+     */
+    private void initializeConsole() {
+        OutputConsole.View view = new OutputConsole.View() {
+            @Override
+            public void append(String text) {
+                outputArea.appendText(text);
+            }
+
+            @Override
+            public void replace(String text) {
+                outputArea.setText(text);
+            }
+        };
+        int maxLines = Math.max(4, Integer.getInteger(CONSOLE_LINES_PROPERTY, OutputConsole.DEFAULT_MAX_LINES));
+        String spillFile = System.getProperty(CONSOLE_SPILL_PROPERTY);
+        BufferedWriter spill = null;
+        if (spillFile != null) {
+            try {
+                spill = OutputConsole.openSpillFile(Paths.get(spillFile));
+            } catch (IOException e) {
+                outputArea.appendText("Cannot open console log " + spillFile + "; old lines will be dropped.\n");
+            }
+        }
+        console = new OutputConsole(maxLines, view, spill);
+    }
+
     /**
      * Displays appointments sorted by the specified sort type (e.g., Date, Patient, Location).
+     * The report is formatted in the background from a copy of the matching schedule view.
      *
      * @param sortType The type of sorting to apply.
      */
     private void displayAppointments(String sortType) {
-        if (appointmentList.isEmpty()) {
-            outputArea.appendText("Schedule calendar is empty.\n");
-            return;
-        }
-
+        char key;
         switch (sortType) {
             case "Date":
-                Sort.appointment(appointmentList, 'A');
-                outputArea.appendText("** List of appointments ordered by date/time/provider. **\n");
+                key = 'A';
                 break;
             case "Patient":
-                Sort.appointment(appointmentList, 'P');
-                outputArea.appendText("** List of appointments ordered by patient name/date/time. **\n");
+                key = 'P';
                 break;
             case "Location":
-                Sort.appointment(appointmentList, 'L');
-                outputArea.appendText("** List of appointments ordered by location/date/time. **\n");
+                key = 'L';
                 break;
             case "Office":
-                Sort.appointment(appointmentList, 'O');
-                outputArea.appendText("** List of office appointments ordered by county/date/time. **\n");
-                for (int i = 0; i < appointmentList.size(); i++) {
-                    if (!(appointmentList.get(i) instanceof Imaging)) {
-                        outputArea.appendText(appointmentList.get(i).toString() + "\n");
-                    }
-                }
-                outputArea.appendText("** end of list **" + "\n");
+                key = 'O';
                 break;
             case "Radiology":
-                Sort.appointment(appointmentList, 'I');
-                outputArea.appendText("** List of radiology appointments ordered by county/date/time. **\n");
-                for (int i = 0; i < appointmentList.size(); i++) {
-                    if (appointmentList.get(i) instanceof Imaging) {
-                        outputArea.appendText(appointmentList.get(i).toString() + "\n");
-                    }
-                }
-                outputArea.appendText("** End of list **" + "\n");
+                key = 'I';
                 break;
+            default:
+                return;
         }
-
-        if (sortType == "Radiology" || sortType == "Office") {
+        ReportRenderer.Body report = scheduler.appointmentReport(key);
+        if (report == null) {
+            console.append("Schedule calendar is empty.\n");
             return;
         }
+        runReport(report);
+    }
 
-        for (Appointment appointment : appointmentList) {
-            outputArea.appendText(appointment.toString() + "\n");
+    /**
+     * Submits a report to the report executor and shows its progress.
+     * A report that is still running is cancelled first, and the finished report is published on the
+     * JavaFX application thread.
+     *
+     * @param body The work of the report, which must only read data snapshotted before the call.
+     */
+    private void runReport(ReportRenderer.Body body) {
+        cancelReport();
+        ReportTask task = new ReportTask(reportRenderer, body);
+        currentReport = task;
+        reportProgress.progressProperty().bind(task.progressProperty());
+        cancelReportButton.setDisable(false);
+        task.setOnSucceeded(event -> {
+            finishReport(task);
+            if (task.getValue() != null) {
+                publish(task.getValue());
+            }
+        });
+        task.setOnFailed(event -> {
+            finishReport(task);
+            console.append("Report failed: " + task.getException().getMessage() + "\n");
+        });
+        task.setOnCancelled(event -> {
+            finishReport(task);
+            console.append("Report cancelled.\n");
+        });
+        reportExecutor.execute(task);
+    }
+
+    /**
+     * Cancels the report that is running, if any.
+     */
+    private void cancelReport() {
+        if (currentReport != null) {
+            currentReport.cancel();
         }
-        outputArea.appendText("** End of list **\n");
     }
 
     /**
-     * Prints the billing statements for each patient with total due, sorted by patient.
+     * Resets the progress controls once a report has finished, unless a newer report has started.
+     *
+     * @param task The report that finished.
      */
-    private void printBillingStatements() {
-        if (appointmentList.isEmpty()) {
-            outputArea.appendText("Schedule calendar is empty.\n");
+    private void finishReport(ReportTask task) {
+        if (task != currentReport) {
             return;
         }
+        currentReport = null;
+        reportProgress.progressProperty().unbind();
+        reportProgress.setProgress(0);
+        cancelReportButton.setDisable(true);
+    }
 
-        Sort.appointment(appointmentList, 'P');
-        outputArea.appendText("** Billing Statements ordered by patient **\n");
-
-        Person currentPatient = null;
-        double totalDue = 0.0;
-        int index = 1;
-
-        for (Appointment appointment : appointmentList) {
-            Person patient = appointment.getPatient();
-            Person provider = appointment.getProvider();
-            double rate = 0.0;
-            if (provider instanceof Provider) {
-                rate += ((Provider) provider).rate();
-            }
-            if (currentPatient != null && !currentPatient.equals(patient)) {
-                outputArea.appendText("(" + index + ") " + currentPatient + " [Total Due: $" + totalDue + "]\n");
-                index++;
-                totalDue = 0;
-            }
-
-            totalDue += rate;
-            currentPatient = patient;
+    /**
+     * Publishes a finished report with one update of each output control.
+     * Every report is shown in reportView, which only lays out the visible rows. Reports of up to
+     * MAX_OUTPUT_REPORT_LINES lines are also appended to outputArea; longer ones are summarized there.
+     *
+     * @param report The report to publish.
+     */
+    private void publish(Report report) {
+        reportView.setItems(FXCollections.observableList(report.lines()));
+        if (report.lineCount() <= MAX_OUTPUT_REPORT_LINES) {
+            console.append(report.getText());
+        } else {
+            console.append(report.getTitle() + "\n" + report.lineCount()
+                    + " lines, shown in the Report tab.\n");
         }
+    }
 
-        if (currentPatient != null) {
-            outputArea.appendText("(" + index + ") " + currentPatient + " [Total Due: $" + totalDue + "]\n");
+    /**
+     * Prints the billing statements for each patient with total due, sorted by patient.
+     * The statements are totalled and formatted in the background from a copy of the schedule,
+     * together with the visits already in the archive.
+     */
+    private void printBillingStatements() {
+        archivePastAppointments();
+        ReportRenderer.Body report = scheduler.billingReport();
+        if (report == null) {
+            console.append("Schedule calendar is empty.\n");
+            return;
         }
-        outputArea.appendText("** End of billing statements **\n");
+        runReport(report);
     }
 
     /**
      * Prints the provider credits.
+     * The credits are totalled and formatted in the background from a copy of the schedule,
+     * together with the visits already in the archive.
      */
     private void printProviderCredits() {
-        if (appointmentList.size() < 1) {
-            outputArea.appendText("Schedule Calendar is empty.\n");
+        archivePastAppointments();
+        ReportRenderer.Body report = scheduler.creditReport();
+        if (report == null) {
+            console.append("Schedule Calendar is empty.\n");
             return;
         }
-        outputArea.appendText("\n** Credit amount ordered by provider. **\n");
-
-        Sort.provider(providerList);
-        for (int i = 0; i < providerList.size(); i++) {
-            Provider provider = providerList.get(i);
-            double totalCredit = 0.0;
-            for (Appointment appointment : appointmentList) {
-                if (appointment.getProvider().equals(provider)) {
-                    totalCredit += provider.rate();
-                }
-            }
-
-            outputArea.appendText("(" + (i+1) + ") " + provider.getProfile().toString() + " [credit amount: $" + totalCredit + "]" + "\n");
-        }
-        outputArea.appendText("** end of list **\n");
+        runReport(report);
     }
 
     /**
@@ -224,12 +317,8 @@ public class ClinicManagerController {
         providerOrRoom.getItems().clear();
 
         if (officeVisit.isSelected()) {
-            // Populate with NPIs for office visits
-            for (Provider provider : providerList) {
-                if (provider instanceof Doctor) {
-                    providerOrRoom.getItems().add(((Doctor) provider).getNpi());
-                }
-            }
+            // Populate with NPIs for office visits, grouped by specialty
+            providerOrRoom.getItems().addAll(providerRegistry.getDoctorNpis());
         } else if (imagingService.isSelected()) {
             // Populate with room names for imaging services (mock example)
             providerOrRoom.getItems().addAll("CATSCAN", "ULTRASOUND", "XRAY");
@@ -237,115 +326,25 @@ public class ClinicManagerController {
     }
 
     /**
-     * Loads providers from the "providers.txt" file.
+     * Loads providers from the roster file named by the clinicmanager.roster system property, or from the
+     * "providers.txt" roster on the classpath when the property is not set.
      */
     private void loadProviders() {
-        File file = new File("src/main/java/com/example/clinicmanager/providers.txt");
-        Scanner scanner = initializeScanner(file);
-
-        if (scanner == null) return;
-
-        // Process each line in the file
-        while (scanner.hasNextLine()) {
-            String line = scanner.nextLine().trim();
-
-            if (line.isEmpty()) {
-                continue;
-            }
-
-            processProviderLine(line);
-        }
-        reverseTechnicianList();
-        scanner.close();
-
-        outputArea.appendText("Providers loaded to the list.\n");
-    }
-
-    /**
-     * Reverses the order of the technicians in the technicianList.
-     */
-    private void reverseTechnicianList() {
-        int left = 0;
-        int right = technicianList.size() - 1;
-
-        while (left < right) {
-            Technician temp = technicianList.get(left);
-            technicianList.set(left, technicianList.get(right));
-            technicianList.set(right, temp);
-
-            left++;
-            right--;
-        }
-    }
-
-    /**
-     * Initializes the scanner for the file.
-     *
-     * @param file The file to scan.
-     * @return A Scanner object to read the file or null if the file is not found.
-     */
-    private Scanner initializeScanner(File file) {
+        String file = System.getProperty(ROSTER_PROPERTY);
+        List<String> errors = new List<>();
         try {
-            return new Scanner(file);
-        } catch (FileNotFoundException e) {
-            outputArea.appendText("File not found: " + file.getPath() + "\n");
-            return null;
-        }
-    }
-
-    /**
-     * Processes a single provider line and adds the provider to the appropriate list.
-     *
-     * @param line The line of text from the file that describes a provider.
-     */
-    private void processProviderLine(String line) {
-        StringTokenizer tokenizer = new StringTokenizer(line);
-
-        if (!tokenizer.hasMoreTokens()) {
+            providerRegistry = file != null ? RosterLoader.load(Paths.get(file), errors)
+                    : RosterLoader.loadResource(RosterLoader.DEFAULT_RESOURCE, errors);
+        } catch (IOException e) {
+            console.append("File not found: " + (file != null ? file : RosterLoader.DEFAULT_RESOURCE) + "\n");
+            providerRegistry = new ProviderRegistry();
             return;
         }
-
-        String providerType = tokenizer.nextToken().toUpperCase();
-
-        String firstName = getNextToken(tokenizer);
-        String lastName = getNextToken(tokenizer);
-        Date dob = parseDate(getNextToken(tokenizer));
-        Location location = parseLocation(getNextToken(tokenizer));
-
-        if (providerType.equals("D")) {
-            processDoctor(tokenizer, firstName, lastName, dob, location);
-        } else if (providerType.equals("T")) {
-            processTechnician(tokenizer, firstName, lastName, dob, location);
+        for (String error : errors) {
+            console.append(error + "\n");
         }
-    }
 
-    /**
-     * Parses a location from the provided string.
-     *
-     * @param locationStr The string representation of the location.
-     * @return The corresponding Location enum or null if the location is invalid.
-     */
-    private Location parseLocation(String locationStr) {
-        try {
-            return Location.valueOf(locationStr.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            outputArea.appendText("Invalid location: " + locationStr + "\n");
-            return null;
-        }
-    }
-
-    /**
-     * Helper method to parse a date string in MM/DD/YYYY format into a Date object.
-     *
-     * @param dateStr The date string in MM/DD/YYYY format.
-     * @return A Date object representing the parsed date.
-     */
-    private Date parseDate(String dateStr) {
-        String[] dateParts = dateStr.split("/");
-        int month = Integer.parseInt(dateParts[0]);
-        int day = Integer.parseInt(dateParts[1]);
-        int year = Integer.parseInt(dateParts[2]);
-        return new Date(year, month, day); // Return a Date object with int parameters
+        console.append("Providers loaded to the list.\n");
     }
 
     /**
@@ -355,155 +354,47 @@ public class ClinicManagerController {
         // Retrieve date and time from input fields
         LocalDate selectedDate = appointmentDate.getValue();
         if (selectedDate == null) {
-            outputArea.appendText("Please select a valid appointment date for cancellation.\n");
+            console.append("Please select a valid appointment date for cancellation.\n");
             return;
         }
         int timeslotIndex = getSelectedTimeslotIndex();
         if (timeslotIndex == -1) {
-            outputArea.appendText("Please select a valid timeslot for cancellation.\n");
+            console.append("Please select a valid timeslot for cancellation.\n");
             return;
         }
 
         // Retrieve patient details
-        String fname = firstName.getText().trim();
-        String lname = lastName.getText().trim();
-        if (!isAlphabetic(fname) || !isAlphabetic(lname)) {
-            outputArea.appendText("First and last names must contain alphabetic characters only.\n");
-            return;
-        }
         LocalDate dob = dateOfBirth.getValue();
-        if (fname.isEmpty() || lname.isEmpty() || dob == null) {
-            outputArea.appendText("Please provide full patient details for cancellation.\n");
+        if (dob == null) {
+            console.append("Please provide full patient details for cancellation.\n");
             return;
         }
 
-        // Create Profile and Timeslot for appointment lookup
-        Profile profile = new Profile(fname, lname, Date.fromLocalDate(dob));
-        Timeslot timeslot = Timeslot.getTimeslot(timeslotIndex);
-        Date appointmentDate = Date.fromLocalDate(selectedDate);
-
-        // Search for the appointment
-        Appointment toCancel = findAppointment(appointmentDate, timeslot, profile);
-        if (toCancel == null) {
-            outputArea.appendText("No matching appointment found for cancellation.\n");
-            return;
-        }
-
-        // Remove the appointment
-        appointmentList.remove(toCancel);
-        outputArea.appendText("Appointment canceled for " + fname + " " + lname + " on " + selectedDate + " at " + timeslot + ".\n");
-    }
-
-    /**
-     * Processes and adds a doctor to the provider list.
-     *
-     * @param tokenizer The tokenizer containing doctor information.
-     * @param firstName The doctor's first name.
-     * @param lastName The doctor's last name.
-     * @param dob The doctor's date of birth.
-     * @param location The location where the doctor works.
-     */
-    private void processDoctor(StringTokenizer tokenizer, String firstName, String lastName, Date dob, Location location) {
-        Specialty specialty = parseSpecialty(getNextToken(tokenizer));
-        String npi = getNextToken(tokenizer);
-
-        if (specialty != null && npi != null) {
-            Doctor doctor = new Doctor(new Profile(firstName, lastName, dob), location, specialty, npi);
-            providerList.add(doctor);
-        }
-    }
-
-    /**
-     * Parses a specialty from the provided string.
-     *
-     * @param specialtyStr The string representation of the specialty.
-     * @return The corresponding Specialty enum or null if the specialty is invalid.
-     */
-    private Specialty parseSpecialty(String specialtyStr) {
-        try {
-            return Specialty.valueOf(specialtyStr.toUpperCase());
-        } catch (IllegalArgumentException e) {
-            outputArea.appendText("Invalid specialty: " + specialtyStr + "\n");
-            return null;
-        }
+        Profile profile = new Profile(firstName.getText().trim(), lastName.getText().trim(), Date.fromLocalDate(dob));
+        show(scheduler.cancel(Date.fromLocalDate(selectedDate), Timeslot.getTimeslot(timeslotIndex), profile));
     }
 
     /**
-     * Processes and adds a technician to the provider list and technician list.
-     *
-     * @param tokenizer The tokenizer containing technician information.
-     * @param firstName The technician's first name.
-     * @param lastName The technician's last name.
-     * @param dob The technician's date of birth.
-     * @param location The location where the technician works.
+     * Displays the providers sorted by profile and the rotation list for the technicians.
+     * The listing is rendered once; a roster too long for the output area is only counted there
+     * and shown in full in the Report tab.
      */
-    private void processTechnician(StringTokenizer tokenizer, String firstName, String lastName, Date dob, Location location) {
-        String npiStr = getNextToken(tokenizer);
-
-        if (npiStr != null) {
-            Technician technician = new Technician(new Profile(firstName, lastName, dob), location, Integer.parseInt(npiStr));
-            addTechnician(technician);
-            providerList.add(technician);
-        }
-    }
-
-    /**
-     * Retrieves the next token from the tokenizer.
-     *
-     * @param tokenizer The tokenizer to extract the next token from.
-     * @return The next token as a String or null if no more tokens are available.
-     */
-    private String getNextToken(StringTokenizer tokenizer) {
-        return tokenizer.hasMoreTokens() ? tokenizer.nextToken() : null;
-    }
-
-    /**
-     * Displays the list of providers sorted by profile.
-     */
-    private void displayProviders() {
-        Sort.provider(providerList);
-        for (int i = 0; i < providerList.size(); i++) {
-            outputArea.appendText(providerList.get(i).toString() + "\n");
-        }
-        outputArea.appendText("\n");
-    }
-
-    /**
-     * Prints the list for the technicians
-     */
-    private void displayTechnicians() {
-        outputArea.appendText("Rotation list for the technicians.\n");
-
-        for (int i = 0; i < technicianList.size(); i++) {
-            Technician technician = technicianList.get(i);
-            String fullName = technician.getProfile().getFirstName() + " " + technician.getProfile().getLastName();
-            String location = technician.getLocation().toString();
-
-            outputArea.appendText(fullName + " (" + location + ")");
-
-            if (i < technicianList.size()-1) {
-                outputArea.appendText(" --> ");
-            }
+    private void displayRoster() {
+        Report roster = reportRenderer.render(scheduler.rosterReport());
+        reportView.setItems(FXCollections.observableList(roster.lines()));
+        if (roster.lineCount() <= MAX_OUTPUT_REPORT_LINES) {
+            console.append(roster.getText());
+        } else {
+            console.append(providerRegistry.size() + " providers loaded, " + scheduler.getTechnicians().size()
+                    + " technicians in rotation; the list is shown in the Report tab.\n");
         }
-
-        // Move to the next line after the output
-        outputArea.appendText("\n");
-    }
-
-    /**
-     * Adds a technician to the technicianList and maintains alphabetical order by name.
-     *
-     * @param technician The technician to be added.
-     */
-    private void addTechnician(Technician technician) {
-        technicianList.add(technician);
     }
 
     /**
      * Populates the timeslotComboBox with formatted time options.
      */
     private void populateTimeslotComboBox() {
-        for (int i = 1; i <= 12; i++) {
+        for (int i = 1; i <= Timeslot.COUNT; i++) {
             Timeslot timeslot = Timeslot.getTimeslot(i);
             timeslotComboBox.getItems().add(timeslot.toString());  // Display formatted time
         }
@@ -514,87 +405,68 @@ public class ClinicManagerController {
      */
     private void scheduleAppointment() {
         LocalDate selectedDate = appointmentDate.getValue();
-
-        if (!isAlphabetic(firstName.getText()) || !isAlphabetic(lastName.getText())) {
-            outputArea.appendText("First and last names must contain alphabetic characters only.\n");
-            return;
-        }
-
-        if (!validateAppointmentDate(selectedDate)) {
+        if (selectedDate == null) {
+            console.append("Please select a valid appointment date.\n");
             return;
         }
 
         int timeslotIndex = getSelectedTimeslotIndex();
         if (timeslotIndex == -1) {
-            outputArea.setText("Please select a valid timeslot.");
+            console.setText("Please select a valid timeslot.");
             return;
         }
 
         if (dateOfBirth.getValue() == null) {
-            outputArea.appendText("Date of birth is required.\n");
+            console.append("Date of birth is required.\n");
             return;
         }
 
-        Profile profile = createPatientProfile(firstName.getText(), lastName.getText(), dateOfBirth.getValue().toString());
-
-        if (profile == null) {
-            outputArea.appendText("Please enter valid appointment details.\n");
-            return;
-        }
+        Profile profile = new Profile(firstName.getText(), lastName.getText(), Date.fromLocalDate(dateOfBirth.getValue()));
+        Date date = Date.fromLocalDate(selectedDate);
+        Timeslot timeslot = Timeslot.getTimeslot(timeslotIndex);
 
         if (officeVisit.isSelected()) {
             // Handle Office Visit
             String npi = providerOrRoom.getValue();
             if (npi == null || npi.isEmpty()) {
-                outputArea.appendText("Please select a provider NPI.\n");
-                return;
-            }
-            Provider provider = findProviderByNPI(npi);
-            if (provider == null || !(provider instanceof Doctor)) {
-                outputArea.appendText("Invalid NPI or provider not found.\n");
+                console.append("Please select a provider NPI.\n");
                 return;
             }
-
-            Appointment appointment = new Appointment(Date.fromLocalDate(selectedDate), Timeslot.getTimeslot(timeslotIndex), new Person(profile), provider);
-            if (appointmentExists(appointment) || isProviderBookedAt(Date.fromLocalDate(selectedDate), Timeslot.getTimeslot(timeslotIndex), provider)) {
-                return;
-            }
-            appointmentList.add(appointment);
-            outputArea.appendText("Office appointment scheduled: " + appointment + "\n");
+            show(scheduler.scheduleOffice(date, timeslot, profile, npi));
         } else if (imagingService.isSelected()) {
             // Handle Imaging Service
             String roomName = providerOrRoom.getValue();
             if (roomName == null || roomName.isEmpty()) {
-                outputArea.appendText("Please select a room for imaging service.\n");
+                console.append("Please select a room for imaging service.\n");
                 return;
             }
             Radiology room;
             try {
                 room = Radiology.valueOf(roomName.replace(" ", "_").toUpperCase()); // Replace spaces with underscores if needed
             } catch (IllegalArgumentException e) {
-                outputArea.appendText("Invalid room for imaging service.\n");
-                return;
-            }
-
-            Technician technician = assignTechnician(Timeslot.getTimeslot(timeslotIndex), room);
-            if (technician == null) {
-                outputArea.appendText("No available technician for " + roomName + " at the selected timeslot.\n");
+                console.append("Invalid room for imaging service.\n");
                 return;
             }
-
-            Imaging appointment = new Imaging(Date.fromLocalDate(selectedDate), Timeslot.getTimeslot(timeslotIndex), new Person(profile), technician, room);
-            if (appointmentExists(appointment)) {
-                outputArea.appendText("Imaging appointment already exists.\n");
-                return;
-            }
-
-            appointmentList.add(appointment);
-            outputArea.appendText("Imaging appointment scheduled: " + appointment + "\n");
+            scheduler.setAssignment(LEAST_LOADED_ASSIGNMENT.equals(technicianAssignment.getValue())
+                    ? ClinicScheduler.Assignment.LEAST_LOADED : ClinicScheduler.Assignment.ROTATION);
+            show(scheduler.scheduleImaging(date, timeslot, profile, room));
         } else {
-            outputArea.appendText("Please select an appointment type (Office or Imaging).\n");
+            console.append("Please select an appointment type (Office or Imaging).\n");
         }
     }
 
+    /**
+     * Shows the result of a scheduling operation and counts the change towards the next snapshot.
+     *
+     * @param result The result of the operation.
+     */
+    private void show(ClinicScheduler.Result result) {
+        if (result.isSuccess()) {
+            changed();
+        }
+        console.append(result.getMessage() + "\n");
+    }
+
     /**
      * Initializes the reschedule tab, setting up event handlers and populating timeslot options.
      */
@@ -612,28 +484,18 @@ public class ClinicManagerController {
      * @param comboBox The ComboBox to populate with timeslot options.
      */
     private void populateTimeslotComboBox(ComboBox<String> comboBox) {
-        for (int i = 1; i <= 12; i++) {
+        for (int i = 1; i <= Timeslot.COUNT; i++) {
             Timeslot timeslot = Timeslot.getTimeslot(i);
             comboBox.getItems().add(timeslot.toString());
         }
     }
 
-    /**
-     * Checks if a given name consists of only alphabetic characters.
-     *
-     * @param name The name to validate.
-     * @return True if the name contains only alphabetic characters, false otherwise.
-     */
-    private boolean isAlphabetic(String name) {
-        return name.matches("[a-zA-Z]+");
-    }
-
     /**
      * Reschedules an existing appointment based on user-provided details.
      */
     private void rescheduleAppointment() {
         if (existingAppointmentDate.getValue()==null || newAppointmentDate.getValue()==null) {
-            outputArea.appendText("Appointment Date is required.\n");
+            console.append("Appointment Date is required.\n");
             return;
         }
         LocalDate oldDate = existingAppointmentDate.getValue();
@@ -644,48 +506,22 @@ public class ClinicManagerController {
         String firstName = rescheduleFirstName.getText().trim();
         String lastName = rescheduleLastName.getText().trim();
 
-        if (!isAlphabetic(firstName) || !isAlphabetic(lastName)) {
-            outputArea.appendText("First and last names must contain alphabetic characters only.\n");
-            return;
-        }
-
-        if (rescheduleDateOfBirth.getValue()==null || rescheduleDateOfBirth.getValue()==null) {
-            outputArea.appendText("Date of birth is required.\n");
+        if (rescheduleDateOfBirth.getValue()==null) {
+            console.append("Date of birth is required.\n");
             return;
         }
 
         LocalDate dob = rescheduleDateOfBirth.getValue();
 
         // Validate all fields
-        if (oldDate == null || oldTimeslotIndex <= 0 || newDate == null || newTimeslotIndex <= 0 ||
-                firstName.isEmpty() || lastName.isEmpty() || dob == null) {
-            outputArea.appendText("Please enter all required reschedule details.\n");
+        if (oldTimeslotIndex <= 0 || newTimeslotIndex <= 0) {
+            console.append("Please enter all required reschedule details.\n");
             return;
         }
 
-        // Create patient profile
         Profile profile = new Profile(firstName, lastName, Date.fromLocalDate(dob));
-        Timeslot oldTimeslot = Timeslot.getTimeslot(oldTimeslotIndex);
-        Timeslot newTimeslot = Timeslot.getTimeslot(newTimeslotIndex);
-
-        // Find existing appointment to reschedule
-        Appointment existingAppointment = findAppointment(Date.fromLocalDate(oldDate), oldTimeslot, profile);
-        if (existingAppointment == null) {
-            outputArea.appendText("Appointment not found.\n");
-            return;
-        }
-
-
-        Appointment conflictingAppointment = findAppointment(Date.fromLocalDate(newDate), newTimeslot, profile);
-        if (conflictingAppointment != null) {
-            outputArea.appendText(conflictingAppointment.getPatient().getProfile() + " has an existing appointment at " + newTimeslot + "\n");
-            return;
-        }
-
-        appointmentList.remove(existingAppointment);
-        Appointment newAppointment = new Appointment(Date.fromLocalDate(newDate), newTimeslot, new Person(profile), existingAppointment.getProvider());
-        appointmentList.add(newAppointment);
-        outputArea.appendText("Appointment rescheduled to: " + newAppointment + "\n");
+        show(scheduler.reschedule(Date.fromLocalDate(oldDate), Timeslot.getTimeslot(oldTimeslotIndex), profile,
+                Date.fromLocalDate(newDate), Timeslot.getTimeslot(newTimeslotIndex)));
     }
 
     /**
@@ -702,206 +538,211 @@ public class ClinicManagerController {
     }
 
     /**
-     * Finds an appointment by date, timeslot, and patient profile.
+     * Restores the schedule and technician rotation from the snapshot file, if there is one.
+     * The file is named by the clinicmanager.snapshot system property.
      *
-     * @param appointmentDate The appointment date.
-     * @param timeslot The appointment timeslot.
-     * @param profile The patient profile.
-     * @return The appointment if found, null otherwise.
+     * @return The loaded snapshot, or null if there is none or it cannot be used.
      */
-    private Appointment findAppointment(Date appointmentDate, Timeslot timeslot, Profile profile) {
-
-        for (int i = 0; i < appointmentList.size(); i++) {
-            Appointment appointment = appointmentList.get(i);
-            if (appointment.getDate().equals(appointmentDate)
-                    && appointment.getTimeslot().equals(timeslot)
-                    && appointment.getPatient().getProfile().equals(profile)) {
-                return appointment;
-            }
+    private ClinicSnapshot loadSnapshot() {
+        Path file = Paths.get(System.getProperty(SNAPSHOT_PROPERTY, DEFAULT_SNAPSHOT_FILE));
+        if (!Files.exists(file)) {
+            return null;
         }
-        return null;
-    }
-
-    /**
-     * Clears all fields in the scheduling form.
-     */
-    private void clearForm() {
-        appointmentDate.setValue(null);
-        firstName.clear();
-        lastName.clear();
-        dateOfBirth.setValue(null);
-        timeslotComboBox.getSelectionModel().clearSelection();
-        providerOrRoom.getSelectionModel().clearSelection();
-        visitTypeGroup.selectToggle(null);
-        outputArea.clear();
+        ClinicSnapshot snapshot;
+        try {
+            snapshot = ClinicSnapshot.load(file, providerRegistry);
+        } catch (IOException e) {
+            console.append("Cannot load snapshot " + file + ": " + e.getMessage() + "; replaying the whole journal.\n");
+            return null;
+        }
+        scheduler.restoreAll(snapshot.getAppointments());
+        scheduler.setRotationCursor(snapshot.getRotationCursor());
+        return snapshot;
     }
 
     /**
-     * Retrieves the currently selected timeslot index from the ComboBox.
-     *
-     * @return The 1-based index of the selected timeslot, or -1 if none is selected.
+     * Starts writing a snapshot in the background once enough schedule changes have been made.
      */
-    private Integer getSelectedTimeslotIndex() {
-        int selectedIndex = timeslotComboBox.getSelectionModel().getSelectedIndex();
-        return selectedIndex >= 0 ? selectedIndex + 1 : -1;  // Return 1-based index or -1 if none selected
+    private void changed() {
+        changesSinceSnapshot++;
+        if (changesSinceSnapshot >= SNAPSHOT_INTERVAL && !snapshotRunning) {
+            takeSnapshot();
+        }
     }
 
     /**
-     * Validates the selected appointment date.
-     *
-     * @param date The date to validate.
-     * @return True if the date is valid for scheduling, false otherwise.
+     * Writes a snapshot of the schedule in the background.
+     * The journal is rotated first, and the state is copied here, on the application thread, together with
+     * the journal offset it matches, so bookings can go on while the copy is written. Once the snapshot
+     * is durable the journal before the rotation is deleted.
      */
-    private boolean validateAppointmentDate(LocalDate date) {
-        if (date == null) {
-            outputArea.appendText("Please select a valid appointment date.\n");
-            return false;
-        }
-
-        Date appointmentDate = Date.fromLocalDate(date);
-        if (!appointmentDate.isValid()) {
-            outputArea.appendText("Invalid calendar date selected.\n");
-            return false;
-        }
-
-        if (appointmentDate.isTodayOrBefore()) {
-            outputArea.appendText("Appointment date must be in the future.\n");
-            return false;
-        }
-
-        if (appointmentDate.isWeekend()) {
-            outputArea.appendText("Appointment date cannot be on a weekend.\n");
-            return false;
-        }
-
-        if (!appointmentDate.isWithinSixMonths()) {
-            outputArea.appendText("Appointment date must be within the next six months.\n");
-            return false;
+    private void takeSnapshot() {
+        Path file = Paths.get(System.getProperty(SNAPSHOT_PROPERTY, DEFAULT_SNAPSHOT_FILE));
+        AppointmentJournal journal = scheduler.getJournal();
+        if (journal != null) {
+            try {
+                journal.rotate();
+            } catch (IOException e) {
+                console.append("Cannot rotate journal: " + e.getMessage() + "\n");
+            }
         }
-
-        return true;
+        List<Appointment> appointments = scheduler.getAppointments();
+        int cursor = scheduler.getRotationCursor();
+        long journalId = journal == null ? 0 : journal.getId();
+        long journalOffset = journal == null ? 0 : journal.getEndOffset();
+        snapshotRunning = true;
+        changesSinceSnapshot = 0;
+        snapshotExecutor.execute(() -> {
+            String error = null;
+            try {
+                ClinicSnapshot.write(file, providerRegistry, appointments, cursor, journalId, journalOffset);
+                if (journal != null) {
+                    journal.dropPrevious();
+                }
+            } catch (IOException e) {
+                error = "Snapshot failed: " + e.getMessage() + "\n";
+            }
+            String message = error;
+            Platform.runLater(() -> {
+                snapshotRunning = false;
+                if (message != null) {
+                    console.append(message);
+                }
+            });
+        });
     }
 
     /**
-     * Creates a Profile object from patient details provided by the user.
+     * Opens the journal and replays the schedule changes recorded in earlier sessions.
+     * The file is named by the clinicmanager.journal system property, and clinicmanager.journal.sync
+     * picks the sync policy (EVERY_OP, BATCHED or TIMED; EVERY_OP by default). Records already held
+     * by the snapshot are skipped, and a snapshot is taken if many records had to be replayed.
      *
-     * @param fname The first name of the patient.
-     * @param lname The last name of the patient.
-     * @param dobStr The date of birth of the patient in string format.
-     * @return A Profile object if all details are valid, or null if invalid.
+     * @param snapshot The snapshot the schedule was restored from, or null.
      */
-    private Profile createPatientProfile(String fname, String lname, String dobStr) {
+    private void openJournal(ClinicSnapshot snapshot) {
+        String file = System.getProperty(JOURNAL_PROPERTY, DEFAULT_JOURNAL_FILE);
+        AppointmentJournal.SyncPolicy policy;
         try {
-            LocalDate dob = LocalDate.parse(dobStr);
-            Date dateOfBirth = Date.fromLocalDate(dob);
+            policy = AppointmentJournal.SyncPolicy.valueOf(
+                    System.getProperty(JOURNAL_SYNC_PROPERTY, AppointmentJournal.SyncPolicy.EVERY_OP.name()));
+        } catch (IllegalArgumentException e) {
+            console.append("Invalid journal sync policy; using EVERY_OP.\n");
+            policy = AppointmentJournal.SyncPolicy.EVERY_OP;
+        }
+        int[] replayed = {0};
+        AppointmentJournal.Listener replay = new AppointmentJournal.Listener() {
+            @Override
+            public void scheduled(Appointment appointment) {
+                replayed[0]++;
+                scheduler.restore(appointment);
+            }
 
-            if (!dateOfBirth.isValid() || dateOfBirth.isTodayOrAfter()) {
-                outputArea.appendText("Invalid date of birth.\n");
-                return null;
+            @Override
+            public void cancelled(Date date, Timeslot timeslot, Profile patient) {
+                replayed[0]++;
+                scheduler.restoreCancel(date, timeslot, patient);
             }
-            return new Profile(fname, lname, dateOfBirth);
-        } catch (Exception e) {
-            outputArea.appendText("Invalid date format for date of birth.\n");
-            return null;
-        }
-    }
 
-    /**
-     * Searches for a provider by NPI from the provider list.
-     *
-     * @param npi The NPI (National Provider Identifier) to search for.
-     * @return The matching Provider, or null if no match is found.
-     */
-    private Provider findProviderByNPI(String npi) {
-        for (Provider provider : providerList) {
-            if (provider instanceof Doctor && ((Doctor) provider).getNpi().equals(npi)) {
-                return provider;
+            @Override
+            public void rescheduled(Date date, Timeslot timeslot, Profile patient, Appointment appointment) {
+                replayed[0] += 2;
+                scheduler.restoreReschedule(date, timeslot, patient, appointment);
             }
+        };
+        AppointmentJournal journal;
+        try {
+            journal = AppointmentJournal.open(Paths.get(file), providerRegistry, policy, JOURNAL_BATCH_SIZE,
+                    JOURNAL_SYNC_INTERVAL_MS, snapshot == null ? 0 : snapshot.getJournalId(),
+                    snapshot == null ? 0 : snapshot.getJournalOffset(), replay);
+        } catch (IOException e) {
+            console.append("Cannot open journal " + file + ": " + e.getMessage() + "; changes will not be saved.\n");
+            return;
         }
-        return null;
-    }
-
-    /**
-     * Assigns an available technician for an imaging service at a specific timeslot.
-     *
-     * @param timeslot The timeslot for the imaging service.
-     * @param room The Radiology room required for the service.
-     * @return An available Technician, or null if no technician is available.
-     */
-    private Technician assignTechnician(Timeslot timeslot, Radiology room) {
-        // Logic to find an available technician based on room and timeslot
-        for (Technician technician : technicianList) {
-            if (isTechnicianAvailable(technician, timeslot) && isRoomAvailable(technician.getLocation(), timeslot, room)) {
-                return technician;
+        scheduler.setJournal(journal);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                // Nothing more can be done while the JVM exits
             }
+        }));
+        if (!scheduler.isEmpty()) {
+            console.append(scheduler.size() + " appointment(s) restored from the snapshot and journal.\n");
+        }
+        if (replayed[0] >= SNAPSHOT_INTERVAL) {
+            takeSnapshot();
         }
-        return null;
     }
 
     /**
-     * Checks if an appointment already exists in the appointment list.
-     *
-     * @param appointment The appointment to check.
-     * @return True if the appointment exists, false otherwise.
+     * Opens the archive of past appointments.
+     * The file is named by the clinicmanager.archive system property.
      */
-    private boolean appointmentExists(Appointment appointment) {
-        for (Appointment existingAppointment : appointmentList) {
-            if (existingAppointment.equals(appointment)) {
-                outputArea.appendText("This appointment already exists.\n");
-                return true;
-            }
+    private void openArchive() {
+        Path file = Paths.get(System.getProperty(ARCHIVE_PROPERTY, DEFAULT_ARCHIVE_FILE));
+        AppointmentArchive archive;
+        try {
+            archive = AppointmentArchive.open(file, providerRegistry);
+        } catch (IOException e) {
+            console.append("Cannot open archive " + file + ": " + e.getMessage()
+                    + "; past appointments stay on the schedule.\n");
+            return;
         }
-        return false;
+        scheduler.setArchive(archive);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                archive.close();
+            } catch (IOException e) {
+                // Nothing more can be done while the JVM exits
+            }
+        }));
     }
 
     /**
-     * Checks if a provider is already booked at a specified date and timeslot.
-     *
-     * @param date The date of the appointment.
-     * @param timeslot The timeslot of the appointment.
-     * @param provider The provider to check availability for.
-     * @return True if the provider is already booked, false otherwise.
+     * Moves the appointments before today from the schedule to the archive, and starts a snapshot
+     * so the next start need not move them again.
      */
-    private boolean isProviderBookedAt(Date date, Timeslot timeslot, Provider provider) {
-        for (Appointment appointment : appointmentList) {
-            if (appointment.getDate().equals(date) && appointment.getTimeslot().equals(timeslot) && appointment.getProvider().equals(provider)) {
-                outputArea.appendText("Provider is already booked at this time.\n");
-                return true;
-            }
+    private void archivePastAppointments() {
+        int moved;
+        try {
+            moved = scheduler.archivePast();
+        } catch (IOException e) {
+            console.append("Cannot archive past appointments: " + e.getMessage() + "\n");
+            return;
+        }
+        if (moved == 0) {
+            return;
+        }
+        console.append(moved + " past appointment(s) moved to the archive.\n");
+        changesSinceSnapshot += moved;
+        if (!snapshotRunning) {
+            takeSnapshot();
         }
-        return false;
     }
 
     /**
-     * Checks if a technician is available at a specified timeslot.
-     *
-     * @param technician The technician to check.
-     * @param timeslot The timeslot for which availability is checked.
-     * @return True if the technician is available, false otherwise.
+     * Clears all fields in the scheduling form.
      */
-    private boolean isTechnicianAvailable(Technician technician, Timeslot timeslot) {
-        for (Appointment appointment : appointmentList) {
-            if (appointment instanceof Imaging && ((Imaging) appointment).getProvider().equals(technician) && appointment.getTimeslot().equals(timeslot)) {
-                return false;
-            }
-        }
-        return true;
+    private void clearForm() {
+        appointmentDate.setValue(null);
+        firstName.clear();
+        lastName.clear();
+        dateOfBirth.setValue(null);
+        timeslotComboBox.getSelectionModel().clearSelection();
+        providerOrRoom.getSelectionModel().clearSelection();
+        visitTypeGroup.selectToggle(null);
+        console.clear();
     }
 
     /**
-     * Checks if a room is available for a specific radiology service at a timeslot.
+     * Retrieves the currently selected timeslot index from the ComboBox.
      *
-     * @param location The location of the room.
-     * @param timeslot The timeslot for which availability is checked.
-     * @param service The radiology service.
-     * @return True if the room is available, false otherwise.
+     * @return The 1-based index of the selected timeslot, or -1 if none is selected.
      */
-    private boolean isRoomAvailable(Location location, Timeslot timeslot, Radiology service) {
-        for (Appointment appointment : appointmentList) {
-            if (appointment instanceof Imaging && ((Imaging) appointment).getRoom().equals(service) && appointment.getTimeslot().equals(timeslot)) {
-                return false;
-            }
-        }
-        return true;
+    private Integer getSelectedTimeslotIndex() {
+        int selectedIndex = timeslotComboBox.getSelectionModel().getSelectedIndex();
+        return selectedIndex >= 0 ? selectedIndex + 1 : -1;  // Return 1-based index or -1 if none selected
     }
+
 }
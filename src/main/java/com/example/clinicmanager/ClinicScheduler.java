@@ -0,0 +1,926 @@
+package com.example.clinicmanager;
+
+import java.io.IOException;
+
+/**
+ * Scheduling engine of the clinic, with no user interface.
+ * It holds the schedule and every rule about it: validation, conflict checks, technician assignment,
+ * the write-ahead journal, archiving of past appointments and the reports. Every operation returns a
+ * Result saying what happened instead of printing, so the same engine drives the JavaFX controller,
+ * batch runs and benchmarks. The engine is not thread-safe; all calls must come from one thread.
+ * A patient holds at most one appointment per date and timeslot, office or imaging, since cancel and
+ * reschedule find an appointment by its date, timeslot and patient alone.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class ClinicScheduler {
+    private final ProviderRegistry registry; // Providers indexed by NPI, specialty and location
+    private final AppointmentIndex appointmentIndex; // Appointments from today on by date, timeslot and patient
+    private final ScheduleViews scheduleViews; // The same appointments in each report order
+    private final OccupancyCalendar<Person> providerCalendar; // Booked timeslots of each provider per day
+    private final RoomSchedule roomSchedule; // Booked imaging rooms per location, day and timeslot
+    private final List<Technician> technicianList; // Technicians in rotation order
+    private final TechnicianRotation technicianRotation; // Round-robin cursor over technicianList
+    private final LeastLoadedAssigner leastLoadedAssigner; // Per-location, per-day technician load heaps
+    private Assignment assignment;
+    private AppointmentJournal journal; // Write-ahead log of schedule changes, or null
+    private AppointmentArchive archive; // Past appointments, kept off the heap, or null
+    private int prunedBefore = Integer.MIN_VALUE; // Epoch day the calendars were last pruned up to
+
+    /**
+     * Number of technicians printed on each line of the rotation list.
+     */
+    public static final int ROTATION_LINE_TECHNICIANS = 8;
+
+    /**
+     * How imaging appointments are assigned to technicians.
+     */
+    public enum Assignment {
+        ROTATION,
+        LEAST_LOADED
+    }
+
+    /**
+     * Outcome of a scheduling operation.
+     */
+    public static final class Result {
+        /**
+         * What happened to the operation.
+         */
+        public enum Status {
+            SCHEDULED,
+            CANCELLED,
+            RESCHEDULED,
+            INVALID_NAME,
+            INVALID_DATE,
+            PAST_DATE,
+            WEEKEND,
+            OUTSIDE_WINDOW,
+            INVALID_DOB,
+            UNKNOWN_PROVIDER,
+            DUPLICATE,
+            PROVIDER_BOOKED,
+            PATIENT_BOOKED,
+            ROOM_BOOKED,
+            NO_TECHNICIAN,
+            NOT_FOUND,
+            JOURNAL_FAILED
+        }
+
+        private final Status status;
+        private final String message;
+        private final Appointment appointment;
+        private final Appointment previous;
+        private final List<Timeslot> freeSlots;
+
+        /**
+         * Constructor to create a result.
+         *
+         * @param status What happened.
+         * @param message The text shown to the user.
+         * @param appointment The appointment scheduled, cancelled or rescheduled to, or null.
+         * @param previous The appointment that was rescheduled, or null.
+         * @param freeSlots The free timeslots of a booked provider, or null.
+         */
+        private Result(Status status, String message, Appointment appointment, Appointment previous,
+                       List<Timeslot> freeSlots) {
+            this.status = status;
+            this.message = message;
+            this.appointment = appointment;
+            this.previous = previous;
+            this.freeSlots = freeSlots;
+        }
+
+        /**
+         * Creates the result of a rejected operation.
+         *
+         * @param status Why it was rejected.
+         * @param message The text shown to the user.
+         * @return The result.
+         */
+        private static Result rejected(Status status, String message) {
+            return new Result(status, message, null, null, null);
+        }
+
+        /**
+         * Gets what happened to the operation.
+         *
+         * @return The status.
+         */
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Checks whether the schedule was changed.
+         *
+         * @return True if the appointment was scheduled, cancelled or rescheduled.
+         */
+        public boolean isSuccess() {
+            return status == Status.SCHEDULED || status == Status.CANCELLED || status == Status.RESCHEDULED;
+        }
+
+        /**
+         * Gets the text describing the result, which may span several lines.
+         *
+         * @return The message, without a trailing newline.
+         */
+        public String getMessage() {
+            return message;
+        }
+
+        /**
+         * Gets the appointment that was scheduled, cancelled or rescheduled to.
+         *
+         * @return The appointment, or null if the operation was rejected.
+         */
+        public Appointment getAppointment() {
+            return appointment;
+        }
+
+        /**
+         * Gets the appointment that was moved by a reschedule.
+         *
+         * @return The old appointment, or null for other operations.
+         */
+        public Appointment getPrevious() {
+            return previous;
+        }
+
+        /**
+         * Gets the free timeslots of the provider that was already booked.
+         *
+         * @return The free timeslots that day, or null unless the status is PROVIDER_BOOKED.
+         */
+        public List<Timeslot> getFreeSlots() {
+            return freeSlots;
+        }
+
+        /**
+         * Returns the message of the result.
+         *
+         * @return The message.
+         */
+        @Override
+        public String toString() {
+            return message;
+        }
+    }
+
+    /**
+     * Constructor to create an empty schedule over a roster.
+     * Technicians are rotated in the reverse of their roster order.
+     *
+     * @param registry The providers of the clinic.
+     */
+    public ClinicScheduler(ProviderRegistry registry) {
+        this.registry = registry;
+        this.appointmentIndex = new AppointmentIndex();
+        this.scheduleViews = new ScheduleViews();
+        this.providerCalendar = new OccupancyCalendar<>();
+        this.roomSchedule = new RoomSchedule();
+        List<Technician> technicians = registry.getTechnicians();
+        this.technicianList = new List<>(technicians.size());
+        for (int i = technicians.size() - 1; i >= 0; i--) {
+            technicianList.add(technicians.get(i));
+        }
+        this.technicianRotation = new TechnicianRotation(technicianList, providerCalendar, roomSchedule);
+        this.leastLoadedAssigner = new LeastLoadedAssigner(technicianList, providerCalendar, roomSchedule);
+        this.assignment = Assignment.ROTATION;
+    }
+
+    /**
+     * Gets the providers of the clinic.
+     *
+     * @return The provider registry.
+     */
+    public ProviderRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Gets the technicians in rotation order.
+     *
+     * @return The technicians; callers must not modify the list.
+     */
+    public List<Technician> getTechnicians() {
+        return technicianList;
+    }
+
+    /**
+     * Sets how imaging appointments are assigned to technicians.
+     *
+     * @param assignment The assignment policy.
+     */
+    public void setAssignment(Assignment assignment) {
+        this.assignment = assignment;
+    }
+
+    /**
+     * Sets the journal every schedule change is written to before it is applied.
+     *
+     * @param journal The journal, or null to keep changes in memory only.
+     */
+    public void setJournal(AppointmentJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Gets the journal schedule changes are written to.
+     *
+     * @return The journal, or null if there is none.
+     */
+    public AppointmentJournal getJournal() {
+        return journal;
+    }
+
+    /**
+     * Sets the archive past appointments are moved to.
+     *
+     * @param archive The archive, or null to keep past appointments on the schedule.
+     */
+    public void setArchive(AppointmentArchive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Gets the archive past appointments are moved to.
+     *
+     * @return The archive, or null if there is none.
+     */
+    public AppointmentArchive getArchive() {
+        return archive;
+    }
+
+    /**
+     * Gets the position of the technician rotation, to be saved in a snapshot.
+     *
+     * @return The rotation cursor.
+     */
+    public int getRotationCursor() {
+        return technicianRotation.getCursor();
+    }
+
+    /**
+     * Restores the position of the technician rotation from a snapshot.
+     *
+     * @param cursor The rotation cursor.
+     */
+    public void setRotationCursor(int cursor) {
+        technicianRotation.setCursor(cursor);
+    }
+
+    /**
+     * Schedules an office appointment with a doctor.
+     *
+     * @param date The appointment date.
+     * @param timeslot The appointment timeslot.
+     * @param patient The patient profile.
+     * @param npi The NPI of the doctor.
+     * @return The result, with the new appointment if it was scheduled.
+     */
+    public Result scheduleOffice(Date date, Timeslot timeslot, Profile patient, String npi) {
+        Result invalid = validate(patient, date);
+        if (invalid != null) {
+            return invalid;
+        }
+        Doctor doctor = registry.findDoctorByNpi(npi);
+        if (doctor == null) {
+            return Result.rejected(Result.Status.UNKNOWN_PROVIDER, "Invalid NPI or provider not found.");
+        }
+        Appointment existing = appointmentIndex.find(date, timeslot, patient);
+        if (existing != null) {
+            return existing instanceof Imaging
+                    ? Result.rejected(Result.Status.DUPLICATE, "Patient already has an imaging appointment at "
+                    + timeslot + " on " + date + ".")
+                    : Result.rejected(Result.Status.DUPLICATE, "This appointment already exists.");
+        }
+        Appointment appointment = new Appointment(date, timeslot, new Person(patient), doctor);
+        if (providerCalendar.isBooked(doctor, date, timeslot)) {
+            return providerBooked(doctor, date);
+        }
+        Result failed = writeAhead(null, appointment);
+        if (failed != null) {
+            return failed;
+        }
+        addAppointment(appointment);
+        return new Result(Result.Status.SCHEDULED, "Office appointment scheduled: " + appointment,
+                appointment, null, null);
+    }
+
+    /**
+     * Schedules an imaging appointment, assigning a technician who is free with the room free at their location.
+     *
+     * @param date The appointment date.
+     * @param timeslot The appointment timeslot.
+     * @param patient The patient profile.
+     * @param room The imaging service.
+     * @return The result, with the new appointment if it was scheduled.
+     */
+    public Result scheduleImaging(Date date, Timeslot timeslot, Profile patient, Radiology room) {
+        Result invalid = validate(patient, date);
+        if (invalid != null) {
+            return invalid;
+        }
+        // Check for a duplicate first so a rejected booking does not advance the technician rotation
+        Appointment existing = appointmentIndex.find(date, timeslot, patient);
+        if (existing != null) {
+            return existing instanceof Imaging
+                    ? Result.rejected(Result.Status.DUPLICATE,
+                    "This appointment already exists.\nImaging appointment already exists.")
+                    : Result.rejected(Result.Status.DUPLICATE, "Patient already has an office appointment at "
+                    + timeslot + " on " + date + ".");
+        }
+        Technician technician = assignment == Assignment.LEAST_LOADED
+                ? leastLoadedAssigner.assign(date, timeslot, room)
+                : technicianRotation.assign(date, timeslot, room);
+        if (technician == null) {
+            return Result.rejected(Result.Status.NO_TECHNICIAN,
+                    "No available technician for " + room.name() + " at the selected timeslot.");
+        }
+        Imaging appointment = new Imaging(date, timeslot, new Person(patient), technician, room);
+        Result failed = writeAhead(null, appointment);
+        if (failed != null) {
+            return failed;
+        }
+        addAppointment(appointment);
+        return new Result(Result.Status.SCHEDULED, "Imaging appointment scheduled: " + appointment,
+                appointment, null, null);
+    }
+
+    /**
+     * Cancels an appointment.
+     *
+     * @param date The appointment date.
+     * @param timeslot The appointment timeslot.
+     * @param patient The patient profile.
+     * @return The result, with the cancelled appointment if it was found.
+     */
+    public Result cancel(Date date, Timeslot timeslot, Profile patient) {
+        if (!isAlphabetic(patient.getFirstName()) || !isAlphabetic(patient.getLastName())) {
+            return invalidName();
+        }
+        Appointment appointment = appointmentIndex.find(date, timeslot, patient);
+        if (appointment == null) {
+            return Result.rejected(Result.Status.NOT_FOUND, "No matching appointment found for cancellation.");
+        }
+        Result failed = writeAhead(appointment, null);
+        if (failed != null) {
+            return failed;
+        }
+        removeAppointment(appointment);
+        return new Result(Result.Status.CANCELLED, "Appointment canceled for " + patient.getFirstName() + " "
+                + patient.getLastName() + " on " + date + " at " + timeslot + ".", appointment, null, null);
+    }
+
+    /**
+     * Moves an appointment to another date and timeslot with the same provider, and the same room for imaging.
+     * The new date must be one an appointment could be scheduled on.
+     *
+     * @param date The current appointment date.
+     * @param timeslot The current appointment timeslot.
+     * @param patient The patient profile.
+     * @param newDate The new appointment date.
+     * @param newTimeslot The new appointment timeslot.
+     * @return The result, with the new and the old appointment if it was rescheduled.
+     */
+    public Result reschedule(Date date, Timeslot timeslot, Profile patient, Date newDate, Timeslot newTimeslot) {
+        if (!isAlphabetic(patient.getFirstName()) || !isAlphabetic(patient.getLastName())) {
+            return invalidName();
+        }
+        Appointment existing = appointmentIndex.find(date, timeslot, patient);
+        if (existing == null) {
+            return Result.rejected(Result.Status.NOT_FOUND, "Appointment not found.");
+        }
+        Result invalid = validateDate(newDate);
+        if (invalid != null) {
+            return invalid;
+        }
+        Appointment conflicting = appointmentIndex.find(newDate, newTimeslot, patient);
+        if (conflicting != null) {
+            return Result.rejected(Result.Status.PATIENT_BOOKED,
+                    conflicting.getPatient().getProfile() + " has an existing appointment at " + newTimeslot);
+        }
+        Person provider = existing.getProvider();
+        if (provider instanceof Provider && providerCalendar.isBooked(provider, newDate, newTimeslot)) {
+            return providerBooked(provider, newDate);
+        }
+
+        Appointment moved;
+        if (existing instanceof Imaging) {
+            Radiology room = ((Imaging) existing).getRoom();
+            if (!roomSchedule.isAvailable(((Provider) provider).getLocation(), newDate, room, newTimeslot)) {
+                return Result.rejected(Result.Status.ROOM_BOOKED, "No available " + room + " room at " + newTimeslot + ".");
+            }
+            moved = new Imaging(newDate, newTimeslot, new Person(patient), provider, room);
+        } else {
+            moved = new Appointment(newDate, newTimeslot, new Person(patient), provider);
+        }
+
+        Result failed = writeAhead(existing, moved);
+        if (failed != null) {
+            return failed;
+        }
+        removeAppointment(existing);
+        addAppointment(moved);
+        return new Result(Result.Status.RESCHEDULED, "Appointment rescheduled to: " + moved, moved, existing, null);
+    }
+
+    /**
+     * Finds an appointment by date, timeslot, and patient profile.
+     *
+     * @param date The appointment date.
+     * @param timeslot The appointment timeslot.
+     * @param patient The patient profile.
+     * @return The appointment if found, null otherwise.
+     */
+    public Appointment find(Date date, Timeslot timeslot, Profile patient) {
+        return appointmentIndex.find(date, timeslot, patient);
+    }
+
+    /**
+     * Returns the scheduled appointments in the order of a sort key.
+     *
+     * @param key The sorting key ('P', 'L', 'A', 'O', 'I'); 'O' and 'I' hold only office or imaging appointments.
+     * @return A new list of the appointments in that order.
+     * @throws IllegalArgumentException If the key is not a valid sort key.
+     */
+    public List<Appointment> query(char key) {
+        return scheduleViews.snapshot(key);
+    }
+
+    /**
+     * Copies the scheduled appointments, ordered by date, timeslot and provider.
+     *
+     * @return A new list with the scheduled appointments.
+     */
+    public List<Appointment> getAppointments() {
+        return scheduleViews.snapshot('A');
+    }
+
+    /**
+     * Returns the number of scheduled appointments, not counting archived ones.
+     *
+     * @return The number of appointments on the schedule.
+     */
+    public int size() {
+        return appointmentIndex.size();
+    }
+
+    /**
+     * Checks whether there are no scheduled appointments, not counting archived ones.
+     *
+     * @return True if the schedule is empty.
+     */
+    public boolean isEmpty() {
+        return appointmentIndex.size() == 0;
+    }
+
+    /**
+     * Puts an appointment back on the schedule without checking or journaling it,
+     * when restoring from a snapshot or replaying the journal.
+     * An imaging appointment also moves the technician rotation past its technician, as booking it did,
+     * so replaying the journal recovers the rotation recorded since the last snapshot. The journal does
+     * not record which assignment picked the technician, so this is done for every imaging appointment.
+     * After restoring a snapshot, setRotationCursor() puts back the cursor it saved.
+     *
+     * @param appointment The appointment to restore.
+     * @return True if it was added, false if the patient already has an appointment at that date and timeslot.
+     */
+    public boolean restore(Appointment appointment) {
+        if (appointmentIndex.contains(appointment)) {
+            return false;
+        }
+        addAppointment(appointment);
+        if (appointment instanceof Imaging && appointment.getProvider() instanceof Technician) {
+            technicianRotation.advancePast((Technician) appointment.getProvider());
+        }
+        return true;
+    }
+
+    /**
+     * Puts many appointments back on the schedule without checking or journaling them, when restoring
+     * a snapshot. Each appointment is handled as by restore(), except that the ordered views are filled
+     * once from sorted copies of the list instead of one insertion per appointment.
+     *
+     * @param appointments The appointments to restore.
+     * @return The number of appointments added; those already on the schedule are skipped.
+     */
+    public int restoreAll(List<Appointment> appointments) {
+        List<Appointment> added = new List<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            if (appointmentIndex.contains(appointment)) {
+                continue;
+            }
+            indexAppointment(appointment);
+            if (appointment instanceof Imaging && appointment.getProvider() instanceof Technician) {
+                technicianRotation.advancePast((Technician) appointment.getProvider());
+            }
+            added.add(appointment);
+        }
+        scheduleViews.addAll(added);
+        return added.size();
+    }
+
+    /**
+     * Moves an appointment without checking or journaling it, when replaying the journal.
+     * A reschedule keeps its technician, so the technician rotation does not move.
+     *
+     * @param date The old appointment date.
+     * @param timeslot The old appointment timeslot.
+     * @param patient The patient profile.
+     * @param appointment The appointment at its new date and timeslot.
+     * @return True if the appointment was added at its new date and timeslot.
+     */
+    public boolean restoreReschedule(Date date, Timeslot timeslot, Profile patient, Appointment appointment) {
+        restoreCancel(date, timeslot, patient);
+        if (appointmentIndex.contains(appointment)) {
+            return false;
+        }
+        addAppointment(appointment);
+        return true;
+    }
+
+    /**
+     * Removes an appointment without journaling it, when replaying the journal.
+     *
+     * @param date The appointment date.
+     * @param timeslot The appointment timeslot.
+     * @param patient The patient profile.
+     * @return True if the appointment was on the schedule.
+     */
+    public boolean restoreCancel(Date date, Timeslot timeslot, Profile patient) {
+        Appointment appointment = appointmentIndex.find(date, timeslot, patient);
+        if (appointment == null) {
+            return false;
+        }
+        removeAppointment(appointment);
+        return true;
+    }
+
+    /**
+     * Moves the appointments before today from the schedule to the archive, so the schedule only holds
+     * the booking window, and drops the calendar, room and technician load entries of the days before today.
+     * The move is not journaled: the archive records its cutoff day with the rows,
+     * and an appointment before the cutoff that comes back from the snapshot or journal after a crash
+     * is already archived and is only dropped.
+     *
+     * @return The number of appointments taken off the schedule; 0 if there is no archive.
+     * @throws IOException If the archive cannot be written; the schedule is then left unchanged.
+     */
+    public int archivePast() throws IOException {
+        if (archive == null) {
+            return 0;
+        }
+        int today = Date.todayEpochDay();
+        List<Appointment> past = new List<>();
+        for (Appointment appointment : scheduleViews.get('A')) {
+            if (appointment.getDate().toEpochDay() >= today) {
+                break;
+            }
+            past.add(appointment);
+        }
+        if (past.isEmpty()) {
+            pruneBefore(today);
+            return 0;
+        }
+        int cutoff = archive.getCutoff();
+        List<Appointment> unarchived = new List<>(past.size());
+        for (Appointment appointment : past) {
+            if (appointment.getDate().toEpochDay() >= cutoff) {
+                unarchived.add(appointment);
+            }
+        }
+        archive.append(unarchived, today);
+        for (Appointment appointment : past) {
+            removeAppointment(appointment);
+        }
+        pruneBefore(today);
+        return past.size();
+    }
+
+    /**
+     * Drops the calendar, room and technician load entries of the days before a day, once per day.
+     * Only called after the appointments before that day have been archived, so the entries are all empty.
+     *
+     * @param epochDay The first day to keep.
+     */
+    private void pruneBefore(int epochDay) {
+        if (epochDay <= prunedBefore) {
+            return;
+        }
+        Date date = Date.ofEpochDay(epochDay);
+        providerCalendar.pruneBefore(date);
+        roomSchedule.pruneBefore(date);
+        leastLoadedAssigner.pruneBefore(date);
+        prunedBefore = epochDay;
+    }
+
+    /**
+     * Prepares the roster listing: the providers sorted by profile, then the technicians in rotation order.
+     * The rotation list is wrapped every ROTATION_LINE_TECHNICIANS technicians, each continued line
+     * ending with an arrow.
+     *
+     * @return The report.
+     */
+    public ReportRenderer.Body rosterReport() {
+        List<Provider> providers = registry.getProvidersByName();
+        List<Technician> technicians = technicianList;
+        return (renderer, progress) -> {
+            for (int i = 0; i < providers.size(); i++) {
+                renderer.line(providers.get(i).toString());
+            }
+            renderer.endLine().line("Rotation list for the technicians.");
+            for (int i = 0; i < technicians.size(); i++) {
+                Technician technician = technicians.get(i);
+                renderer.append(technician.getProfile().getFirstName()).append(" ")
+                        .append(technician.getProfile().getLastName())
+                        .append(" (").append(technician.getLocation().toString()).append(")");
+                if (i == technicians.size() - 1) {
+                    break;
+                }
+                renderer.append(" -->");
+                if ((i + 1) % ROTATION_LINE_TECHNICIANS == 0) {
+                    renderer.endLine();
+                } else {
+                    renderer.append(" ");
+                }
+            }
+            renderer.endLine();
+        };
+    }
+
+    /**
+     * Prepares the report of the scheduled appointments in one of the report orders.
+     * The appointments are copied now, so the report can be formatted on another thread.
+     *
+     * @param key The sorting key ('P', 'L', 'A', 'O', 'I').
+     * @return The report, or null if the schedule is empty.
+     * @throws IllegalArgumentException If the key is not a valid sort key.
+     */
+    public ReportRenderer.Body appointmentReport(char key) {
+        String header;
+        String footer = "** End of list **";
+        switch (key) {
+            case 'A':
+                header = "** List of appointments ordered by date/time/provider. **";
+                break;
+            case 'P':
+                header = "** List of appointments ordered by patient name/date/time. **";
+                break;
+            case 'L':
+                header = "** List of appointments ordered by location/date/time. **";
+                break;
+            case 'O':
+                header = "** List of office appointments ordered by county/date/time. **";
+                footer = "** end of list **";
+                break;
+            case 'I':
+                header = "** List of radiology appointments ordered by county/date/time. **";
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid sort key");
+        }
+        if (isEmpty()) {
+            return null;
+        }
+        List<Appointment> snapshot = scheduleViews.snapshot(key);
+        String end = footer;
+        return (renderer, progress) -> {
+            renderer.line(header);
+            for (int i = 0; i < snapshot.size(); i++) {
+                renderer.line(snapshot.get(i).toString());
+                if (!progress.progress(i + 1, snapshot.size())) {
+                    return;
+                }
+            }
+            renderer.line(end);
+        };
+    }
+
+    /**
+     * Prepares the billing statements for each patient with total due, sorted by patient,
+     * covering the scheduled and the archived appointments.
+     * The schedule is copied now, so the report can be formatted on another thread.
+     *
+     * @return The report, or null if there is nothing to bill.
+     */
+    public ReportRenderer.Body billingReport() {
+        int archived = archive == null ? 0 : archive.size();
+        if (isEmpty() && archived == 0) {
+            return null;
+        }
+        List<Appointment> snapshot = getAppointments();
+        AppointmentArchive past = archive;
+        return (renderer, progress) -> {
+            BillingLedger ledger = BillingLedger.of(snapshot);
+            if (archived > 0) {
+                past.chargeTo(ledger, archived);
+            }
+            List<BillingLedger.Account> statements = ledger.statements();
+            renderer.line("** Billing Statements ordered by patient **");
+            for (int i = 0; i < statements.size(); i++) {
+                BillingLedger.Account account = statements.get(i);
+                renderer.append("(").append(i + 1).append(") ").append(account.getPatient())
+                        .append(" [Total Due: $").append(account.getDollars()).append("]").endLine();
+                if (!progress.progress(i + 1, statements.size())) {
+                    return;
+                }
+            }
+            renderer.line("** End of billing statements **");
+        };
+    }
+
+    /**
+     * Prepares the credit of each provider, ordered by provider, covering the scheduled and the
+     * archived appointments. The schedule is copied now, so the report can be formatted on another thread.
+     *
+     * @return The report, or null if there is nothing to credit.
+     */
+    public ReportRenderer.Body creditReport() {
+        int archived = archive == null ? 0 : archive.size();
+        if (isEmpty() && archived == 0) {
+            return null;
+        }
+        List<Appointment> snapshot = getAppointments();
+        AppointmentArchive past = archive;
+        List<Provider> providers = registry.getProvidersByName();
+        return (renderer, progress) -> {
+            renderer.endLine().line("** Credit amount ordered by provider. **");
+            long[] credits = registry.creditCents(snapshot);
+            if (archived > 0) {
+                past.addCredits(credits, archived);
+            }
+            for (int i = 0; i < providers.size(); i++) {
+                Provider provider = providers.get(i);
+                double totalCredit = credits[registry.idOf(provider)] / 100.0;
+                renderer.append("(").append(i + 1).append(") ").append(provider.getProfile())
+                        .append(" [credit amount: $").append(totalCredit).append("]").endLine();
+                if (!progress.progress(i + 1, providers.size())) {
+                    return;
+                }
+            }
+            renderer.line("** end of list **");
+        };
+    }
+
+    /**
+     * Checks the patient and the appointment date of a new appointment.
+     *
+     * @param patient The patient profile.
+     * @param date The appointment date.
+     * @return The rejection, or null if both are valid.
+     */
+    private Result validate(Profile patient, Date date) {
+        if (!isAlphabetic(patient.getFirstName()) || !isAlphabetic(patient.getLastName())) {
+            return invalidName();
+        }
+        Result invalid = validateDate(date);
+        if (invalid != null) {
+            return invalid;
+        }
+        Date dob = patient.getDob();
+        if (!dob.isValid() || dob.isTodayOrAfter()) {
+            return Result.rejected(Result.Status.INVALID_DOB, "Invalid date of birth.");
+        }
+        return null;
+    }
+
+    /**
+     * Checks that an appointment can be booked on a date.
+     *
+     * @param date The appointment date.
+     * @return The rejection, or null if the date is valid for scheduling.
+     */
+    private static Result validateDate(Date date) {
+        if (!date.isValid()) {
+            return Result.rejected(Result.Status.INVALID_DATE, "Invalid calendar date selected.");
+        }
+        if (date.isTodayOrBefore()) {
+            return Result.rejected(Result.Status.PAST_DATE, "Appointment date must be in the future.");
+        }
+        if (date.isWeekend()) {
+            return Result.rejected(Result.Status.WEEKEND, "Appointment date cannot be on a weekend.");
+        }
+        if (!date.isWithinSixMonths()) {
+            return Result.rejected(Result.Status.OUTSIDE_WINDOW, "Appointment date must be within the next six months.");
+        }
+        return null;
+    }
+
+    /**
+     * Creates the rejection for a name that is not alphabetic.
+     *
+     * @return The rejection.
+     */
+    private static Result invalidName() {
+        return Result.rejected(Result.Status.INVALID_NAME,
+                "First and last names must contain alphabetic characters only.");
+    }
+
+    /**
+     * Checks if a name consists of only ASCII letters.
+     *
+     * @param name The name to validate.
+     * @return True if the name is not empty and contains only letters, false otherwise.
+     */
+    static boolean isAlphabetic(String name) {
+        if (name == null || name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if ((c < 'a' || c > 'z') && (c < 'A' || c > 'Z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the rejection for a provider who is already booked, listing their free timeslots that day.
+     *
+     * @param provider The provider.
+     * @param date The date of the appointment.
+     * @return The rejection.
+     */
+    private Result providerBooked(Person provider, Date date) {
+        List<Timeslot> freeSlots = providerCalendar.freeSlots(provider, date);
+        StringBuilder message = new StringBuilder("Provider is already booked at this time.");
+        if (!freeSlots.isEmpty()) {
+            message.append("\nFree timeslots on ").append(date).append(':');
+            for (Timeslot freeSlot : freeSlots) {
+                message.append(' ').append(freeSlot);
+            }
+        }
+        return new Result(Result.Status.PROVIDER_BOOKED, message.toString(), null, null, freeSlots);
+    }
+
+    /**
+     * Records a schedule change in the journal before it is applied.
+     *
+     * @param removed The appointment being removed, or null when scheduling.
+     * @param added The appointment being added, or null when cancelling.
+     * @return Null if the change was recorded or there is no journal, or the rejection if it must not be applied.
+     */
+    private Result writeAhead(Appointment removed, Appointment added) {
+        if (journal == null) {
+            return null;
+        }
+        try {
+            if (removed == null) {
+                journal.scheduled(added);
+            } else if (added == null) {
+                journal.cancelled(removed);
+            } else {
+                journal.rescheduled(removed, added);
+            }
+            return null;
+        } catch (IOException e) {
+            return Result.rejected(Result.Status.JOURNAL_FAILED, "Journal write failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds an appointment to the index, the ordered views and the calendars.
+     * Each of them takes constant or logarithmic time, so booking does not slow down as the schedule grows.
+     *
+     * @param appointment The appointment to add.
+     */
+    private void addAppointment(Appointment appointment) {
+        indexAppointment(appointment);
+        scheduleViews.add(appointment);
+    }
+
+    /**
+     * Adds an appointment to the index and the calendars, but not to the ordered views.
+     *
+     * @param appointment The appointment to add.
+     */
+    private void indexAppointment(Appointment appointment) {
+        appointmentIndex.add(appointment);
+        providerCalendar.book(appointment.getProvider(), appointment.getDate(), appointment.getTimeslot());
+        if (appointment instanceof Imaging) {
+            roomSchedule.book(((Provider) appointment.getProvider()).getLocation(), appointment.getDate(),
+                    ((Imaging) appointment).getRoom(), appointment.getTimeslot());
+            leastLoadedAssigner.booked((Imaging) appointment);
+        }
+    }
+
+    /**
+     * Removes an appointment from the index, the ordered views and the calendars.
+     * Like adding, this takes constant or logarithmic time however many appointments are scheduled.
+     *
+     * @param appointment The appointment to remove.
+     */
+    private void removeAppointment(Appointment appointment) {
+        appointmentIndex.remove(appointment);
+        scheduleViews.remove(appointment);
+        providerCalendar.release(appointment.getProvider(), appointment.getDate(), appointment.getTimeslot());
+        if (appointment instanceof Imaging) {
+            roomSchedule.release(((Provider) appointment.getProvider()).getLocation(), appointment.getDate(),
+                    ((Imaging) appointment).getRoom(), appointment.getTimeslot());
+            leastLoadedAssigner.released((Imaging) appointment);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the ClinicScheduler class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class ClinicSchedulerTest {
+    private final Doctor doctor = new Doctor(new Profile("John", "Doe", new Date(1970, 1, 1)), Location.BRIDGEWATER, Specialty.FAMILY, "01");
+    private final Technician technician = new Technician(new Profile("Jane", "Smith", new Date(1980, 3, 15)), Location.EDISON, 125);
+    private final Profile patient = new Profile("Varun", "Bondugula", new Date(1989, 12, 13));
+    private final LocalDate nextMonday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY)).plusWeeks(1);
+    private final Date monday = Date.fromLocalDate(nextMonday);
+    private final ClinicScheduler scheduler = scheduler();
+
+    /**
+     * Creates a scheduler with one doctor and one technician.
+     *
+     * @return The scheduler.
+     */
+    private ClinicScheduler scheduler() {
+        ProviderRegistry registry = new ProviderRegistry();
+        registry.add(doctor);
+        registry.add(technician);
+        return new ClinicScheduler(registry);
+    }
+
+    /**
+     * Creates a registry with the doctor, the technician and enough other technicians to reach a size.
+     *
+     * @param size The number of providers.
+     * @return The registry.
+     */
+    private ProviderRegistry registry(int size) {
+        ProviderRegistry registry = new ProviderRegistry();
+        registry.add(doctor);
+        registry.add(technician);
+        for (int i = registry.size(); i < size; i++) {
+            registry.add(new Technician(new Profile("Tech", "Number" + i, new Date(1980, 1, 1)), Location.CLARK, 100));
+        }
+        return registry;
+    }
+
+    /**
+     * Test case for scheduling an office appointment and rejecting the same one again.
+     */
+    @Test
+    public void testScheduleOffice() {
+        ClinicScheduler.Result result = scheduler.scheduleOffice(monday, Timeslot.getTimeslot(1), patient, "01");
+        assertEquals(ClinicScheduler.Result.Status.SCHEDULED, result.getStatus());
+        assertTrue(result.isSuccess());
+        assertSame(doctor, result.getAppointment().getProvider());
+        assertSame(result.getAppointment(), scheduler.find(monday, Timeslot.getTimeslot(1), patient));
+
+        result = scheduler.scheduleOffice(monday, Timeslot.getTimeslot(1), patient, "01");
+        assertEquals(ClinicScheduler.Result.Status.DUPLICATE, result.getStatus());
+        assertFalse(result.isSuccess());
+        assertEquals(1, scheduler.size());
+    }
+
+    /**
+     * Test case for a patient holding one appointment per timeslot, whatever its kind.
+     */
+    @Test
+    public void testOneAppointmentPerTimeslot() {
+        ClinicScheduler.Result imaging = scheduler.scheduleImaging(monday, Timeslot.getTimeslot(2), patient, Radiology.XRAY);
+        assertEquals(ClinicScheduler.Result.Status.SCHEDULED, imaging.getStatus());
+
+        ClinicScheduler.Result office = scheduler.scheduleOffice(monday, Timeslot.getTimeslot(2), patient, "01");
+        assertEquals(ClinicScheduler.Result.Status.DUPLICATE, office.getStatus());
+        assertTrue(office.getMessage().contains("imaging appointment"));
+        assertSame(imaging.getAppointment(), scheduler.find(monday, Timeslot.getTimeslot(2), patient));
+
+        assertTrue(scheduler.cancel(monday, Timeslot.getTimeslot(2), patient).isSuccess());
+        assertEquals(ClinicScheduler.Result.Status.SCHEDULED,
+                scheduler.scheduleOffice(monday, Timeslot.getTimeslot(2), patient, "01").getStatus());
+        assertEquals(1, scheduler.size());
+    }
+
+    /**
+     * Test case for a booked provider being rejected with their free timeslots.
+     */
+    @Test
+    public void testProviderBooked() {
+        scheduler.scheduleOffice(monday, Timeslot.getTimeslot(1), patient, "01");
+        Profile other = new Profile("Sinan", "Merchant", new Date(1990, 6, 1));
+        ClinicScheduler.Result result = scheduler.scheduleOffice(monday, Timeslot.getTimeslot(1), other, "01");
+        assertEquals(ClinicScheduler.Result.Status.PROVIDER_BOOKED, result.getStatus());
+        assertEquals(Timeslot.COUNT - 1, result.getFreeSlots().size());
+        assertTrue(result.getMessage().startsWith("Provider is already booked at this time.\nFree timeslots on " + monday + ":"));
+    }
+
+    /**
+     * Test case for the validation of names, dates, dates of birth and NPIs.
+     */
+    @Test
+    public void testValidation() {
+        assertEquals(ClinicScheduler.Result.Status.INVALID_NAME,
+                scheduler.scheduleOffice(monday, Timeslot.getTimeslot(1), new Profile("J0hn", "Doe", new Date(1990, 1, 1)), "01").getStatus());
+        assertEquals(ClinicScheduler.Result.Status.PAST_DATE,
+                scheduler.scheduleOffice(Date.fromLocalDate(LocalDate.now().minusDays(1)), Timeslot.getTimeslot(1), patient, "01").getStatus());
+        assertEquals(ClinicScheduler.Result.Status.WEEKEND,
+                scheduler.scheduleOffice(Date.fromLocalDate(nextMonday.minusDays(2)), Timeslot.getTimeslot(1), patient, "01").getStatus());
+        assertEquals(ClinicScheduler.Result.Status.OUTSIDE_WINDOW,
+                scheduler.scheduleOffice(Date.fromLocalDate(nextMonday.plusMonths(7)
+                        .with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY))), Timeslot.getTimeslot(1), patient, "01").getStatus());
+        assertEquals(ClinicScheduler.Result.Status.INVALID_DOB,
+                scheduler.scheduleOffice(monday, Timeslot.getTimeslot(1), new Profile("Baby", "Doe", Date.fromLocalDate(LocalDate.now().plusDays(1))), "01").getStatus());
+        assertEquals(ClinicScheduler.Result.Status.UNKNOWN_PROVIDER,
+                scheduler.scheduleOffice(monday, Timeslot.getTimeslot(1), patient, "99").getStatus());
+        assertTrue(scheduler.isEmpty());
+    }
+
+    /**
+     * Test case for scheduling and cancelling an imaging appointment.
+     */
+    @Test
+    public void testImagingAndCancel() {
+        ClinicScheduler.Result result = scheduler.scheduleImaging(monday, Timeslot.getTimeslot(2), patient, Radiology.XRAY);
+        assertEquals(ClinicScheduler.Result.Status.SCHEDULED, result.getStatus());
+        assertSame(technician, result.getAppointment().getProvider());
+
+        Profile other = new Profile("Sinan", "Merchant", new Date(1990, 6, 1));
+        assertEquals(ClinicScheduler.Result.Status.NO_TECHNICIAN,
+                scheduler.scheduleImaging(monday, Timeslot.getTimeslot(2), other, Radiology.XRAY).getStatus());
+
+        assertEquals(ClinicScheduler.Result.Status.CANCELLED,
+                scheduler.cancel(monday, Timeslot.getTimeslot(2), patient).getStatus());
+        assertEquals(ClinicScheduler.Result.Status.NOT_FOUND,
+                scheduler.cancel(monday, Timeslot.getTimeslot(2), patient).getStatus());
+        assertTrue(scheduler.isEmpty());
+    }
+
+    /**
+     * Test case for replayed imaging appointments moving the technician rotation as booking them did.
+     */
+    @Test
+    public void testRestoreRecoversRotation() {
+        Profile other = new Profile("Sinan", "Merchant", new Date(1990, 6, 1));
+        ProviderRegistry registry = registry(4);
+        ClinicScheduler booked = new ClinicScheduler(registry);
+        ClinicScheduler.Result first = booked.scheduleImaging(monday, Timeslot.getTimeslot(2), patient, Radiology.XRAY);
+        int afterFirst = booked.getRotationCursor();
+        ClinicScheduler.Result second = booked.scheduleImaging(monday, Timeslot.getTimeslot(4), other, Radiology.XRAY);
+        assertTrue(afterFirst != booked.getRotationCursor());
+
+        ClinicScheduler replayed = new ClinicScheduler(registry);
+        replayed.restore(first.getAppointment());
+        assertEquals(afterFirst, replayed.getRotationCursor());
+        replayed.restore(second.getAppointment());
+        assertEquals(booked.getRotationCursor(), replayed.getRotationCursor());
+
+        Appointment moved = new Imaging(monday, Timeslot.getTimeslot(3), second.getAppointment().getPatient(),
+                second.getAppointment().getProvider(), Radiology.XRAY);
+        assertTrue(replayed.restoreReschedule(monday, Timeslot.getTimeslot(4), other, moved));
+        assertEquals(booked.getRotationCursor(), replayed.getRotationCursor());
+        assertEquals(2, replayed.size());
+    }
+
+    /**
+     * Test case for rescheduling an appointment and rejecting a move to a weekend.
+     */
+    @Test
+    public void testReschedule() {
+        ClinicScheduler.Result scheduled = scheduler.scheduleOffice(monday, Timeslot.getTimeslot(1), patient, "01");
+        Date tuesday = Date.fromLocalDate(nextMonday.plusDays(1));
+
+        assertEquals(ClinicScheduler.Result.Status.WEEKEND, scheduler.reschedule(monday, Timeslot.getTimeslot(1),
+                patient, Date.fromLocalDate(nextMonday.plusDays(5)), Timeslot.getTimeslot(3)).getStatus());
+
+        ClinicScheduler.Result result = scheduler.reschedule(monday, Timeslot.getTimeslot(1), patient, tuesday,
+                Timeslot.getTimeslot(3));
+        assertEquals(ClinicScheduler.Result.Status.RESCHEDULED, result.getStatus());
+        assertSame(scheduled.getAppointment(), result.getPrevious());
+        assertNull(scheduler.find(monday, Timeslot.getTimeslot(1), patient));
+        assertSame(result.getAppointment(), scheduler.find(tuesday, Timeslot.getTimeslot(3), patient));
+        assertEquals(1, scheduler.size());
+    }
+
+    /**
+     * Test case for the reports being formatted from the engine without a user interface.
+     */
+    @Test
+    public void testReports() {
+        assertNull(scheduler.appointmentReport('A'));
+        scheduler.scheduleOffice(monday, Timeslot.getTimeslot(1), patient, "01");
+        Report report = new ReportRenderer().render(scheduler.appointmentReport('A'));
+        assertEquals(3, report.lineCount());
+        assertEquals("** List of appointments ordered by date/time/provider. **", report.getTitle());
+
+        Report billing = new ReportRenderer().render(scheduler.billingReport());
+        assertTrue(billing.getLine(1).contains("[Total Due: $"));
+    }
+
+    /**
+     * Test case for the roster listing keeping the stock format and wrapping a long rotation list.
+     */
+    @Test
+    public void testRosterReport() {
+        Report small = new ReportRenderer().render(scheduler.rosterReport());
+        assertEquals(5, small.lineCount());
+        assertEquals("", small.getLine(2));
+        assertEquals("Rotation list for the technicians.", small.getLine(3));
+        assertEquals("Jane Smith (EDISON)", small.getLine(4));
+
+        ClinicScheduler large = new ClinicScheduler(registry(2 + 2 * ClinicScheduler.ROTATION_LINE_TECHNICIANS));
+        Report report = new ReportRenderer().render(large.rosterReport());
+        int technicians = large.getTechnicians().size();
+        assertEquals(technicians + 1 + 2 + 3, report.lineCount());
+        assertTrue(report.getLine(technicians + 4).endsWith(") -->"));
+        assertFalse(report.getLine(report.lineCount() - 1).contains("-->"));
+    }
+}
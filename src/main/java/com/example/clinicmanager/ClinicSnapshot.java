@@ -0,0 +1,471 @@
+package com.example.clinicmanager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned binary snapshot of the clinic state: the provider roster, the technician rotation cursor
+ * and every scheduled appointment.
+ * Patients are interned into a table and appointments refer to them and to providers by id, so each
+ * appointment is a fixed 14-byte record of epoch day, timeslot ordinal, patient id, provider id and room.
+ * The file starts with a format version and a CRC-32C of its body, and is written to a temporary file
+ * that replaces the old snapshot only once it is complete. A snapshot is loaded with one mapped read.
+ * It also names the journal and offset it was taken at, so only later journal records need replaying.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public final class ClinicSnapshot {
+    private static final int MAGIC = 0x434D534E; // "CMSN"
+    private static final short VERSION = 2; // 2 widened the provider id from a short to an int
+    private static final int HEADER_BYTES = 4 + 2 + 2 + 8 + 4; // Magic, version, reserved, body length, checksum
+    private static final int APPOINTMENT_BYTES = 4 + 1 + 4 + 4 + 1;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int MAX_STRING_BYTES = 1024;
+    private static final byte DOCTOR = 0;
+    private static final byte TECHNICIAN = 1;
+    private static final byte NO_ROOM = -1;
+
+    private final List<Appointment> appointments;
+    private final int rotationCursor;
+    private final long journalId;
+    private final long journalOffset;
+
+    /**
+     * Constructor to create a loaded snapshot.
+     *
+     * @param appointments The scheduled appointments.
+     * @param rotationCursor The technician rotation cursor.
+     * @param journalId The id of the journal the snapshot was taken with.
+     * @param journalOffset The end offset of that journal when the snapshot was taken.
+     */
+    private ClinicSnapshot(List<Appointment> appointments, int rotationCursor, long journalId, long journalOffset) {
+        this.appointments = appointments;
+        this.rotationCursor = rotationCursor;
+        this.journalId = journalId;
+        this.journalOffset = journalOffset;
+    }
+
+    /**
+     * Gets the scheduled appointments, in the order they were saved.
+     *
+     * @return The appointments.
+     */
+    public List<Appointment> getAppointments() {
+        return appointments;
+    }
+
+    /**
+     * Gets the technician rotation cursor.
+     *
+     * @return The index of the technician the next rotation search starts at.
+     */
+    public int getRotationCursor() {
+        return rotationCursor;
+    }
+
+    /**
+     * Gets the id of the journal the snapshot was taken with.
+     *
+     * @return The journal id, or 0 if there was no journal.
+     */
+    public long getJournalId() {
+        return journalId;
+    }
+
+    /**
+     * Gets the end offset of the journal when the snapshot was taken.
+     *
+     * @return The journal offset.
+     */
+    public long getJournalOffset() {
+        return journalOffset;
+    }
+
+    /**
+     * Writes a snapshot, replacing any snapshot already in the file.
+     * The appointments must not change while they are written, so callers pass a copy.
+     *
+     * @param file The path of the snapshot file.
+     * @param registry The provider roster.
+     * @param appointments The scheduled appointments.
+     * @param rotationCursor The technician rotation cursor.
+     * @param journalId The id of the journal the snapshot is taken with, or 0 if there is none.
+     * @param journalOffset The end offset of that journal.
+     * @throws IOException If the snapshot cannot be written or an appointment's provider is not on the roster.
+     */
+    public static void write(Path file, ProviderRegistry registry, List<Appointment> appointments, int rotationCursor,
+                             long journalId, long journalOffset) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Encoder out = new Encoder(channel, HEADER_BYTES);
+            out.putLong(registry.fingerprint());
+            out.putInt(rotationCursor);
+            out.putLong(journalId);
+            out.putLong(journalOffset);
+
+            out.putInt(registry.size());
+            for (int i = 0; i < registry.size(); i++) {
+                putProvider(out, registry.getProvider(i));
+            }
+
+            HashMap<Profile, Integer> patientIds = new HashMap<>();
+            List<Profile> patients = new List<>();
+            int[] patientOf = new int[appointments.size()];
+            for (int i = 0; i < appointments.size(); i++) {
+                Profile profile = appointments.get(i).getPatient().getProfile();
+                Integer id = patientIds.get(profile);
+                if (id == null) {
+                    id = patients.size();
+                    patientIds.put(profile, id);
+                    patients.add(profile);
+                }
+                patientOf[i] = id;
+            }
+            out.putInt(patients.size());
+            for (int i = 0; i < patients.size(); i++) {
+                putProfile(out, patients.get(i));
+            }
+
+            out.putInt(appointments.size());
+            for (int i = 0; i < appointments.size(); i++) {
+                Appointment appointment = appointments.get(i);
+                int providerId = registry.idOf(appointment.getProvider());
+                if (providerId < 0) {
+                    throw new IOException("Provider is not on the roster: " + appointment.getProvider().getProfile());
+                }
+                out.reserve(APPOINTMENT_BYTES);
+                out.buffer.putInt(appointment.getDate().toEpochDay())
+                        .put((byte) appointment.getTimeslot().ordinal())
+                        .putInt(patientOf[i])
+                        .putInt(providerId)
+                        .put(appointment instanceof Imaging ? (byte) ((Imaging) appointment).getRoom().ordinal() : NO_ROOM);
+            }
+            long bodyLength = out.finish();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(bodyLength)
+                    .putInt((int) out.crc.getValue()).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Loads a snapshot with one mapped read of the file.
+     *
+     * @param file The path of the snapshot file.
+     * @param registry The provider roster the snapshot must have been taken with.
+     * @return The loaded snapshot.
+     * @throws IOException If the file cannot be read, is damaged, or was written for another roster or format.
+     */
+    public static ClinicSnapshot load(Path file, ProviderRegistry registry) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (data.remaining() < HEADER_BYTES || data.getInt() != MAGIC) {
+                throw new IOException("Not a clinic snapshot");
+            }
+            if (data.getShort() != VERSION) {
+                throw new IOException("Unsupported snapshot version");
+            }
+            data.getShort();
+            long bodyLength = data.getLong();
+            int checksum = data.getInt();
+            if (bodyLength != data.remaining()) {
+                throw new IOException("Snapshot is truncated");
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(data.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Snapshot checksum does not match");
+            }
+            return decode(data, registry);
+        } catch (RuntimeException e) {
+            throw new IOException("Snapshot is damaged", e);
+        }
+    }
+
+    /**
+     * Decodes the body of a snapshot whose checksum has been verified.
+     *
+     * @param data The snapshot body.
+     * @param registry The provider roster the snapshot must have been taken with.
+     * @return The loaded snapshot.
+     * @throws IOException If the snapshot was written for another roster or refers to a provider outside it.
+     */
+    private static ClinicSnapshot decode(ByteBuffer data, ProviderRegistry registry) throws IOException {
+        if (data.getLong() != registry.fingerprint()) {
+            throw new IOException("Snapshot was written for a different provider roster");
+        }
+        int rotationCursor = data.getInt();
+        long journalId = data.getLong();
+        long journalOffset = data.getLong();
+
+        int providerCount = data.getInt();
+        if (providerCount != registry.size()) {
+            throw new IOException("Snapshot was written for a different provider roster");
+        }
+        for (int i = 0; i < providerCount; i++) {
+            skipProvider(data);
+        }
+
+        Person[] patients = new Person[data.getInt()];
+        for (int i = 0; i < patients.length; i++) {
+            patients[i] = new Person(getProfile(data));
+        }
+
+        int count = data.getInt();
+        List<Appointment> appointments = new List<>(count);
+        HashMap<Integer, Date> dates = new HashMap<>();
+        Radiology[] rooms = Radiology.values();
+        for (int i = 0; i < count; i++) {
+            int epochDay = data.getInt();
+            Date date = dates.get(epochDay);
+            if (date == null) {
+                date = Date.ofEpochDay(epochDay);
+                dates.put(epochDay, date);
+            }
+            Timeslot timeslot = Timeslot.fromOrdinal(data.get());
+            Person patient = patients[data.getInt()];
+            int providerId = data.getInt();
+            if (providerId < 0 || providerId >= registry.size()) {
+                throw new IOException("Snapshot refers to provider " + providerId + " of " + registry.size());
+            }
+            Provider provider = registry.getProvider(providerId);
+            byte room = data.get();
+            appointments.add(room == NO_ROOM ? new Appointment(date, timeslot, patient, provider)
+                    : new Imaging(date, timeslot, patient, provider, rooms[room]));
+        }
+        return new ClinicSnapshot(appointments, rotationCursor, journalId, journalOffset);
+    }
+
+    /**
+     * Encodes a provider: its kind, profile, location and either specialty and NPI or rate.
+     *
+     * @param out The encoder.
+     * @param provider The provider.
+     * @throws IOException If the encoder cannot write.
+     */
+    private static void putProvider(Encoder out, Provider provider) throws IOException {
+        out.reserve(1);
+        out.buffer.put(provider instanceof Doctor ? DOCTOR : TECHNICIAN);
+        putProfile(out, provider.getProfile());
+        out.reserve(1);
+        out.buffer.put((byte) provider.getLocation().ordinal());
+        if (provider instanceof Doctor) {
+            out.reserve(1);
+            out.buffer.put((byte) ((Doctor) provider).getSpecialty().ordinal());
+            out.putString(((Doctor) provider).getNpi());
+        } else {
+            out.putInt(provider.rate());
+        }
+    }
+
+    /**
+     * Skips over an encoded provider.
+     *
+     * @param data The snapshot body.
+     */
+    private static void skipProvider(ByteBuffer data) {
+        byte kind = data.get();
+        getProfile(data);
+        data.get();
+        if (kind == DOCTOR) {
+            data.get();
+            getString(data);
+        } else {
+            data.getInt();
+        }
+    }
+
+    /**
+     * Encodes a profile as its names and date of birth.
+     *
+     * @param out The encoder.
+     * @param profile The profile.
+     * @throws IOException If the encoder cannot write or a name is too long.
+     */
+    private static void putProfile(Encoder out, Profile profile) throws IOException {
+        out.putString(profile.getFirstName());
+        out.putString(profile.getLastName());
+        out.putInt(profile.getDob().toEpochDay());
+    }
+
+    /**
+     * Decodes a profile.
+     *
+     * @param data The snapshot body.
+     * @return The profile.
+     */
+    private static Profile getProfile(ByteBuffer data) {
+        String firstName = getString(data);
+        String lastName = getString(data);
+        return new Profile(firstName, lastName, Date.ofEpochDay(data.getInt()));
+    }
+
+    /**
+     * Decodes a string stored as its UTF-8 length and bytes.
+     *
+     * @param data The snapshot body.
+     * @return The string.
+     */
+    private static String getString(ByteBuffer data) {
+        byte[] bytes = new byte[data.getShort() & 0xFFFF];
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Streams the snapshot body to a file through one buffer, keeping a checksum of what is written.
+     */
+    private static final class Encoder {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final CRC32C crc;
+        private long position; // File offset the buffer is written at next
+        private long length;   // Body bytes written so far
+
+        /**
+         * Constructor to create an encoder that writes the body after a header.
+         *
+         * @param channel The snapshot file.
+         * @param headerBytes The size of the header to leave room for.
+         */
+        private Encoder(FileChannel channel, int headerBytes) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            this.crc = new CRC32C();
+            this.position = headerBytes;
+            this.length = 0;
+        }
+
+        /**
+         * Makes room in the buffer, writing it out if needed.
+         *
+         * @param bytes The number of bytes about to be put.
+         * @throws IOException If the buffer cannot be written.
+         */
+        private void reserve(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                drain();
+            }
+        }
+
+        /**
+         * Puts an int.
+         *
+         * @param value The value.
+         * @throws IOException If the buffer cannot be written.
+         */
+        private void putInt(int value) throws IOException {
+            reserve(4);
+            buffer.putInt(value);
+        }
+
+        /**
+         * Puts a long.
+         *
+         * @param value The value.
+         * @throws IOException If the buffer cannot be written.
+         */
+        private void putLong(long value) throws IOException {
+            reserve(8);
+            buffer.putLong(value);
+        }
+
+        /**
+         * Puts a string as its UTF-8 length and bytes.
+         *
+         * @param text The string.
+         * @throws IOException If the buffer cannot be written or the string is too long.
+         */
+        private void putString(String text) throws IOException {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > MAX_STRING_BYTES) {
+                throw new IOException("Name is too long for the snapshot");
+            }
+            reserve(2 + bytes.length);
+            buffer.putShort((short) bytes.length).put(bytes);
+        }
+
+        /**
+         * Writes out what is left in the buffer.
+         *
+         * @return The total length of the body.
+         * @throws IOException If the buffer cannot be written.
+         */
+        private long finish() throws IOException {
+            drain();
+            return length;
+        }
+
+        /**
+         * Writes the buffer to the file and adds it to the checksum.
+         *
+         * @throws IOException If the buffer cannot be written.
+         */
+        private void drain() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                int n = channel.write(buffer, position);
+                position += n;
+                length += n;
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Main testbed method: measures writing and loading a snapshot of 1,000,000 appointments.
+     *
+     * @param args Command-line arguments (not used).
+     * @throws IOException If the benchmark snapshot cannot be written or read.
+     */
+    public static void main(String[] args) throws IOException {
+        int count = 1_000_000;
+        List<Appointment> appointments = SampleAppointments.random(count, new Random(21));
+        ProviderRegistry registry = new ProviderRegistry();
+        for (Appointment appointment : appointments) {
+            if (registry.idOf(appointment.getProvider()) < 0) {
+                registry.add((Provider) appointment.getProvider());
+            }
+        }
+        Path file = Files.createTempFile("snapshot-bench", ".bin");
+        try {
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                write(file, registry, appointments, 0, 0, 0);
+                double writeMs = (System.nanoTime() - start) / 1e6;
+                start = System.nanoTime();
+                ClinicSnapshot snapshot = load(file, registry);
+                double loadMs = (System.nanoTime() - start) / 1e6;
+                System.out.printf("%,d appointments, %,d bytes: write %.0f ms, load %.0f ms%n",
+                        snapshot.getAppointments().size(), Files.size(file), writeMs, loadMs);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the ClinicSnapshot class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class ClinicSnapshotTest {
+    private final Doctor doctor = new Doctor(new Profile("John", "Doe", new Date(1970, 1, 1)), Location.BRIDGEWATER, Specialty.FAMILY, "01");
+    private final Technician technician = new Technician(new Profile("Jane", "Smith", new Date(1980, 3, 15)), Location.EDISON, 125);
+
+    /**
+     * Creates a registry holding the test providers.
+     *
+     * @return The registry.
+     */
+    private ProviderRegistry registry() {
+        ProviderRegistry registry = new ProviderRegistry();
+        registry.add(doctor);
+        registry.add(technician);
+        return registry;
+    }
+
+    /**
+     * Creates a registry holding the test providers and enough other technicians to reach a size.
+     *
+     * @param size The number of providers.
+     * @return The registry.
+     */
+    private ProviderRegistry registry(int size) {
+        ProviderRegistry registry = registry();
+        for (int i = registry.size(); i < size; i++) {
+            registry.add(new Technician(new Profile("Tech", "Number" + i, new Date(1980, 1, 1)), Location.CLARK, 100));
+        }
+        return registry;
+    }
+
+    /**
+     * Creates a few appointments for two patients.
+     *
+     * @return The appointments.
+     */
+    private List<Appointment> appointments() {
+        Person patient = new Person(new Profile("Varun", "Bondugula", new Date(1989, 12, 13)));
+        Person other = new Person(new Profile("Sinan", "Merchant", new Date(1990, 6, 1)));
+        List<Appointment> appointments = new List<>();
+        appointments.add(new Appointment(new Date(2024, 10, 30), Timeslot.getTimeslot(1), patient, doctor));
+        appointments.add(new Imaging(new Date(2024, 10, 31), Timeslot.getTimeslot(12), other, technician, Radiology.ULTRASOUND));
+        appointments.add(new Appointment(new Date(2024, 11, 4), Timeslot.getTimeslot(6), patient, doctor));
+        return appointments;
+    }
+
+    /**
+     * Test case for a snapshot loading back the state it was written with.
+     */
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path file = Files.createTempFile("snapshot-test", ".bin");
+        try {
+            List<Appointment> appointments = appointments();
+            ClinicSnapshot.write(file, registry(), appointments, 1, 42, 1234);
+            ClinicSnapshot snapshot = ClinicSnapshot.load(file, registry());
+
+            assertEquals(1, snapshot.getRotationCursor());
+            assertEquals(42, snapshot.getJournalId());
+            assertEquals(1234, snapshot.getJournalOffset());
+            assertEquals(appointments.size(), snapshot.getAppointments().size());
+            for (int i = 0; i < appointments.size(); i++) {
+                assertEquals(appointments.get(i).toString(), snapshot.getAppointments().get(i).toString());
+            }
+            assertTrue(snapshot.getAppointments().get(1) instanceof Imaging);
+            assertSame(snapshot.getAppointments().get(0).getPatient(), snapshot.getAppointments().get(2).getPatient());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test case for provider ids beyond 16 bits surviving a round trip.
+     */
+    @Test
+    public void testLargeRoster() throws IOException {
+        Path file = Files.createTempFile("snapshot-test", ".bin");
+        try {
+            ProviderRegistry registry = registry(70_000);
+            Provider provider = registry.getProvider(66_000);
+            Person patient = new Person(new Profile("Varun", "Bondugula", new Date(1989, 12, 13)));
+            List<Appointment> appointments = new List<>();
+            appointments.add(new Imaging(new Date(2024, 10, 31), Timeslot.getTimeslot(3), patient, provider, Radiology.XRAY));
+            ClinicSnapshot.write(file, registry, appointments, 0, 0, 0);
+
+            ClinicSnapshot snapshot = ClinicSnapshot.load(file, registry);
+            assertSame(provider, snapshot.getAppointments().get(0).getProvider());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test case for a damaged snapshot being rejected by its checksum.
+     */
+    @Test
+    public void testChecksumDetectsDamage() throws IOException {
+        Path file = Files.createTempFile("snapshot-test", ".bin");
+        try {
+            ClinicSnapshot.write(file, registry(), appointments(), 0, 0, 0);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer one = ByteBuffer.allocate(1);
+                channel.read(one, channel.size() - 2);
+                one.flip();
+                one.put(0, (byte) (one.get(0) ^ 1));
+                channel.write(one, channel.size() - 2);
+            }
+            try {
+                ClinicSnapshot.load(file, registry());
+                fail("Expected the checksum to fail");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("checksum"));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test case for journal records before a snapshot's checkpoint being skipped on replay.
+     */
+    @Test
+    public void testJournalReplaysOnlyAfterCheckpoint() throws IOException {
+        Path file = Files.createTempFile("journal-test", ".bin");
+        Files.delete(file);
+        try {
+            List<Appointment> appointments = appointments();
+            AppointmentJournal journal = AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.EVERY_OP, 1, 0, null);
+            journal.scheduled(appointments.get(0));
+            journal.scheduled(appointments.get(1));
+            long id = journal.getId();
+            long offset = journal.getEndOffset();
+            journal.scheduled(appointments.get(2));
+            journal.close();
+
+            List<Appointment> replayed = new List<>();
+            AppointmentJournal.open(file, registry(), AppointmentJournal.SyncPolicy.EVERY_OP, 1, 0, id, offset,
+                    new AppointmentJournal.Listener() {
+                        @Override
+                        public void scheduled(Appointment appointment) {
+                            replayed.add(appointment);
+                        }
+
+                        @Override
+                        public void cancelled(Date date, Timeslot timeslot, Profile patient) {
+                        }
+
+                        @Override
+                        public void rescheduled(Date date, Timeslot timeslot, Profile patient, Appointment appointment) {
+                        }
+                    }).close();
+            assertEquals(1, replayed.size());
+            assertEquals(appointments.get(2).toString(), replayed.get(0).toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
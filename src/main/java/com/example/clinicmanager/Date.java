@@ -1,17 +1,20 @@
 package com.example.clinicmanager;
 
+import java.time.Clock;
 import java.time.LocalDate;
-import java.util.Calendar;
 
 /**
  * Represents a specific date, including year, month, and day with validation methods
+ * Each date also carries its epoch day, so calendar checks are plain integer arithmetic
+ * against bounds for "today" that are computed once per day from an injectable clock.
  *
  * @author Varun Bondugula, Sinan Merchant
  */
 public class Date implements Comparable<Date> {
-    private int year;
-    private int month;
-    private int day;
+    private final int year;
+    private final int month;
+    private final int day;
+    private final int epochDay; // Days since 01/01/1970
 
     public static final int QUADRENNIAL = 4;
     public static final int CENTENNIAL = 100;
@@ -36,6 +39,16 @@ public class Date implements Comparable<Date> {
     public static final int DAYS_IN_FEBRUARY_NON_LEAP_YEAR = 28;
     public static final int DAYS_IN_FEBRUARY_LEAP_YEAR = 29;
 
+    private static final int DAYS_PER_ERA = 146097;          // Days in a 400 year Gregorian cycle
+    private static final int DAYS_FROM_ERA_TO_EPOCH = 719468; // Days from 03/01/0000 to 01/01/1970
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int EPOCH_DAY_OF_WEEK = 3;           // 01/01/1970 was a Thursday, Monday = 0
+    private static final int SATURDAY = 5;
+    private static final int SIX_MONTHS = 6;
+
+    private static volatile Clock clock = Clock.systemDefaultZone();
+    private static volatile Bounds bounds = new Bounds(clock);
+
     /**
      * Constructor to create an instance of the Date class.
      *
@@ -47,6 +60,7 @@ public class Date implements Comparable<Date> {
         this.year = year;
         this.month = month;
         this.day = day;
+        this.epochDay = computeEpochDay(year, month, day);
     }
 
     /**
@@ -80,6 +94,53 @@ public class Date implements Comparable<Date> {
         return false;
     }
 
+    /**
+     * Converts the date to the number of days since 01/01/1970 using proleptic Gregorian arithmetic.
+     * Valid dates keep the same order as compareTo.
+     *
+     * @return the epoch day of the date
+     */
+    public int toEpochDay() {
+        return epochDay;
+    }
+
+    /**
+     * Computes the number of days since 01/01/1970 using proleptic Gregorian arithmetic.
+     *
+     * @param year the year of the date
+     * @param month the month of the date
+     * @param day the day of the date
+     * @return the epoch day of the date
+     */
+    private static int computeEpochDay(int year, int month, int day) {
+        int y = month <= FEBRUARY ? year - 1 : year;
+        int era = (y >= 0 ? y : y - (QUATERCENTENNIAL - 1)) / QUATERCENTENNIAL;
+        int yearOfEra = y - era * QUATERCENTENNIAL;
+        int dayOfYear = (153 * ((month + 9) % 12) + 2) / 5 + day - 1; // Years start in March
+        int dayOfEra = yearOfEra * 365 + yearOfEra / QUADRENNIAL - yearOfEra / CENTENNIAL + dayOfYear;
+        return era * DAYS_PER_ERA + dayOfEra - DAYS_FROM_ERA_TO_EPOCH;
+    }
+
+    /**
+     * Creates the date that is a number of days after 01/01/1970 using proleptic Gregorian arithmetic.
+     * This is the inverse of toEpochDay.
+     *
+     * @param epochDay the number of days since 01/01/1970
+     * @return the date with that epoch day
+     */
+    public static Date ofEpochDay(int epochDay) {
+        int z = epochDay + DAYS_FROM_ERA_TO_EPOCH;
+        int era = (z >= 0 ? z : z - (DAYS_PER_ERA - 1)) / DAYS_PER_ERA;
+        int dayOfEra = z - era * DAYS_PER_ERA;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / (DAYS_PER_ERA - 1)) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / QUADRENNIAL - yearOfEra / CENTENNIAL);
+        int shiftedMonth = (5 * dayOfYear + 2) / 153; // Months counted from March
+        int day = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+        int month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        int year = yearOfEra + era * QUATERCENTENNIAL;
+        return new Date(month <= FEBRUARY ? year + 1 : year, month, day);
+    }
+
     /**
      * Creates a Date instance from a LocalDate.
      *
@@ -96,11 +157,7 @@ public class Date implements Comparable<Date> {
      * @return true if the date is today or in the past; false otherwise
      */
     public boolean isTodayOrBefore() {
-        Calendar today = Calendar.getInstance();
-        Calendar date = Calendar.getInstance();
-        date.set(year, month - 1, day); // Set the date to the appointment date
-
-        return !date.after(today); // Return true if the date is today or in the past
+        return epochDay <= currentBounds().today;
     }
 
     /**
@@ -109,11 +166,7 @@ public class Date implements Comparable<Date> {
      * @return true if the date is today or in the future; false otherwise
      */
     public boolean isTodayOrAfter() {
-        Calendar today = Calendar.getInstance();
-        Calendar date = Calendar.getInstance();
-        date.set(year, month - 1, day);
-
-        return !date.before(today);
+        return epochDay >= currentBounds().today;
     }
 
     /**
@@ -122,27 +175,52 @@ public class Date implements Comparable<Date> {
      * @return true if the date falls on a weekend; false otherwise
      */
     public boolean isWeekend() {
-        Calendar date = Calendar.getInstance();
-        date.set(year, month - 1, day); // Set the date to the appointment date
-
-        int dayOfWeek = date.get(Calendar.DAY_OF_WEEK); // Get the day of the week
-        return dayOfWeek == Calendar.SATURDAY || dayOfWeek == Calendar.SUNDAY; // Return true if Saturday or Sunday
+        int dayOfWeek = Math.floorMod(epochDay + EPOCH_DAY_OF_WEEK, DAYS_PER_WEEK);
+        return dayOfWeek >= SATURDAY; // Saturday or Sunday
     }
 
     /**
      * Checks if the date is within six months from today
      *
-     * @return true if the date is within six months from today; false otherwise
+     * @return true if the date is after today and before the same day six months from now; false otherwise
      */
     public boolean isWithinSixMonths() {
-        Calendar today = Calendar.getInstance();
-        Calendar sixMonthsFromNow = Calendar.getInstance();
-        sixMonthsFromNow.add(Calendar.MONTH, 6); // Add 6 months to today's date
+        Bounds current = currentBounds();
+        return epochDay > current.today && epochDay < current.sixMonthsFromToday;
+    }
 
-        Calendar date = Calendar.getInstance();
-        date.set(year, month - 1, day); // Set the date to the appointment date
+    /**
+     * Sets the clock that decides what "today" is, for example a fixed clock in tests.
+     *
+     * @param newClock the clock to use from now on
+     */
+    public static void setClock(Clock newClock) {
+        clock = newClock;
+        bounds = new Bounds(newClock);
+    }
+
+    /**
+     * Returns the epoch day of today according to the clock.
+     *
+     * @return the epoch day of today
+     */
+    public static int todayEpochDay() {
+        return currentBounds().today;
+    }
 
-        return date.after(today) && date.before(sixMonthsFromNow); // Check if date is within 6 months from today
+    /**
+     * Returns the cached bounds for today, recomputing them once the clock passes midnight.
+     *
+     * @return the bounds for the current day
+     */
+    private static Bounds currentBounds() {
+        Bounds current = bounds;
+        Clock currentClock = clock;
+        if (current.clock != currentClock || currentClock.millis() >= current.nextMidnightMillis) {
+            current = new Bounds(currentClock);
+            bounds = current;
+        }
+        return current;
     }
 
     /**
@@ -191,6 +269,16 @@ public class Date implements Comparable<Date> {
         return this.year == other.year && this.month == other.month && this.day == other.day;
     }
 
+    /**
+     * Returns a hash code consistent with equals.
+     *
+     * @return the hash code of the date
+     */
+    @Override
+    public int hashCode() {
+        return (year * 13 + month) * 32 + day;
+    }
+
     /**
      * Generates a string representation of the date in MM/DD/YYYY format.
      *
@@ -201,6 +289,29 @@ public class Date implements Comparable<Date> {
         return String.format("%02d/%02d/%d", month, day, year);
     }
 
+    /**
+     * The epoch days of today and of six months from today, valid until the next midnight.
+     */
+    private static final class Bounds {
+        private final Clock clock;
+        private final int today;
+        private final int sixMonthsFromToday;
+        private final long nextMidnightMillis;
+
+        /**
+         * Computes the bounds for the current day of a clock.
+         *
+         * @param clock the clock to read
+         */
+        Bounds(Clock clock) {
+            LocalDate now = LocalDate.now(clock);
+            this.clock = clock;
+            this.today = (int) now.toEpochDay();
+            this.sixMonthsFromToday = (int) now.plusMonths(SIX_MONTHS).toEpochDay();
+            this.nextMidnightMillis = now.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        }
+    }
+
     /**
      * Main testbed method for testing the Date class.
      *
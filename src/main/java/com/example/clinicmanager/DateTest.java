@@ -2,6 +2,10 @@ package com.example.clinicmanager;
 
 import org.junit.Test;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
 import static org.junit.Assert.*;
 
 /**
@@ -83,4 +87,55 @@ public class DateTest {
         assertFalse(invalidFebruaryDate.isValid());
     }
 
-}
\ No newline at end of file
+    /**
+     * Test case for converting dates to epoch days.
+     */
+    @Test
+    public void testToEpochDay() {
+        assertEquals(0, new Date(1970, 1, 1).toEpochDay());
+        assertEquals(19782, new Date(2024, 2, 29).toEpochDay());
+        assertEquals(-1, new Date(1969, 12, 31).toEpochDay());
+    }
+
+    /**
+     * Test case for converting an epoch day back to a date.
+     */
+    @Test
+    public void testOfEpochDay() {
+        assertEquals(new Date(1970, 1, 1), Date.ofEpochDay(0));
+        assertEquals(new Date(2024, 2, 29), Date.ofEpochDay(19782));
+        assertEquals(new Date(1969, 12, 31), Date.ofEpochDay(-1));
+        for (int day = -40000; day <= 40000; day += 7) {
+            assertEquals(day, Date.ofEpochDay(day).toEpochDay());
+        }
+    }
+
+    /**
+     * Test case for weekend detection.
+     */
+    @Test
+    public void testIsWeekend() {
+        assertTrue(new Date(2024, 10, 26).isWeekend());  // Saturday
+        assertTrue(new Date(2024, 10, 27).isWeekend());  // Sunday
+        assertFalse(new Date(2024, 10, 28).isWeekend()); // Monday
+        assertFalse(new Date(2024, 11, 1).isWeekend());  // Friday
+    }
+
+    /**
+     * Test case for the checks against today using a fixed clock.
+     */
+    @Test
+    public void testTodayChecksWithFixedClock() {
+        Date.setClock(Clock.fixed(Instant.parse("2024-10-15T12:00:00Z"), ZoneOffset.UTC));
+        try {
+            assertTrue(new Date(2024, 10, 15).isTodayOrBefore());
+            assertTrue(new Date(2024, 10, 15).isTodayOrAfter());
+            assertFalse(new Date(2024, 10, 15).isWithinSixMonths());
+            assertTrue(new Date(2024, 10, 16).isWithinSixMonths());
+            assertTrue(new Date(2025, 4, 14).isWithinSixMonths());
+            assertFalse(new Date(2025, 4, 15).isWithinSixMonths());
+        } finally {
+            Date.setClock(Clock.systemDefaultZone());
+        }
+    }
+}
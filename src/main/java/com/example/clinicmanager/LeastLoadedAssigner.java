@@ -0,0 +1,416 @@
+package com.example.clinicmanager;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * Assigns imaging appointments to the least-loaded technician instead of the next one in rotation.
+ * For every location and day a min-heap orders the technicians at that location by the number of
+ * slots booked that day, then by the cumulative rate() cost of those slots, then by rotation order.
+ * The heaps are updated in O(log n) whenever an imaging appointment is booked or released,
+ * and the heaps of days that have gone by are dropped with pruneBefore().
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class LeastLoadedAssigner implements TechnicianAssigner {
+    private final EnumMap<Location, List<Technician>> techniciansByLocation;
+    private final HashMap<Technician, Integer> localIndex; // Position of each technician at their location
+    private final HashMap<Long, DayHeap> heaps;            // Keyed by location ordinal and epoch day
+    private final OccupancyCalendar<? super Technician> calendar;
+    private final RoomSchedule rooms;
+
+    /**
+     * Constructor to create an assigner over a list of technicians.
+     *
+     * @param technicians The technicians in rotation order, which breaks ties between equal loads.
+     * @param calendar The calendar holding the booked timeslots of each technician.
+     * @param rooms The schedule of the imaging rooms.
+     */
+    public LeastLoadedAssigner(List<Technician> technicians, OccupancyCalendar<? super Technician> calendar,
+                               RoomSchedule rooms) {
+        this.techniciansByLocation = new EnumMap<>(Location.class);
+        this.localIndex = new HashMap<>();
+        this.heaps = new HashMap<>();
+        this.calendar = calendar;
+        this.rooms = rooms;
+        for (Technician technician : technicians) {
+            List<Technician> atLocation = techniciansByLocation.get(technician.getLocation());
+            if (atLocation == null) {
+                atLocation = new List<>();
+                techniciansByLocation.put(technician.getLocation(), atLocation);
+            }
+            localIndex.put(technician, atLocation.size());
+            atLocation.add(technician);
+        }
+    }
+
+    /**
+     * Chooses the least-loaded technician, across all locations with the room free,
+     * who is free at the date and timeslot.
+     *
+     * @param date The date of the imaging service.
+     * @param timeslot The timeslot of the imaging service.
+     * @param room The radiology room required for the service.
+     * @return The assigned technician, or null if no technician is available.
+     */
+    @Override
+    public Technician assign(Date date, Timeslot timeslot, Radiology room) {
+        DayHeap bestHeap = null;
+        int best = -1;
+        for (Location location : techniciansByLocation.keySet()) {
+            if (!rooms.isAvailable(location, date, room, timeslot)) {
+                continue;
+            }
+            DayHeap heap = heap(location, date.toEpochDay());
+            int candidate = heap.leastLoadedFree(calendar, date, timeslot);
+            if (candidate >= 0 && (bestHeap == null || heap.compareTo(candidate, bestHeap, best) < 0)) {
+                bestHeap = heap;
+                best = candidate;
+            }
+        }
+        return bestHeap == null ? null : bestHeap.technicians.get(best);
+    }
+
+    /**
+     * Adds the slot and rate of an imaging appointment to its technician's load for the day.
+     *
+     * @param appointment The imaging appointment.
+     */
+    @Override
+    public void booked(Imaging appointment) {
+        adjust(appointment, 1);
+    }
+
+    /**
+     * Removes the slot and rate of an imaging appointment from its technician's load for the day.
+     *
+     * @param appointment The imaging appointment.
+     */
+    @Override
+    public void released(Imaging appointment) {
+        adjust(appointment, -1);
+    }
+
+    /**
+     * Returns the number of slots a technician has booked on a date.
+     *
+     * @param technician The technician.
+     * @param date The date.
+     * @return The number of booked slots.
+     */
+    public int getLoad(Technician technician, Date date) {
+        Integer index = localIndex.get(technician);
+        DayHeap heap = heaps.get(heapKey(technician.getLocation(), date.toEpochDay()));
+        return index == null || heap == null ? 0 : heap.count[index];
+    }
+
+    /**
+     * Drops the heaps of the days before a date.
+     * Those days must no longer have imaging appointments on the schedule.
+     *
+     * @param date The first day to keep.
+     */
+    public void pruneBefore(Date date) {
+        int firstDay = date.toEpochDay();
+        Iterator<Long> keys = heaps.keySet().iterator();
+        while (keys.hasNext()) {
+            if ((int) keys.next().longValue() < firstDay) {
+                keys.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of location-days the assigner holds a heap for.
+     *
+     * @return The number of heaps.
+     */
+    public int heapCount() {
+        return heaps.size();
+    }
+
+    /**
+     * Changes the load of the technician of an imaging appointment by one slot.
+     *
+     * @param appointment The imaging appointment.
+     * @param direction 1 to add the slot, -1 to remove it.
+     */
+    private void adjust(Imaging appointment, int direction) {
+        if (!(appointment.getProvider() instanceof Technician)) {
+            return;
+        }
+        Technician technician = (Technician) appointment.getProvider();
+        Integer index = localIndex.get(technician);
+        if (index == null) {
+            return;
+        }
+        DayHeap heap = heap(technician.getLocation(), appointment.getDate().toEpochDay());
+        heap.update(index, direction, (long) direction * technician.rate());
+    }
+
+    /**
+     * Returns the heap of a location and day, creating it with every load at zero on first use.
+     *
+     * @param location The location.
+     * @param epochDay The epoch day.
+     * @return The heap of that location and day.
+     */
+    private DayHeap heap(Location location, int epochDay) {
+        long key = heapKey(location, epochDay);
+        DayHeap heap = heaps.get(key);
+        if (heap == null) {
+            heap = new DayHeap(techniciansByLocation.get(location));
+            heaps.put(key, heap);
+        }
+        return heap;
+    }
+
+    /**
+     * Packs a location and epoch day into a heap key.
+     *
+     * @param location The location.
+     * @param epochDay The epoch day.
+     * @return The heap key.
+     */
+    private static long heapKey(Location location, int epochDay) {
+        return ((long) location.ordinal() << 32) | (epochDay & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Indexed binary min-heap of the technicians at one location on one day.
+     * Technicians are referred to by their position at the location.
+     */
+    private static final class DayHeap {
+        private final List<Technician> technicians;
+        private final int[] count;    // Booked slots of each technician
+        private final long[] cost;    // Cumulative rate of each technician's booked slots
+        private final int[] heap;     // Technician positions in heap order
+        private final int[] position; // Heap index of each technician
+        private final int[] skipped;  // Scratch space for leastLoadedFree
+
+        /**
+         * Constructor to create a heap with every load at zero.
+         *
+         * @param technicians The technicians at the location, in rotation order.
+         */
+        DayHeap(List<Technician> technicians) {
+            int n = technicians.size();
+            this.technicians = technicians;
+            this.count = new int[n];
+            this.cost = new long[n];
+            this.heap = new int[n];
+            this.position = new int[n];
+            this.skipped = new int[n];
+            for (int i = 0; i < n; i++) {
+                heap[i] = i;
+                position[i] = i;
+            }
+        }
+
+        /**
+         * Finds the least-loaded technician who is free at the timeslot.
+         * Busy technicians are popped off the top and pushed back afterwards.
+         *
+         * @param calendar The calendar holding the booked timeslots of each technician.
+         * @param date The date of the imaging service.
+         * @param timeslot The timeslot of the imaging service.
+         * @return The position of the technician, or -1 if every technician is busy.
+         */
+        int leastLoadedFree(OccupancyCalendar<? super Technician> calendar, Date date, Timeslot timeslot) {
+            int size = heap.length;
+            int popped = 0;
+            int found = -1;
+            while (size > 0) {
+                int top = heap[0];
+                if (!calendar.isBooked(technicians.get(top), date, timeslot)) {
+                    found = top;
+                    break;
+                }
+                skipped[popped++] = top;
+                swap(0, --size);
+                siftDown(0, size);
+            }
+            for (int i = popped - 1; i >= 0; i--) {
+                siftUp(position[skipped[i]]);
+            }
+            return found;
+        }
+
+        /**
+         * Changes the load of a technician and restores the heap order.
+         *
+         * @param technician The position of the technician.
+         * @param slots The change in booked slots.
+         * @param rate The change in cumulative rate.
+         */
+        void update(int technician, int slots, long rate) {
+            count[technician] += slots;
+            cost[technician] += rate;
+            int index = position[technician];
+            siftUp(index);
+            siftDown(position[technician], heap.length);
+        }
+
+        /**
+         * Compares the load of a technician in this heap to the load of a technician in another heap.
+         *
+         * @param technician The position of the technician in this heap.
+         * @param other The other heap.
+         * @param otherTechnician The position of the technician in the other heap.
+         * @return A negative value if this technician is less loaded, positive if more, zero if equal.
+         */
+        int compareTo(int technician, DayHeap other, int otherTechnician) {
+            int byCount = Integer.compare(count[technician], other.count[otherTechnician]);
+            return byCount != 0 ? byCount : Long.compare(cost[technician], other.cost[otherTechnician]);
+        }
+
+        /**
+         * Checks if one technician is less loaded than another, using rotation order to break ties.
+         *
+         * @param a The position of the first technician.
+         * @param b The position of the second technician.
+         * @return True if the first technician should be nearer the top of the heap.
+         */
+        private boolean less(int a, int b) {
+            if (count[a] != count[b]) {
+                return count[a] < count[b];
+            }
+            if (cost[a] != cost[b]) {
+                return cost[a] < cost[b];
+            }
+            return a < b;
+        }
+
+        /**
+         * Moves the entry at a heap index up until its parent is less loaded.
+         *
+         * @param index The heap index.
+         */
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!less(heap[index], heap[parent])) {
+                    break;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        /**
+         * Moves the entry at a heap index down until both children are more loaded.
+         *
+         * @param index The heap index.
+         * @param size The number of entries that are currently part of the heap.
+         */
+        private void siftDown(int index, int size) {
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && less(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!less(heap[child], heap[index])) {
+                    break;
+                }
+                swap(index, child);
+                index = child;
+            }
+        }
+
+        /**
+         * Swaps two heap entries and updates their positions.
+         *
+         * @param i The first heap index.
+         * @param j The second heap index.
+         */
+        private void swap(int i, int j) {
+            int a = heap[i];
+            int b = heap[j];
+            heap[i] = b;
+            heap[j] = a;
+            position[b] = i;
+            position[a] = j;
+        }
+    }
+
+    /**
+     * Benchmarks assignment latency and load skew of the least-loaded strategy against the rotation.
+     * Skew is the gap between the busiest and the least busy technician of a location on a day,
+     * averaged over every location and day, and the same gap over the whole run.
+     *
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        int technicianCount = 36;
+        int requests = 100_000;
+        Location[] locations = Location.values();
+        List<Technician> technicians = new List<>(technicianCount);
+        Random random = new Random(42);
+        for (int i = 0; i < technicianCount; i++) {
+            Profile profile = new Profile("Tech" + i, "Imaging", new Date(1980, 1 + i % 12, 1 + i % 28));
+            technicians.add(new Technician(profile, locations[i % locations.length], 100 + random.nextInt(60)));
+        }
+
+        for (String strategy : new String[]{"rotation", "least loaded"}) {
+            OccupancyCalendar<Person> calendar = new OccupancyCalendar<>();
+            RoomSchedule rooms = new RoomSchedule();
+            TechnicianAssigner assigner = strategy.equals("rotation")
+                    ? new TechnicianRotation(technicians, calendar, rooms)
+                    : new LeastLoadedAssigner(technicians, calendar, rooms);
+            HashMap<Technician, Integer> totals = new HashMap<>();
+            Random requestRandom = new Random(7);
+            long assignNanos = 0;
+            int assigned = 0;
+            for (int i = 0; i < requests; i++) {
+                Date date = new Date(2025, 1 + requestRandom.nextInt(6), 1 + requestRandom.nextInt(28));
+                Timeslot timeslot = Timeslot.fromOrdinal(requestRandom.nextInt(Timeslot.COUNT));
+                Radiology room = Radiology.values()[requestRandom.nextInt(Radiology.values().length)];
+                long start = System.nanoTime();
+                Technician technician = assigner.assign(date, timeslot, room);
+                assignNanos += System.nanoTime() - start;
+                if (technician == null) {
+                    continue;
+                }
+                calendar.book(technician, date, timeslot);
+                rooms.book(technician.getLocation(), date, room, timeslot);
+                assigner.booked(new Imaging(date, timeslot, new Person(technician.getProfile()), technician, room));
+                totals.merge(technician, 1, Integer::sum);
+                assigned++;
+            }
+
+            long daySkew = 0;
+            int locationDays = 0;
+            for (int month = 1; month <= 6; month++) {
+                for (int day = 1; day <= 28; day++) {
+                    Date date = new Date(2025, month, day);
+                    for (Location location : locations) {
+                        int min = Integer.MAX_VALUE;
+                        int max = 0;
+                        for (Technician technician : technicians) {
+                            if (technician.getLocation() == location) {
+                                int load = calendar.bookedCount(technician, date);
+                                min = Math.min(min, load);
+                                max = Math.max(max, load);
+                            }
+                        }
+                        daySkew += max - min;
+                        locationDays++;
+                    }
+                }
+            }
+            int minTotal = Integer.MAX_VALUE;
+            int maxTotal = 0;
+            for (Technician technician : technicians) {
+                minTotal = Math.min(minTotal, totals.getOrDefault(technician, 0));
+                maxTotal = Math.max(maxTotal, totals.getOrDefault(technician, 0));
+            }
+            System.out.printf("%-12s assigned=%,d avg latency=%.0f ns avg daily skew=%.2f slots total slots/tech min=%d max=%d%n",
+                    strategy, assigned, (double) assignNanos / requests, (double) daySkew / locationDays, minTotal, maxTotal);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the least-loaded technician assignment in the LeastLoadedAssigner class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class LeastLoadedAssignerTest {
+
+    /**
+     * Test case for each booking going to the technician with the fewest slots that day.
+     */
+    @Test
+    public void testAssignsLeastLoadedTechnician() {
+        Technician first = new Technician(new Profile("Gary", "Johnson", new Date(1987, 11, 14)), Location.PISCATAWAY, 110);
+        Technician second = new Technician(new Profile("Ben", "Jerry", new Date(1987, 9, 28)), Location.PISCATAWAY, 150);
+        List<Technician> technicians = new List<>();
+        technicians.add(first);
+        technicians.add(second);
+        OccupancyCalendar<Person> calendar = new OccupancyCalendar<>();
+        RoomSchedule rooms = new RoomSchedule();
+        LeastLoadedAssigner assigner = new LeastLoadedAssigner(technicians, calendar, rooms);
+        Date date = new Date(2025, 3, 4);
+
+        Technician[] assigned = new Technician[4];
+        for (int i = 0; i < assigned.length; i++) {
+            Timeslot timeslot = Timeslot.getTimeslot(i + 1);
+            assigned[i] = assigner.assign(date, timeslot, Radiology.XRAY);
+            calendar.book(assigned[i], date, timeslot);
+            rooms.book(assigned[i].getLocation(), date, Radiology.XRAY, timeslot);
+            assigner.booked(new Imaging(date, timeslot, new Person(assigned[i].getProfile()), assigned[i], Radiology.XRAY));
+        }
+        assertSame(first, assigned[0]);
+        assertSame(second, assigned[1]);
+        assertSame(first, assigned[2]);
+        assertEquals(2, assigner.getLoad(first, date));
+        assertEquals(2, assigner.getLoad(second, date));
+    }
+
+    /**
+     * Test case for no technician being assigned when the room is already booked.
+     */
+    @Test
+    public void testNoTechnicianWhenRoomBooked() {
+        List<Technician> technicians = new List<>();
+        technicians.add(new Technician(new Profile("Frank", "Lin", new Date(1999, 6, 24)), Location.PISCATAWAY, 120));
+        OccupancyCalendar<Person> calendar = new OccupancyCalendar<>();
+        RoomSchedule rooms = new RoomSchedule();
+        Date date = new Date(2025, 3, 4);
+        rooms.book(Location.PISCATAWAY, date, Radiology.CATSCAN, Timeslot.getTimeslot(1));
+
+        LeastLoadedAssigner assigner = new LeastLoadedAssigner(technicians, calendar, rooms);
+        assertNull(assigner.assign(date, Timeslot.getTimeslot(1), Radiology.CATSCAN));
+        assertNotNull(assigner.assign(date, Timeslot.getTimeslot(2), Radiology.CATSCAN));
+    }
+
+    /**
+     * Test case for the heaps of the days before a date being dropped.
+     */
+    @Test
+    public void testPruneBefore() {
+        Technician technician = new Technician(new Profile("Frank", "Lin", new Date(1999, 6, 24)), Location.PISCATAWAY, 120);
+        List<Technician> technicians = new List<>();
+        technicians.add(technician);
+        LeastLoadedAssigner assigner = new LeastLoadedAssigner(technicians, new OccupancyCalendar<>(), new RoomSchedule());
+        Date monday = new Date(2025, 3, 3);
+        Date tuesday = new Date(2025, 3, 4);
+        assigner.booked(new Imaging(monday, Timeslot.getTimeslot(1), new Person(technician.getProfile()), technician, Radiology.XRAY));
+        assigner.booked(new Imaging(tuesday, Timeslot.getTimeslot(1), new Person(technician.getProfile()), technician, Radiology.XRAY));
+        assertEquals(2, assigner.heapCount());
+
+        assigner.pruneBefore(tuesday);
+        assertEquals(1, assigner.heapCount());
+        assertEquals(0, assigner.getLoad(technician, monday));
+        assertEquals(1, assigner.getLoad(technician, tuesday));
+    }
+}
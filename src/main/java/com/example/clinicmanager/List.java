@@ -13,15 +13,28 @@ public class List<E> implements Iterable<E> {
     private E[] objects;
     private int size; // Number of elements in the list
     private static final int INITIAL_CAPACITY = 4;
-    private static final int INCREASE_SIZE = 4;
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8; // Some VMs reserve header words in arrays
     private static final int NOT_FOUND = -1;
 
     /**
      * Default constructor that initializes the list with an initial capacity of 4.
      */
-    @SuppressWarnings("unchecked")
     public List() {
-        objects = (E[]) new Object[INITIAL_CAPACITY];
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructor that presizes the list so that the first {@code capacity} adds never resize it.
+     *
+     * @param capacity The initial capacity of the list.
+     * @throws IllegalArgumentException if the capacity is negative.
+     */
+    @SuppressWarnings("unchecked")
+    public List(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        objects = (E[]) new Object[capacity];
         size = 0;
     }
 
@@ -42,16 +55,58 @@ public class List<E> implements Iterable<E> {
 
     /**
      * Grows the list when it reaches full capacity.
+     * The capacity grows by half of its current length so a run of n adds costs O(n) copies in total.
      */
-    @SuppressWarnings("unchecked")
     private void grow() {
-        E[] newObjects = (E[]) new Object[objects.length + INCREASE_SIZE];
-        for (int i = 0; i < size; i++) {
-            newObjects[i] = objects[i];
+        grow(size + 1);
+    }
+
+    /**
+     * Grows the backing array so that it can hold at least the given number of elements.
+     *
+     * @param minCapacity The minimum number of elements the list must be able to hold.
+     */
+    @SuppressWarnings("unchecked")
+    private void grow(int minCapacity) {
+        if (minCapacity < 0 || minCapacity > MAX_CAPACITY) {
+            throw new OutOfMemoryError("Required list capacity too large");
+        }
+        int oldCapacity = objects.length;
+        int newCapacity = oldCapacity + (oldCapacity >> 1);
+        if (newCapacity < minCapacity) {
+            newCapacity = Math.max(minCapacity, INITIAL_CAPACITY);
+        }
+        if (newCapacity < 0 || newCapacity > MAX_CAPACITY) {
+            newCapacity = MAX_CAPACITY;
         }
+        E[] newObjects = (E[]) new Object[newCapacity];
+        System.arraycopy(objects, 0, newObjects, 0, size);
         objects = newObjects;
     }
 
+    /**
+     * Makes sure the list can hold at least the given number of elements without resizing.
+     *
+     * @param minCapacity The desired minimum capacity.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > objects.length) {
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * Shrinks the backing array to the current size of the list.
+     */
+    @SuppressWarnings("unchecked")
+    public void trimToSize() {
+        if (size < objects.length) {
+            E[] newObjects = (E[]) new Object[size];
+            System.arraycopy(objects, 0, newObjects, 0, size);
+            objects = newObjects;
+        }
+    }
+
     /**
      * Checks if the list contains a specific element.
      *
@@ -75,6 +130,21 @@ public class List<E> implements Iterable<E> {
         size++;
     }
 
+    /**
+     * Adds every element of another list to the end of this list, resizing at most once.
+     *
+     * @param other The list whose elements are to be added.
+     */
+    public void addAll(List<? extends E> other) {
+        int count = other.size;
+        if (count == 0) {
+            return;
+        }
+        ensureCapacity(size + count);
+        System.arraycopy(other.objects, 0, objects, size, count);
+        size += count;
+    }
+
     /**
      * Removes a specified element from the list and shifts the remaining elements.
      *
@@ -83,14 +153,38 @@ public class List<E> implements Iterable<E> {
     public void remove(E e) {
         int index = find(e);
         if (index != NOT_FOUND) {
-            for (int i = index; i < size - 1; i++) {
-                objects[i] = objects[i + 1];
-            }
-            objects[size - 1] = null;
-            size--;
+            fastRemove(index);
         }
     }
 
+    /**
+     * Removes the element at the specified index and shifts the remaining elements.
+     *
+     * @param index The index of the element to remove.
+     * @return The element that was removed.
+     */
+    public E removeAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        E removed = objects[index];
+        fastRemove(index);
+        return removed;
+    }
+
+    /**
+     * Removes the element at a known valid index by shifting the tail down one slot.
+     *
+     * @param index The index of the element to remove.
+     */
+    private void fastRemove(int index) {
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(objects, index + 1, objects, index, moved);
+        }
+        objects[--size] = null;
+    }
+
     /**
      * Checks if the list is empty.
      *
@@ -146,6 +240,16 @@ public class List<E> implements Iterable<E> {
         return find(e);
     }
 
+    /**
+     * Returns the backing array of the list so that Sort can reorder it in place.
+     * Only the first {@link #size()} slots hold elements.
+     *
+     * @return The backing array of the list.
+     */
+    Object[] elements() {
+        return objects;
+    }
+
     /**
      * Returns an iterator to iterate through the list.
      *
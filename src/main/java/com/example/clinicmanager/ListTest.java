@@ -68,4 +68,45 @@ public class ListTest {
         assertFalse(providerList.contains(technician));
         assertEquals(0, providerList.size());
     }
+
+    /**
+     * Test case for growing a list well past its initial capacity.
+     */
+    @Test
+    public void testAddBeyondInitialCapacity() {
+        List<Integer> list = new List<>();
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+        }
+        assertEquals(1000, list.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), list.get(i));
+        }
+    }
+
+    /**
+     * Test case for appending one list to another and removing by index.
+     */
+    @Test
+    public void testAddAllAndRemoveAt() {
+        List<Integer> first = new List<>(2);
+        first.add(1);
+        first.add(2);
+        List<Integer> second = new List<>();
+        second.add(3);
+        second.add(4);
+
+        first.addAll(second);
+        assertEquals(4, first.size());
+        assertEquals(Integer.valueOf(3), first.get(2));
+
+        assertEquals(Integer.valueOf(2), first.removeAt(1));
+        assertEquals(3, first.size());
+        assertEquals(Integer.valueOf(3), first.get(1));
+        assertEquals(Integer.valueOf(4), first.get(2));
+
+        first.trimToSize();
+        first.add(5);
+        assertEquals(4, first.size());
+    }
 }
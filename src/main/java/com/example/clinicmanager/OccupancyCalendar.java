@@ -0,0 +1,313 @@
+package com.example.clinicmanager;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Occupancy calendar that records, for each resource (such as a provider) and each day,
+ * which of the 12 timeslots are booked. A resource-day is a single 12-bit mask, so checking
+ * a slot, booking it, or listing the free slots of a day is one bit operation.
+ * Masks are kept in an open-addressing hash table keyed by resource id and epoch day.
+ * Days that have gone by are dropped with pruneBefore(), so the table only covers the booking window.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ *
+ * @param <R> The type of resource being booked.
+ */
+public class OccupancyCalendar<R> {
+    public static final int FULL_DAY = (1 << Timeslot.COUNT) - 1; // Every timeslot booked
+
+    private static final long EMPTY = -1L;
+    private static final int INITIAL_CAPACITY = 64; // Must be a power of two
+    private static final int MAX_LOAD_PERCENT = 60;
+
+    private final HashMap<R, Integer> ids; // Dense id of each resource seen so far
+    private long[] keys;
+    private short[] masks;
+    private int used; // Number of occupied table entries
+
+    /**
+     * Constructor to create an empty calendar.
+     */
+    public OccupancyCalendar() {
+        ids = new HashMap<>();
+        keys = new long[INITIAL_CAPACITY];
+        masks = new short[INITIAL_CAPACITY];
+        Arrays.fill(keys, EMPTY);
+        used = 0;
+    }
+
+    /**
+     * Books a timeslot for a resource on a date.
+     *
+     * @param resource The resource to book.
+     * @param date The date of the booking.
+     * @param timeslot The timeslot of the booking.
+     * @return True if the slot was free and is now booked, false if it was already booked.
+     */
+    public boolean book(R resource, Date date, Timeslot timeslot) {
+        int index = entry(idOf(resource), date.toEpochDay());
+        int bit = 1 << timeslot.ordinal();
+        if ((masks[index] & bit) != 0) {
+            return false;
+        }
+        masks[index] |= (short) bit;
+        return true;
+    }
+
+    /**
+     * Frees a timeslot of a resource on a date.
+     *
+     * @param resource The resource to release.
+     * @param date The date of the booking.
+     * @param timeslot The timeslot of the booking.
+     */
+    public void release(R resource, Date date, Timeslot timeslot) {
+        Integer id = ids.get(resource);
+        if (id == null) {
+            return;
+        }
+        int index = find(id, date.toEpochDay());
+        if (index >= 0) {
+            masks[index] &= (short) ~(1 << timeslot.ordinal());
+        }
+    }
+
+    /**
+     * Checks if a resource is booked at a timeslot on a date.
+     *
+     * @param resource The resource to check.
+     * @param date The date to check.
+     * @param timeslot The timeslot to check.
+     * @return True if the slot is booked, false otherwise.
+     */
+    public boolean isBooked(R resource, Date date, Timeslot timeslot) {
+        return (getMask(resource, date) & (1 << timeslot.ordinal())) != 0;
+    }
+
+    /**
+     * Returns the booked timeslots of a resource on a date as a bitmask.
+     * Bit i is set when the timeslot with ordinal i is booked.
+     *
+     * @param resource The resource to check.
+     * @param date The date to check.
+     * @return The mask of booked timeslots.
+     */
+    public int getMask(R resource, Date date) {
+        Integer id = ids.get(resource);
+        if (id == null) {
+            return 0;
+        }
+        int index = find(id, date.toEpochDay());
+        return index >= 0 ? masks[index] & FULL_DAY : 0;
+    }
+
+    /**
+     * Returns the free timeslots of a resource on a date as a bitmask.
+     *
+     * @param resource The resource to check.
+     * @param date The date to check.
+     * @return The mask of free timeslots.
+     */
+    public int getFreeMask(R resource, Date date) {
+        return ~getMask(resource, date) & FULL_DAY;
+    }
+
+    /**
+     * Lists the free timeslots of a resource on a date, in order.
+     *
+     * @param resource The resource to check.
+     * @param date The date to check.
+     * @return The free timeslots.
+     */
+    public List<Timeslot> freeSlots(R resource, Date date) {
+        int free = getFreeMask(resource, date);
+        List<Timeslot> slots = new List<>(Integer.bitCount(free));
+        while (free != 0) {
+            slots.add(Timeslot.fromOrdinal(Integer.numberOfTrailingZeros(free)));
+            free &= free - 1;
+        }
+        return slots;
+    }
+
+    /**
+     * Returns the number of booked timeslots of a resource on a date.
+     *
+     * @param resource The resource to check.
+     * @param date The date to check.
+     * @return The number of booked timeslots.
+     */
+    public int bookedCount(R resource, Date date) {
+        return Integer.bitCount(getMask(resource, date));
+    }
+
+    /**
+     * Returns the number of resource-days the calendar holds a mask for.
+     *
+     * @return The number of resource-days.
+     */
+    public int size() {
+        return used;
+    }
+
+    /**
+     * Drops the masks of the days before a date, and every mask with no slot booked.
+     * The table is rebuilt at the smallest size that holds the remaining masks.
+     *
+     * @param date The first day to keep.
+     */
+    public void pruneBefore(Date date) {
+        int firstDay = date.toEpochDay();
+        int kept = 0;
+        for (int j = 0; j < keys.length; j++) {
+            if (keys[j] != EMPTY && (int) keys[j] >= firstDay && masks[j] != 0) {
+                kept++;
+            }
+        }
+        if (kept == used) {
+            return;
+        }
+        int capacity = INITIAL_CAPACITY;
+        while ((kept + 1) * 100 > capacity * MAX_LOAD_PERCENT) {
+            capacity *= 2;
+        }
+        long[] oldKeys = keys;
+        short[] oldMasks = masks;
+        keys = new long[capacity];
+        masks = new short[capacity];
+        Arrays.fill(keys, EMPTY);
+        used = 0;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != EMPTY && (int) oldKeys[j] >= firstDay && oldMasks[j] != 0) {
+                insert(oldKeys[j], oldMasks[j]);
+            }
+        }
+    }
+
+    /**
+     * Removes every booking from the calendar.
+     */
+    public void clear() {
+        ids.clear();
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(masks, (short) 0);
+        used = 0;
+    }
+
+    /**
+     * Returns the dense id of a resource, assigning the next one on first use.
+     *
+     * @param resource The resource.
+     * @return The id of the resource.
+     */
+    private int idOf(R resource) {
+        Integer id = ids.get(resource);
+        if (id == null) {
+            id = ids.size();
+            ids.put(resource, id);
+        }
+        return id;
+    }
+
+    /**
+     * Packs a resource id and epoch day into a table key.
+     *
+     * @param id The resource id.
+     * @param epochDay The epoch day.
+     * @return The table key, never equal to EMPTY.
+     */
+    private static long keyOf(int id, int epochDay) {
+        return ((long) id << 32) | (epochDay & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Spreads a key over the table.
+     *
+     * @param key The table key.
+     * @param mask The table length minus one.
+     * @return The first index to probe.
+     */
+    private static int slotOf(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    /**
+     * Finds the table entry of a resource-day.
+     *
+     * @param id The resource id.
+     * @param epochDay The epoch day.
+     * @return The index of the entry, or -1 if the resource-day has never been booked.
+     */
+    private int find(int id, int epochDay) {
+        long key = keyOf(id, epochDay);
+        int mask = keys.length - 1;
+        for (int i = slotOf(key, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+            if (keys[i] == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Finds or creates the table entry of a resource-day.
+     *
+     * @param id The resource id.
+     * @param epochDay The epoch day.
+     * @return The index of the entry.
+     */
+    private int entry(int id, int epochDay) {
+        if ((used + 1) * 100 > keys.length * MAX_LOAD_PERCENT) {
+            rehash();
+        }
+        long key = keyOf(id, epochDay);
+        int mask = keys.length - 1;
+        int i = slotOf(key, mask);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        used++;
+        return i;
+    }
+
+    /**
+     * Doubles the table and reinserts every entry.
+     */
+    private void rehash() {
+        long[] oldKeys = keys;
+        short[] oldMasks = masks;
+        keys = new long[oldKeys.length * 2];
+        masks = new short[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        used = 0;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != EMPTY) {
+                insert(oldKeys[j], oldMasks[j]);
+            }
+        }
+    }
+
+    /**
+     * Puts an entry known to be absent into the table, which must have room for it.
+     *
+     * @param key The table key.
+     * @param mask The mask of booked timeslots.
+     */
+    private void insert(long key, short mask) {
+        int tableMask = keys.length - 1;
+        int i = slotOf(key, tableMask);
+        while (keys[i] != EMPTY) {
+            i = (i + 1) & tableMask;
+        }
+        keys[i] = key;
+        masks[i] = mask;
+        used++;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for booking and releasing timeslots in the OccupancyCalendar class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class OccupancyCalendarTest {
+
+    /**
+     * Test case for booking a slot twice and releasing it.
+     */
+    @Test
+    public void testBookAndRelease() {
+        OccupancyCalendar<String> calendar = new OccupancyCalendar<>();
+        Date date = new Date(2024, 10, 30);
+        Timeslot slot = Timeslot.getTimeslot(3);
+
+        assertTrue(calendar.book("01", date, slot));
+        assertFalse(calendar.book("01", date, slot));
+        assertTrue(calendar.isBooked("01", date, slot));
+        assertFalse(calendar.isBooked("02", date, slot));
+        assertFalse(calendar.isBooked("01", new Date(2024, 10, 31), slot));
+
+        calendar.release("01", date, slot);
+        assertFalse(calendar.isBooked("01", date, slot));
+    }
+
+    /**
+     * Test case for listing the free slots of a day across many resources and days.
+     */
+    @Test
+    public void testFreeSlots() {
+        OccupancyCalendar<Integer> calendar = new OccupancyCalendar<>();
+        for (int provider = 0; provider < 50; provider++) {
+            for (int day = 1; day <= 28; day++) {
+                calendar.book(provider, new Date(2024, 11, day), Timeslot.getTimeslot(1 + day % Timeslot.COUNT));
+            }
+        }
+        Date date = new Date(2024, 11, 5);
+        List<Timeslot> free = calendar.freeSlots(7, date);
+        assertEquals(Timeslot.COUNT - 1, free.size());
+        assertFalse(free.contains(Timeslot.getTimeslot(6)));
+        assertEquals(1, calendar.bookedCount(7, date));
+    }
+
+    /**
+     * Test case for pruning the days before a date and the days with nothing booked.
+     */
+    @Test
+    public void testPruneBefore() {
+        OccupancyCalendar<Integer> calendar = new OccupancyCalendar<>();
+        for (int provider = 0; provider < 50; provider++) {
+            for (int day = 1; day <= 28; day++) {
+                calendar.book(provider, new Date(2024, 11, day), Timeslot.getTimeslot(1 + day % Timeslot.COUNT));
+            }
+        }
+        calendar.release(7, new Date(2024, 11, 20), Timeslot.getTimeslot(1 + 20 % Timeslot.COUNT));
+
+        calendar.pruneBefore(new Date(2024, 11, 15));
+        assertEquals(50 * 14 - 1, calendar.size());
+        assertEquals(0, calendar.bookedCount(3, new Date(2024, 11, 10)));
+        assertTrue(calendar.isBooked(3, new Date(2024, 11, 15), Timeslot.getTimeslot(1 + 15 % Timeslot.COUNT)));
+        assertTrue(calendar.book(3, new Date(2024, 11, 16), Timeslot.getTimeslot(12)));
+        assertEquals(2, calendar.bookedCount(3, new Date(2024, 11, 16)));
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.clinicmanager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bounded console model behind the output area, backed by a ring buffer of lines.
+ * Only the newest lines are kept. When the buffer is full, the oldest quarter of it is evicted at once
+ * and the view is redrawn from what is left, so an append costs the same however long the app has run
+ * and the view is redrawn at most once every maxLines / 4 lines. Evicted lines can be spilled to a log
+ * file instead of being lost. Text appended without a newline collects in a builder, and a line that
+ * reaches MAX_LINE_CHARS that way is broken, so appending fragments stays cheap however many there are.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class OutputConsole {
+    public static final int DEFAULT_MAX_LINES = 5000;
+    public static final int MAX_LINE_CHARS = 8192; // Longest line built from fragments before it is broken
+
+    private final String[] lines; // Complete lines, each ending in a newline
+    private final View view;
+    private final BufferedWriter spill; // Receives evicted lines, or null to drop them
+    private int head;  // Index of the oldest line
+    private int count; // Number of lines in the buffer
+    private final StringBuilder partial; // Text after the last newline, not yet a complete line
+
+    /**
+     * The control that shows the console text.
+     */
+    public interface View {
+        /**
+         * Appends text to the end of the shown text.
+         *
+         * @param text The text to append.
+         */
+        void append(String text);
+
+        /**
+         * Replaces all of the shown text.
+         *
+         * @param text The new text.
+         */
+        void replace(String text);
+    }
+
+    /**
+     * Constructor to create a console that drops evicted lines.
+     *
+     * @param maxLines The most lines to keep; at least 4.
+     * @param view The control that shows the console text.
+     */
+    public OutputConsole(int maxLines, View view) {
+        this(maxLines, view, null);
+    }
+
+    /**
+     * Constructor to create a console that spills evicted lines to a log file.
+     *
+     * @param maxLines The most lines to keep; at least 4.
+     * @param view The control that shows the console text.
+     * @param spill The writer evicted lines are written to, or null to drop them.
+     * @throws IllegalArgumentException If maxLines is less than 4.
+     */
+    public OutputConsole(int maxLines, View view, BufferedWriter spill) {
+        if (maxLines < 4) {
+            throw new IllegalArgumentException("Console must keep at least 4 lines");
+        }
+        this.lines = new String[maxLines];
+        this.view = view;
+        this.spill = spill;
+        this.head = 0;
+        this.count = 0;
+        this.partial = new StringBuilder();
+    }
+
+    /**
+     * Opens a log file to spill evicted lines to, appending to it if it already exists.
+     *
+     * @param file The path of the log file.
+     * @return The writer for the log file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static BufferedWriter openSpillFile(Path file) throws IOException {
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Appends text to the console.
+     *
+     * @param text The text to append, which may hold any number of lines.
+     */
+    public void append(String text) {
+        boolean evicted = false;
+        int start = 0;
+        int newline;
+        while ((newline = text.indexOf('\n', start)) >= 0) {
+            String line;
+            if (partial.length() > 0) {
+                line = partial.append(text, start, newline + 1).toString();
+                resetPartial();
+            } else {
+                line = text.substring(start, newline + 1);
+            }
+            evicted |= addLine(line);
+            start = newline + 1;
+        }
+        String shown = text;
+        if (start < text.length()) {
+            partial.append(text, start, text.length());
+            if (partial.length() >= MAX_LINE_CHARS) {
+                evicted |= addLine(partial.append('\n').toString());
+                resetPartial();
+                shown = text + "\n";
+            }
+        }
+        if (evicted) {
+            view.replace(getText());
+        } else {
+            view.append(shown);
+        }
+    }
+
+    /**
+     * Replaces the console text.
+     *
+     * @param text The new text.
+     */
+    public void setText(String text) {
+        clear();
+        append(text);
+    }
+
+    /**
+     * Removes every line from the console. Cleared lines are not spilled.
+     */
+    public void clear() {
+        for (int i = 0; i < count; i++) {
+            lines[(head + i) % lines.length] = null;
+        }
+        head = 0;
+        count = 0;
+        resetPartial();
+        view.replace("");
+    }
+
+    /**
+     * Gets the text of the lines still in the console.
+     *
+     * @return The console text.
+     */
+    public String getText() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(lines[(head + i) % lines.length]);
+        }
+        return text.append(partial).toString();
+    }
+
+    /**
+     * Gets the number of complete lines in the console.
+     *
+     * @return The number of lines.
+     */
+    public int lineCount() {
+        return count;
+    }
+
+    /**
+     * Flushes and closes the spill file, if there is one.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    public void close() throws IOException {
+        if (spill != null) {
+            spill.close();
+        }
+    }
+
+    /**
+     * Adds a complete line, evicting the oldest lines first if the buffer is full.
+     *
+     * @param line The line, ending in a newline.
+     * @return True if lines were evicted.
+     */
+    private boolean addLine(String line) {
+        boolean evicted = false;
+        if (count == lines.length) {
+            evict(lines.length / 4);
+            evicted = true;
+        }
+        lines[(head + count) % lines.length] = line;
+        count++;
+        return evicted;
+    }
+
+    /**
+     * Empties the partial line, giving back the memory of an unusually long one.
+     */
+    private void resetPartial() {
+        partial.setLength(0);
+        if (partial.capacity() > MAX_LINE_CHARS) {
+            partial.trimToSize();
+        }
+    }
+
+    /**
+     * Removes the oldest lines, writing them to the spill file if there is one.
+     * A failed write stops nothing; the lines are dropped as if there were no spill file.
+     *
+     * @param n The number of lines to remove.
+     */
+    private void evict(int n) {
+        for (int i = 0; i < n; i++) {
+            if (spill != null) {
+                try {
+                    spill.write(lines[head]);
+                } catch (IOException e) {
+                    // The console keeps working without its log
+                }
+            }
+            lines[head] = null;
+            head = (head + 1) % lines.length;
+        }
+        count -= n;
+        if (spill != null) {
+            try {
+                spill.flush();
+            } catch (IOException e) {
+                // The console keeps working without its log
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import java.io.BufferedWriter;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the OutputConsole class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class OutputConsoleTest {
+
+    /**
+     * View that records the text it shows and how often it was redrawn.
+     */
+    private static class RecordingView implements OutputConsole.View {
+        private final StringBuilder text = new StringBuilder();
+        private int redraws = 0;
+
+        @Override
+        public void append(String appended) {
+            text.append(appended);
+        }
+
+        @Override
+        public void replace(String replacement) {
+            text.setLength(0);
+            text.append(replacement);
+            redraws++;
+        }
+    }
+
+    /**
+     * Test case for the oldest lines being evicted in batches and spilled to the log.
+     */
+    @Test
+    public void testEvictionAndSpill() throws Exception {
+        RecordingView view = new RecordingView();
+        StringWriter log = new StringWriter();
+        OutputConsole console = new OutputConsole(8, view, new BufferedWriter(log));
+        for (int i = 0; i < 8; i++) {
+            console.append("line " + i + "\n");
+        }
+        assertEquals(8, console.lineCount());
+        assertEquals(0, view.redraws);
+
+        console.append("line 8\n");
+        assertEquals(7, console.lineCount());
+        assertEquals(1, view.redraws);
+        assertEquals("line 0\nline 1\n", log.toString());
+        assertTrue(view.text.toString().startsWith("line 2\n"));
+        assertTrue(view.text.toString().endsWith("line 8\n"));
+        assertEquals(console.getText(), view.text.toString());
+    }
+
+    /**
+     * Test case for text split across appends without a newline.
+     */
+    @Test
+    public void testPartialLines() {
+        RecordingView view = new RecordingView();
+        OutputConsole console = new OutputConsole(4, view);
+        console.append("Please select");
+        console.append(" a timeslot.\nNext");
+        assertEquals(1, console.lineCount());
+        assertEquals("Please select a timeslot.\nNext", console.getText());
+        assertEquals(console.getText(), view.text.toString());
+
+        console.setText("Cleared");
+        assertEquals(0, console.lineCount());
+        assertEquals("Cleared", view.text.toString());
+    }
+
+    /**
+     * Test case for a line built from many fragments being broken at MAX_LINE_CHARS.
+     */
+    @Test
+    public void testLongPartialLineIsBroken() {
+        RecordingView view = new RecordingView();
+        OutputConsole console = new OutputConsole(4, view);
+        for (int i = 0; i < OutputConsole.MAX_LINE_CHARS + 10; i++) {
+            console.append("x");
+        }
+        assertEquals(1, console.lineCount());
+        assertEquals(OutputConsole.MAX_LINE_CHARS + 1 + 10, console.getText().length());
+        assertEquals('\n', console.getText().charAt(OutputConsole.MAX_LINE_CHARS));
+        assertEquals(console.getText(), view.text.toString());
+    }
+}
@@ -2,12 +2,17 @@ package com.example.clinicmanager;
 
 /**
  * Represents a patient with a profile and a linked list of their medical visits.
+ * The patient keeps a pointer to the last visit and a running total of the charges, so appending
+ * a visit and computing the charge take constant time. Visits should be added and removed through
+ * the patient so the total stays correct.
  *
  * @author Sinan Merchant + Varun Bondugula
  */
 
 public class Patient extends Person {
-    private Visit visit;
+    private Visit visit;     // First visit in the list
+    private Visit lastVisit; // Last visit in the list
+    private int totalCharge; // Sum of the provider rates of every visit
 
     /**
      * Constructor to create an instance of the Patient class.
@@ -18,6 +23,68 @@ public class Patient extends Person {
     public Patient(Profile profile, Visit visits) {
         super(profile);
         this.visit = visits;
+        this.lastVisit = null;
+        this.totalCharge = 0;
+        for (Visit current = visits; current != null; current = current.getNext()) {
+            lastVisit = current;
+            totalCharge += rateOf(current);
+        }
+    }
+
+    /**
+     * Appends a visit for an appointment to the end of the patient's visits.
+     *
+     * @param appointment the appointment of the visit
+     * @return the new visit
+     */
+    public Visit addVisit(Appointment appointment) {
+        Visit newVisit = new Visit(appointment);
+        if (lastVisit == null) {
+            visit = newVisit;
+        } else {
+            lastVisit.setNext(newVisit);
+        }
+        lastVisit = newVisit;
+        totalCharge += rateOf(newVisit);
+        return newVisit;
+    }
+
+    /**
+     * Removes the first visit for an appointment from the patient's visits.
+     *
+     * @param appointment the appointment of the visit to remove
+     * @return true if a visit was removed; false otherwise
+     */
+    public boolean removeVisit(Appointment appointment) {
+        Visit previous = null;
+        for (Visit current = visit; current != null; current = current.getNext()) {
+            if (current.getAppointment().equals(appointment)) {
+                if (previous == null) {
+                    visit = current.getNext();
+                } else {
+                    previous.setNext(current.getNext());
+                }
+                if (current == lastVisit) {
+                    lastVisit = previous;
+                }
+                current.setNext(null);
+                totalCharge -= rateOf(current);
+                return true;
+            }
+            previous = current;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the rate charged for a visit.
+     *
+     * @param visit the visit
+     * @return the rate of the visit's provider, or 0 if the provider has no rate
+     */
+    private static int rateOf(Visit visit) {
+        Person provider = visit.getAppointment().getProvider();
+        return provider instanceof Provider ? ((Provider) provider).rate() : 0;
     }
 
     /**
@@ -59,20 +126,11 @@ public class Patient extends Person {
     }
 
     /**
-     * Computes the total charge for the visits
+     * Returns the total charge for the visits
      *
      * @return the total charge for the visits
      */
     public int charge() {
-        Visit currentVisit = this.visit;
-        int totalCharge = 0;
-        while (currentVisit != null) {
-            Person provider = currentVisit.getAppointment().getProvider();
-            if (provider instanceof Provider) {
-                totalCharge += ((Provider) provider).rate();
-            }
-            currentVisit = currentVisit.getNext();
-        }
         return totalCharge;
     }
 
@@ -0,0 +1,58 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the running charge total in the Patient class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class PatientTest {
+
+    /**
+     * Test case for the charge following visits as they are added and removed.
+     */
+    @Test
+    public void testChargeAfterAddAndRemove() {
+        Profile profile = new Profile("Varun", "Bondugula", new Date(1989, 12, 13));
+        Doctor doctor = new Doctor(new Profile("John", "Doe", new Date(1970, 1, 1)), Location.BRIDGEWATER, Specialty.FAMILY, "01");
+        Technician technician = new Technician(new Profile("Jane", "Smith", new Date(1980, 3, 15)), Location.EDISON, 150);
+        Person person = new Person(profile);
+        Appointment office = new Appointment(new Date(2024, 10, 30), Timeslot.getTimeslot(1), person, doctor);
+        Appointment imaging = new Imaging(new Date(2024, 11, 1), Timeslot.getTimeslot(2), person, technician, Radiology.XRAY);
+
+        Patient patient = new Patient(profile, null);
+        assertEquals(0, patient.charge());
+        patient.addVisit(office);
+        patient.addVisit(imaging);
+        assertEquals(400, patient.charge());
+
+        assertTrue(patient.removeVisit(imaging));
+        assertEquals(250, patient.charge());
+        patient.addVisit(imaging);
+        assertEquals(400, patient.charge());
+        assertSame(imaging, patient.getVisits().getNext().getAppointment());
+
+        assertTrue(patient.removeVisit(office));
+        assertFalse(patient.removeVisit(office));
+        assertEquals(150, patient.charge());
+    }
+
+    /**
+     * Test case for the charge of a patient created with an existing list of visits.
+     */
+    @Test
+    public void testChargeOfExistingVisits() {
+        Profile profile = new Profile("Varun", "Bondugula", new Date(1989, 12, 13));
+        Doctor doctor = new Doctor(new Profile("John", "Doe", new Date(1970, 1, 1)), Location.BRIDGEWATER, Specialty.ALLERGIST, "01");
+        Visit first = new Visit(new Appointment(new Date(2024, 10, 30), Timeslot.getTimeslot(1), new Person(profile), doctor));
+        first.setNext(new Visit(new Appointment(new Date(2024, 10, 31), Timeslot.getTimeslot(1), new Person(profile), doctor)));
+
+        Patient patient = new Patient(profile, first);
+        assertEquals(700, patient.charge());
+        patient.addVisit(new Appointment(new Date(2024, 11, 1), Timeslot.getTimeslot(1), new Person(profile), doctor));
+        assertEquals(1050, patient.charge());
+    }
+}
@@ -52,6 +52,16 @@ public class Person implements Comparable<Person> {
         return this.profile.equals(other.profile);
     }
 
+    /**
+     * Returns a hash code consistent with equals.
+     *
+     * @return the hash code of the person's profile
+     */
+    @Override
+    public int hashCode() {
+        return profile.hashCode();
+    }
+
     /**
      * Generates a string representation of the Person class
      *
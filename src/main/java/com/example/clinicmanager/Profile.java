@@ -1,5 +1,7 @@
 package com.example.clinicmanager;
 
+import java.util.Locale;
+
 /**
  * Profile class represents a patient's profile with first name, last name, and date of birth.
  * It implements Comparable to allow sorting based on last name, first name, and date of birth.
@@ -10,6 +12,7 @@ public class Profile implements Comparable<Profile> {
     private String fname; // First name of the patient
     private String lname; // Last name of the patient
     private Date dob;     // Date of birth of the patient
+    private int hash;     // Cached hash code, 0 until first computed
 
     /**
      * Constructor to initialize a Profile object with first name, last name, and date of birth.
@@ -41,6 +44,24 @@ public class Profile implements Comparable<Profile> {
                 dob.equals(profile.dob);
     }
 
+    /**
+     * Overrides the hashCode method to be consistent with equals.
+     * Names are hashed in lower case because equals ignores case.
+     *
+     * @return The hash code of the profile.
+     */
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = fname.toLowerCase(Locale.ROOT).hashCode();
+            h = 31 * h + lname.toLowerCase(Locale.ROOT).hashCode();
+            h = 31 * h + dob.hashCode();
+            hash = h;
+        }
+        return h;
+    }
+
     /**
      * Getter method for first name
      *
@@ -59,6 +80,15 @@ public class Profile implements Comparable<Profile> {
         return this.lname;
     }
 
+    /**
+     * Getter method for date of birth
+     *
+     * @return date of birth
+     */
+    public Date getDob() {
+        return this.dob;
+    }
+
     /**
      * Overrides the toString method to provide a textual representation of the profile.
      *
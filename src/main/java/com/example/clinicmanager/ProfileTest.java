@@ -56,4 +56,15 @@ public class ProfileTest {
         Profile profile2 = new Profile("John", "Doe", new Date(1990, 5, 10));
         assertEquals(0, profile1.compareTo(profile2));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test case for equal profiles having equal hash codes regardless of name case.
+     */
+    @Test
+    public void testHashCodeConsistentWithEquals() {
+        Profile profile1 = new Profile("John", "Doe", new Date(1990, 5, 10));
+        Profile profile2 = new Profile("JOHN", "doe", new Date(1990, 5, 10));
+        assertEquals(profile1, profile2);
+        assertEquals(profile1.hashCode(), profile2.hashCode());
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.clinicmanager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Registry of the providers loaded at startup, with hash lookup of doctors by NPI and
+ * precomputed groupings by specialty and location.
+ * Lookups take constant time and the groupings are returned as built, so filling a
+ * dropdown costs time proportional to its output rather than to the whole roster.
+ * Each provider also gets a dense id in load order, so per-provider totals can be kept
+ * in a plain array indexed by id.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class ProviderRegistry {
+    private final HashMap<String, Doctor> doctorsByNpi;
+    private final EnumMap<Specialty, List<Doctor>> doctorsBySpecialty;
+    private final EnumMap<Location, List<Provider>> providersByLocation;
+    private final List<Doctor> doctors;
+    private final List<Technician> technicians;
+    private final List<Provider> providers; // Every provider, indexed by id
+    private final HashMap<Person, Integer> ids;
+    private String[] doctorNpis; // Cached NPI options in load order, rebuilt after a change
+    private List<Provider> providersByName; // Cached name ordering, rebuilt after a change
+
+    /**
+     * Constructor to create an empty registry.
+     */
+    public ProviderRegistry() {
+        doctorsByNpi = new HashMap<>();
+        doctorsBySpecialty = new EnumMap<>(Specialty.class);
+        providersByLocation = new EnumMap<>(Location.class);
+        for (Specialty specialty : Specialty.values()) {
+            doctorsBySpecialty.put(specialty, new List<>());
+        }
+        for (Location location : Location.values()) {
+            providersByLocation.put(location, new List<>());
+        }
+        doctors = new List<>();
+        technicians = new List<>();
+        providers = new List<>();
+        ids = new HashMap<>();
+    }
+
+    /**
+     * Adds a provider to the registry and to its groupings.
+     * If two doctors share an NPI, the first one added keeps it.
+     *
+     * @param provider The provider to add.
+     */
+    public void add(Provider provider) {
+        if (provider instanceof Doctor) {
+            Doctor doctor = (Doctor) provider;
+            doctors.add(doctor);
+            doctorsByNpi.putIfAbsent(doctor.getNpi(), doctor);
+            doctorsBySpecialty.get(doctor.getSpecialty()).add(doctor);
+            doctorNpis = null;
+        } else if (provider instanceof Technician) {
+            technicians.add((Technician) provider);
+        }
+        if (provider.getLocation() != null) {
+            providersByLocation.get(provider.getLocation()).add(provider);
+        }
+        ids.putIfAbsent(provider, providers.size());
+        providers.add(provider);
+        providersByName = null;
+    }
+
+    /**
+     * Gets the dense id of a provider.
+     * Providers that are equal share the id of the first one added.
+     *
+     * @param provider The provider to look up.
+     * @return The id of the provider, or -1 if it is not in the registry.
+     */
+    public int idOf(Person provider) {
+        Integer id = ids.get(provider);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the provider with a dense id.
+     *
+     * @param id The id of the provider.
+     * @return The provider added with that id.
+     */
+    public Provider getProvider(int id) {
+        return providers.get(id);
+    }
+
+    /**
+     * Returns every provider ordered by profile (name).
+     * The list is sorted once and shared, so callers must not modify it.
+     *
+     * @return The providers sorted by last name, first name and date of birth.
+     */
+    public List<Provider> getProvidersByName() {
+        if (providersByName == null) {
+            List<Provider> sorted = new List<>(providers.size());
+            sorted.addAll(providers);
+            Sort.provider(sorted);
+            providersByName = sorted;
+        }
+        return providersByName;
+    }
+
+    /**
+     * Totals the credit earned by each provider over a list of appointments in one scan.
+     * Appointments whose provider is not in the registry are skipped.
+     *
+     * @param appointments The appointments to credit.
+     * @return The credit of each provider in cents, indexed by provider id.
+     */
+    public long[] creditCents(List<Appointment> appointments) {
+        long[] credits = new long[providers.size()];
+        for (int i = 0; i < appointments.size(); i++) {
+            int id = idOf(appointments.get(i).getProvider());
+            if (id >= 0) {
+                credits[id] += providers.get(id).rate() * 100L;
+            }
+        }
+        return credits;
+    }
+
+    /**
+     * Finds a doctor by NPI.
+     *
+     * @param npi The NPI (National Provider Identifier) to search for.
+     * @return The matching Doctor, or null if no match is found.
+     */
+    public Doctor findDoctorByNpi(String npi) {
+        return doctorsByNpi.get(npi);
+    }
+
+    /**
+     * Returns the doctors with a specialty, in load order.
+     *
+     * @param specialty The specialty.
+     * @return The doctors with that specialty.
+     */
+    public List<Doctor> getDoctors(Specialty specialty) {
+        return doctorsBySpecialty.get(specialty);
+    }
+
+    /**
+     * Returns the providers at a location, in load order.
+     *
+     * @param location The location.
+     * @return The providers at that location.
+     */
+    public List<Provider> getProviders(Location location) {
+        return providersByLocation.get(location);
+    }
+
+    /**
+     * Returns every doctor, in load order.
+     *
+     * @return The doctors in the registry.
+     */
+    public List<Doctor> getDoctors() {
+        return doctors;
+    }
+
+    /**
+     * Returns every technician, in load order.
+     *
+     * @return The technicians in the registry.
+     */
+    public List<Technician> getTechnicians() {
+        return technicians;
+    }
+
+    /**
+     * Returns the NPIs of every doctor for the provider dropdown, grouped by specialty and in load order
+     * within a specialty. The array is built once from the specialty groupings and shared, so callers
+     * must not modify it.
+     *
+     * @return The NPIs of the doctors.
+     */
+    public String[] getDoctorNpis() {
+        if (doctorNpis == null) {
+            String[] npis = new String[doctors.size()];
+            int next = 0;
+            for (Specialty specialty : Specialty.values()) {
+                for (Doctor doctor : getDoctors(specialty)) {
+                    npis[next++] = doctor.getNpi();
+                }
+            }
+            doctorNpis = npis;
+        }
+        return doctorNpis;
+    }
+
+    /**
+     * Computes a checksum of the roster, in load order.
+     * Files that store provider ids record it, so they are not read back against a different roster.
+     *
+     * @return The CRC-32 of the text of every provider.
+     */
+    public long fingerprint() {
+        CRC32 crc = new CRC32();
+        for (int i = 0; i < providers.size(); i++) {
+            crc.update(providers.get(i).toString().getBytes(StandardCharsets.UTF_8));
+            crc.update('\n');
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Returns the number of providers in the registry.
+     *
+     * @return The number of doctors and technicians.
+     */
+    public int size() {
+        return providers.size();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the ProviderRegistry class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class ProviderRegistryTest {
+
+    /**
+     * Test case for the per-provider credit totals and the name ordering.
+     */
+    @Test
+    public void testCreditsAndNameOrdering() {
+        Doctor doe = new Doctor(new Profile("John", "Doe", new Date(1970, 1, 1)), Location.BRIDGEWATER, Specialty.FAMILY, "01");
+        Technician smith = new Technician(new Profile("Jane", "Smith", new Date(1980, 3, 15)), Location.EDISON, 125);
+        Doctor adams = new Doctor(new Profile("Ann", "Adams", new Date(1975, 6, 1)), Location.CLARK, Specialty.PEDIATRICIAN, "02");
+        ProviderRegistry registry = new ProviderRegistry();
+        registry.add(doe);
+        registry.add(smith);
+        registry.add(adams);
+
+        Person patient = new Person(new Profile("Varun", "Bondugula", new Date(1989, 12, 13)));
+        List<Appointment> appointments = new List<>();
+        appointments.add(new Appointment(new Date(2024, 10, 30), Timeslot.getTimeslot(1), patient, doe));
+        appointments.add(new Imaging(new Date(2024, 10, 30), Timeslot.getTimeslot(2), patient, smith, Radiology.XRAY));
+        appointments.add(new Appointment(new Date(2024, 10, 31), Timeslot.getTimeslot(1), patient, doe));
+
+        long[] credits = registry.creditCents(appointments);
+        assertEquals(50000, credits[registry.idOf(doe)]);
+        assertEquals(12500, credits[registry.idOf(smith)]);
+        assertEquals(0, credits[registry.idOf(adams)]);
+
+        List<Provider> byName = registry.getProvidersByName();
+        assertSame(adams, byName.get(0));
+        assertSame(doe, byName.get(1));
+        assertSame(smith, byName.get(2));
+        assertSame(byName, registry.getProvidersByName());
+    }
+
+    /**
+     * Test case for the specialty and location groupings and the NPI dropdown built from them.
+     */
+    @Test
+    public void testGroupings() {
+        Doctor doe = new Doctor(new Profile("John", "Doe", new Date(1970, 1, 1)), Location.BRIDGEWATER, Specialty.PEDIATRICIAN, "01");
+        Technician smith = new Technician(new Profile("Jane", "Smith", new Date(1980, 3, 15)), Location.BRIDGEWATER, 125);
+        Doctor adams = new Doctor(new Profile("Ann", "Adams", new Date(1975, 6, 1)), Location.CLARK, Specialty.FAMILY, "02");
+        Doctor brown = new Doctor(new Profile("Bob", "Brown", new Date(1965, 2, 2)), Location.BRIDGEWATER, Specialty.PEDIATRICIAN, "03");
+        ProviderRegistry registry = new ProviderRegistry();
+        registry.add(doe);
+        registry.add(smith);
+        registry.add(adams);
+        registry.add(brown);
+
+        List<Doctor> pediatricians = registry.getDoctors(Specialty.PEDIATRICIAN);
+        assertEquals(2, pediatricians.size());
+        assertSame(doe, pediatricians.get(0));
+        assertSame(brown, pediatricians.get(1));
+        assertTrue(registry.getDoctors(Specialty.ALLERGIST).isEmpty());
+
+        List<Provider> bridgewater = registry.getProviders(Location.BRIDGEWATER);
+        assertEquals(3, bridgewater.size());
+        assertSame(doe, bridgewater.get(0));
+        assertSame(smith, bridgewater.get(1));
+        assertSame(brown, bridgewater.get(2));
+        assertSame(adams, registry.getProviders(Location.CLARK).get(0));
+        assertTrue(registry.getProviders(Location.EDISON).isEmpty());
+
+        assertArrayEquals(new String[] {"02", "01", "03"}, registry.getDoctorNpis());
+        assertSame(registry.getDoctorNpis(), registry.getDoctorNpis());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.clinicmanager;
+
+import java.util.AbstractList;
+
+/**
+ * A finished report: the full text of the report and the offset where each of its lines ends.
+ * The text is built once, and single lines are cut from it only when asked for, so a paged or
+ * virtualized view of a large report only creates strings for the rows it shows.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public final class Report {
+    private final String text;
+    private final int[] lineEnds; // Offset just past the newline of each line
+
+    /**
+     * Constructor to create a report from its text and line offsets.
+     *
+     * @param text The text of the report, each line ending in a newline.
+     * @param lineEnds The offset just past the newline of each line.
+     */
+    Report(String text, int[] lineEnds) {
+        this.text = text;
+        this.lineEnds = lineEnds;
+    }
+
+    /**
+     * Gets the full text of the report.
+     *
+     * @return The text of the report.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Gets the number of lines in the report.
+     *
+     * @return The number of lines.
+     */
+    public int lineCount() {
+        return lineEnds.length;
+    }
+
+    /**
+     * Gets one line of the report, without its newline.
+     *
+     * @param index The index of the line.
+     * @return The text of the line.
+     * @throws IndexOutOfBoundsException If the index is out of range.
+     */
+    public String getLine(int index) {
+        int start = index == 0 ? 0 : lineEnds[index - 1];
+        return text.substring(start, lineEnds[index] - 1);
+    }
+
+    /**
+     * Gets the title of the report, its first line that is not blank.
+     *
+     * @return The title, or an empty string if every line is blank.
+     */
+    public String getTitle() {
+        for (int i = 0; i < lineEnds.length; i++) {
+            String line = getLine(i);
+            if (!line.isBlank()) {
+                return line;
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Returns a read-only list view of the lines of the report.
+     *
+     * @return The lines of the report.
+     */
+    public java.util.List<String> lines() {
+        return new AbstractList<>() {
+            @Override
+            public String get(int index) {
+                return getLine(index);
+            }
+
+            @Override
+            public int size() {
+                return lineEnds.length;
+            }
+        };
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.clinicmanager;
+
+import java.util.Arrays;
+
+/**
+ * Formats a report line by line into one reusable buffer.
+ * A report is published as a single string once it is finished, instead of one update per line,
+ * and the buffer is kept for the next report so formatting does not reallocate it every time.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class ReportRenderer {
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20; // Larger buffers are dropped after a report
+
+    private StringBuilder buffer;
+    private int[] lineEnds;
+    private int lines;
+
+    /**
+     * The work of a report: formatting its lines into a renderer.
+     */
+    public interface Body {
+        /**
+         * Formats the report.
+         *
+         * @param renderer The renderer to format the report into.
+         * @param progress Receives the progress of the report and tells it when to stop.
+         */
+        void render(ReportRenderer renderer, Progress progress);
+    }
+
+    /**
+     * Receives the progress of a report that is being formatted.
+     */
+    public interface Progress {
+        /**
+         * Progress that is ignored, for reports that always run to the end.
+         */
+        Progress NONE = (done, total) -> true;
+
+        /**
+         * Records that a number of rows have been formatted.
+         *
+         * @param done The number of rows formatted so far.
+         * @param total The total number of rows.
+         * @return True to keep going, false to stop the report early.
+         */
+        boolean progress(long done, long total);
+    }
+
+    /**
+     * Constructor to create a renderer with an empty buffer.
+     */
+    public ReportRenderer() {
+        buffer = new StringBuilder(INITIAL_CAPACITY);
+        lineEnds = new int[64];
+        lines = 0;
+    }
+
+    /**
+     * Appends text to the current line.
+     *
+     * @param text The text to append.
+     * @return This renderer.
+     */
+    public ReportRenderer append(String text) {
+        buffer.append(text);
+        return this;
+    }
+
+    /**
+     * Appends the string form of an object to the current line.
+     *
+     * @param value The object to append.
+     * @return This renderer.
+     */
+    public ReportRenderer append(Object value) {
+        buffer.append(value);
+        return this;
+    }
+
+    /**
+     * Appends a whole number to the current line.
+     *
+     * @param value The number to append.
+     * @return This renderer.
+     */
+    public ReportRenderer append(long value) {
+        buffer.append(value);
+        return this;
+    }
+
+    /**
+     * Appends a decimal number to the current line.
+     *
+     * @param value The number to append.
+     * @return This renderer.
+     */
+    public ReportRenderer append(double value) {
+        buffer.append(value);
+        return this;
+    }
+
+    /**
+     * Ends the current line.
+     *
+     * @return This renderer.
+     */
+    public ReportRenderer endLine() {
+        buffer.append('\n');
+        if (lines == lineEnds.length) {
+            lineEnds = Arrays.copyOf(lineEnds, lines + (lines >> 1));
+        }
+        lineEnds[lines++] = buffer.length();
+        return this;
+    }
+
+    /**
+     * Appends a whole line.
+     *
+     * @param text The text of the line, without a newline.
+     * @return This renderer.
+     */
+    public ReportRenderer line(String text) {
+        return append(text).endLine();
+    }
+
+    /**
+     * Formats a whole report on the calling thread.
+     *
+     * @param body The work of the report.
+     * @return The finished report.
+     */
+    public Report render(Body body) {
+        Report report;
+        try {
+            body.render(this, Progress.NONE);
+        } finally {
+            report = finish(); // Always leave the buffer empty for the next report
+        }
+        return report;
+    }
+
+    /**
+     * Finishes the report and clears the buffer for the next one.
+     * Text after the last endLine is ended as a line of its own.
+     *
+     * @return The finished report.
+     */
+    public Report finish() {
+        if (lines == 0 ? buffer.length() > 0 : buffer.length() > lineEnds[lines - 1]) {
+            endLine();
+        }
+        Report report = new Report(buffer.toString(), Arrays.copyOf(lineEnds, lines));
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer = new StringBuilder(INITIAL_CAPACITY);
+        } else {
+            buffer.setLength(0);
+        }
+        lines = 0;
+        return report;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the ReportRenderer and Report classes.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class ReportRendererTest {
+
+    /**
+     * Test case for the text and lines of a finished report.
+     */
+    @Test
+    public void testFinishedReport() {
+        ReportRenderer renderer = new ReportRenderer();
+        renderer.endLine().line("** Title **");
+        renderer.append("(").append(1).append(") ").append(12.5).endLine();
+        renderer.append("no newline");
+        Report report = renderer.finish();
+
+        assertEquals("\n** Title **\n(1) 12.5\nno newline\n", report.getText());
+        assertEquals(4, report.lineCount());
+        assertEquals("", report.getLine(0));
+        assertEquals("(1) 12.5", report.getLine(2));
+        assertEquals("** Title **", report.getTitle());
+        assertEquals(4, report.lines().size());
+        assertEquals("no newline", report.lines().get(3));
+    }
+
+    /**
+     * Test case for the buffer starting empty again after a report is finished.
+     */
+    @Test
+    public void testBufferReusedAcrossReports() {
+        ReportRenderer renderer = new ReportRenderer();
+        for (int i = 0; i < 1000; i++) {
+            renderer.line("line " + i);
+        }
+        assertEquals(1000, renderer.finish().lineCount());
+
+        Report next = renderer.line("only").finish();
+        assertEquals("only\n", next.getText());
+        assertEquals(1, next.lineCount());
+        assertEquals(0, renderer.finish().lineCount());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.clinicmanager;
+
+import javafx.concurrent.Task;
+
+/**
+ * Background task that formats a report off the JavaFX application thread.
+ * The report body works on a snapshot taken before the task is submitted, so it never sees the
+ * schedule change under it. It reports its progress through the task and stops early once the
+ * task is cancelled. JavaFX delivers the progress and the finished report to the application thread.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class ReportTask extends Task<Report> implements ReportRenderer.Progress {
+    private static final int PROGRESS_INTERVAL = 1024; // Rows between progress updates
+
+    private final ReportRenderer renderer;
+    private final ReportRenderer.Body body;
+
+    /**
+     * Constructor to create a report task.
+     * Tasks that share a renderer must run one at a time, for example on a single-thread executor.
+     *
+     * @param renderer The renderer to format the report into.
+     * @param body The work of the report.
+     */
+    public ReportTask(ReportRenderer renderer, ReportRenderer.Body body) {
+        this.renderer = renderer;
+        this.body = body;
+    }
+
+    /**
+     * Formats the report on the worker thread.
+     *
+     * @return The finished report, or null if the task was cancelled.
+     */
+    @Override
+    protected Report call() {
+        Report report;
+        try {
+            body.render(renderer, this);
+        } finally {
+            report = renderer.finish(); // Always leave the renderer empty for the next report
+        }
+        return isCancelled() ? null : report;
+    }
+
+    /**
+     * Records that a number of rows have been formatted.
+     * Progress is published every PROGRESS_INTERVAL rows and when the last row is done.
+     *
+     * @param done The number of rows formatted so far.
+     * @param total The total number of rows.
+     * @return True to keep going, false if the task was cancelled.
+     */
+    @Override
+    public boolean progress(long done, long total) {
+        if (done % PROGRESS_INTERVAL == 0 || done == total) {
+            updateProgress(done, total);
+        }
+        return !isCancelled();
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.clinicmanager;
+
+import java.util.Arrays;
+
+/**
+ * Dense occupancy matrix of the imaging rooms, indexed by location, day, radiology room and timeslot.
+ * Every location has its own CATSCAN, ULTRASOUND and XRAY room, and a room is only busy on the
+ * day and at the timeslot it was booked for. Each (day, location, room) cell is a 12-bit mask of
+ * booked timeslots held in one flat array that covers a contiguous range of days.
+ * Days that have gone by are dropped with pruneBefore(), which slides the range forward.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class RoomSchedule {
+    private static final int LOCATIONS = Location.values().length;
+    private static final int ROOMS = Radiology.values().length;
+    private static final int CELLS_PER_DAY = LOCATIONS * ROOMS;
+    private static final int INITIAL_DAYS = 184; // About six months of booking window
+
+    private short[] masks;
+    private int firstDay; // Epoch day of the first day covered by masks
+    private int days;     // Number of days covered by masks
+
+    /**
+     * Constructor to create an empty room schedule.
+     */
+    public RoomSchedule() {
+        masks = new short[0];
+        firstDay = 0;
+        days = 0;
+    }
+
+    /**
+     * Checks if a room at a location is free at a timeslot on a date.
+     *
+     * @param location The location of the room.
+     * @param date The date to check.
+     * @param room The radiology room.
+     * @param timeslot The timeslot to check.
+     * @return True if the room is free, false otherwise.
+     */
+    public boolean isAvailable(Location location, Date date, Radiology room, Timeslot timeslot) {
+        int day = date.toEpochDay() - firstDay;
+        if (day < 0 || day >= days) {
+            return true;
+        }
+        return (masks[cell(day, location, room)] & (1 << timeslot.ordinal())) == 0;
+    }
+
+    /**
+     * Books a room at a location for a timeslot on a date.
+     *
+     * @param location The location of the room.
+     * @param date The date of the booking.
+     * @param room The radiology room.
+     * @param timeslot The timeslot of the booking.
+     * @return True if the room was free and is now booked, false if it was already booked.
+     */
+    public boolean book(Location location, Date date, Radiology room, Timeslot timeslot) {
+        int epochDay = date.toEpochDay();
+        cover(epochDay);
+        int index = cell(epochDay - firstDay, location, room);
+        int bit = 1 << timeslot.ordinal();
+        if ((masks[index] & bit) != 0) {
+            return false;
+        }
+        masks[index] |= (short) bit;
+        return true;
+    }
+
+    /**
+     * Frees a room at a location for a timeslot on a date.
+     *
+     * @param location The location of the room.
+     * @param date The date of the booking.
+     * @param room The radiology room.
+     * @param timeslot The timeslot of the booking.
+     */
+    public void release(Location location, Date date, Radiology room, Timeslot timeslot) {
+        int day = date.toEpochDay() - firstDay;
+        if (day >= 0 && day < days) {
+            masks[cell(day, location, room)] &= (short) ~(1 << timeslot.ordinal());
+        }
+    }
+
+    /**
+     * Returns the booked timeslots of a room at a location on a date as a bitmask.
+     *
+     * @param location The location of the room.
+     * @param date The date to check.
+     * @param room The radiology room.
+     * @return The mask of booked timeslots.
+     */
+    public int getMask(Location location, Date date, Radiology room) {
+        int day = date.toEpochDay() - firstDay;
+        if (day < 0 || day >= days) {
+            return 0;
+        }
+        return masks[cell(day, location, room)] & OccupancyCalendar.FULL_DAY;
+    }
+
+    /**
+     * Drops the days before a date. The range keeps its length: the remaining days move to the
+     * front of the array and the freed cells at the end cover the days after them.
+     *
+     * @param date The first day to keep.
+     */
+    public void pruneBefore(Date date) {
+        int drop = date.toEpochDay() - firstDay;
+        if (days == 0 || drop <= 0) {
+            return;
+        }
+        if (drop >= days) {
+            masks = new short[0];
+            firstDay = 0;
+            days = 0;
+            return;
+        }
+        int kept = (days - drop) * CELLS_PER_DAY;
+        System.arraycopy(masks, drop * CELLS_PER_DAY, masks, 0, kept);
+        Arrays.fill(masks, kept, masks.length, (short) 0);
+        firstDay += drop;
+    }
+
+    /**
+     * Returns the epoch day of the first day the schedule covers.
+     *
+     * @return The first covered day, or 0 if nothing has been booked.
+     */
+    public int getFirstDay() {
+        return firstDay;
+    }
+
+    /**
+     * Computes the array index of a (day, location, room) cell.
+     *
+     * @param day The day, relative to firstDay.
+     * @param location The location of the room.
+     * @param room The radiology room.
+     * @return The index of the cell in masks.
+     */
+    private static int cell(int day, Location location, Radiology room) {
+        return day * CELLS_PER_DAY + location.ordinal() * ROOMS + room.ordinal();
+    }
+
+    /**
+     * Grows the covered range of days so that it includes an epoch day.
+     * The range grows by half again of its size so a run of bookings moves data O(1) times per day.
+     *
+     * @param epochDay The epoch day that must be covered.
+     */
+    private void cover(int epochDay) {
+        if (days == 0) {
+            firstDay = epochDay;
+            days = INITIAL_DAYS;
+            masks = new short[days * CELLS_PER_DAY];
+            return;
+        }
+        if (epochDay >= firstDay && epochDay < firstDay + days) {
+            return;
+        }
+        int extra = Math.max(days / 2, 1);
+        int newFirstDay = firstDay;
+        int newEnd = firstDay + days;
+        if (epochDay < firstDay) {
+            newFirstDay = Math.min(epochDay, firstDay - extra);
+        } else {
+            newEnd = Math.max(epochDay + 1, newEnd + extra);
+        }
+        int newDays = newEnd - newFirstDay;
+        short[] newMasks = new short[newDays * CELLS_PER_DAY];
+        System.arraycopy(masks, 0, newMasks, (firstDay - newFirstDay) * CELLS_PER_DAY, masks.length);
+        masks = newMasks;
+        firstDay = newFirstDay;
+        days = newDays;
+    }
+}
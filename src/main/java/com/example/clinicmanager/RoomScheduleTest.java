@@ -0,0 +1,53 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for booking imaging rooms in the RoomSchedule class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class RoomScheduleTest {
+    private final RoomSchedule rooms = new RoomSchedule();
+    private final Timeslot slot = Timeslot.getTimeslot(4);
+
+    /**
+     * Test case for a room being busy only at its location, day and timeslot.
+     */
+    @Test
+    public void testBookAndRelease() {
+        Date date = new Date(2025, 3, 4);
+        assertTrue(rooms.book(Location.EDISON, date, Radiology.XRAY, slot));
+        assertFalse(rooms.book(Location.EDISON, date, Radiology.XRAY, slot));
+        assertTrue(rooms.isAvailable(Location.CLARK, date, Radiology.XRAY, slot));
+        assertTrue(rooms.isAvailable(Location.EDISON, date, Radiology.CATSCAN, slot));
+
+        rooms.release(Location.EDISON, date, Radiology.XRAY, slot);
+        assertTrue(rooms.isAvailable(Location.EDISON, date, Radiology.XRAY, slot));
+    }
+
+    /**
+     * Test case for pruning sliding the covered days forward and keeping the later bookings.
+     */
+    @Test
+    public void testPruneBefore() {
+        for (int day = 1; day <= 20; day++) {
+            rooms.book(Location.EDISON, new Date(2025, 3, day), Radiology.XRAY, slot);
+        }
+        Date first = new Date(2025, 3, 11);
+        rooms.pruneBefore(first);
+        assertEquals(first.toEpochDay(), rooms.getFirstDay());
+        assertTrue(rooms.isAvailable(Location.EDISON, new Date(2025, 3, 5), Radiology.XRAY, slot));
+        assertFalse(rooms.isAvailable(Location.EDISON, new Date(2025, 3, 15), Radiology.XRAY, slot));
+
+        Date later = Date.ofEpochDay(first.toEpochDay() + 190);
+        assertTrue(rooms.isAvailable(Location.EDISON, later, Radiology.XRAY, slot));
+        assertTrue(rooms.book(Location.EDISON, later, Radiology.XRAY, slot));
+        assertFalse(rooms.isAvailable(Location.EDISON, new Date(2025, 3, 20), Radiology.XRAY, slot));
+
+        rooms.pruneBefore(Date.ofEpochDay(later.toEpochDay() + 1));
+        assertTrue(rooms.isAvailable(Location.EDISON, later, Radiology.XRAY, slot));
+    }
+}
@@ -0,0 +1,426 @@
+package com.example.clinicmanager;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Reads the provider roster, one provider per line, into a registry.
+ * A doctor line is "D first last MM/DD/YYYY location specialty npi" and a technician line is
+ * "T first last MM/DD/YYYY location rate". Fields are separated by spaces or tabs.
+ * The roster is memory-mapped and tokenized in place: a token is a start and end offset into the mapped
+ * bytes, dates and rates are parsed from the bytes through a digit table, and locations and specialties
+ * are found in hash tables of their names without building a String. Only the names and NPIs of the
+ * providers are copied out. A malformed line is reported with its line number and skipped.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class RosterLoader {
+    /**
+     * The name of the roster resource, next to this class on the classpath.
+     */
+    public static final String DEFAULT_RESOURCE = "providers.txt";
+
+    private static final int MAX_FIELDS = 7;       // Fields of a doctor line
+    private static final int TECHNICIAN_FIELDS = 6; // Fields of a technician line
+    private static final byte[] DIGIT = new byte[256]; // The value of an ASCII digit, or -1
+    private static final byte[] UPPER = new byte[256]; // The upper case of an ASCII letter, other bytes unchanged
+    private static final NameTable<Location> LOCATIONS;
+    private static final NameTable<Specialty> SPECIALTIES;
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            DIGIT[b] = (byte) (b >= '0' && b <= '9' ? b - '0' : -1);
+            UPPER[b] = (byte) (b >= 'a' && b <= 'z' ? b - ('a' - 'A') : b);
+        }
+        LOCATIONS = new NameTable<>(Location.values());
+        SPECIALTIES = new NameTable<>(Specialty.values());
+    }
+
+    private final ByteBuffer data;        // The roster bytes
+    private final List<String> errors;    // Problems found in the roster, in file order
+    private final int[] starts = new int[MAX_FIELDS + 1]; // Start offsets of the fields of the current line
+    private final int[] ends = new int[MAX_FIELDS + 1];   // End offsets of the fields of the current line
+    private int lineNumber;               // Number of the current line, from 1
+
+    /**
+     * Constructor to create a loader.
+     *
+     * @param data The roster bytes, from position 0 to the limit.
+     * @param errors The list the problems found in the roster are added to.
+     */
+    private RosterLoader(ByteBuffer data, List<String> errors) {
+        this.data = data;
+        this.errors = errors;
+    }
+
+    /**
+     * Hash table of the names of enum constants, looked up by a range of bytes, ignoring case.
+     *
+     * @param <E> The enum type.
+     */
+    private static final class NameTable<E extends Enum<E>> {
+        private final byte[][] names; // Upper case names of the constants, by slot; null when the slot is free
+        private final Object[] values; // The constants, by slot
+        private final int mask;
+
+        /**
+         * Constructor to build the table of a set of constants.
+         *
+         * @param constants The enum constants.
+         */
+        NameTable(E[] constants) {
+            int capacity = Integer.highestOneBit(constants.length * 4 - 1) << 1;
+            names = new byte[capacity][];
+            values = new Object[capacity];
+            mask = capacity - 1;
+            for (E constant : constants) {
+                byte[] name = constant.name().getBytes(StandardCharsets.US_ASCII);
+                int slot = hash(ByteBuffer.wrap(name), 0, name.length) & mask;
+                while (names[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                names[slot] = name;
+                values[slot] = constant;
+            }
+        }
+
+        /**
+         * Finds the constant named by a range of bytes.
+         *
+         * @param data The bytes.
+         * @param start The offset of the first byte of the name.
+         * @param end The offset after the last byte of the name.
+         * @return The constant, or null if no constant has that name.
+         */
+        @SuppressWarnings("unchecked")
+        E find(ByteBuffer data, int start, int end) {
+            for (int slot = hash(data, start, end) & mask; names[slot] != null; slot = (slot + 1) & mask) {
+                if (matches(names[slot], data, start, end)) {
+                    return (E) values[slot];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Hashes a range of bytes, ignoring case.
+         *
+         * @param data The bytes.
+         * @param start The offset of the first byte.
+         * @param end The offset after the last byte.
+         * @return The hash.
+         */
+        private static int hash(ByteBuffer data, int start, int end) {
+            int hash = end - start;
+            for (int i = start; i < end; i++) {
+                hash = hash * 31 + UPPER[data.get(i) & 0xFF];
+            }
+            return hash ^ (hash >>> 16);
+        }
+
+        /**
+         * Checks whether a range of bytes spells an upper case name, ignoring case.
+         *
+         * @param name The upper case name.
+         * @param data The bytes.
+         * @param start The offset of the first byte.
+         * @param end The offset after the last byte.
+         * @return true if the bytes spell the name.
+         */
+        private static boolean matches(byte[] name, ByteBuffer data, int start, int end) {
+            if (name.length != end - start) {
+                return false;
+            }
+            for (int i = 0; i < name.length; i++) {
+                if (UPPER[data.get(start + i) & 0xFF] != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Loads the providers of a roster file, memory-mapping the file.
+     *
+     * @param file The roster file.
+     * @param errors The list the problems found in the roster are added to.
+     * @return The registry of the providers, in file order.
+     * @throws IOException If the file cannot be read.
+     */
+    public static ProviderRegistry load(Path file, List<String> errors) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), errors);
+        }
+    }
+
+    /**
+     * Loads the providers of a roster on the classpath, next to this class. A resource in a directory is
+     * memory-mapped like a file; a resource in a jar is read into memory.
+     *
+     * @param name The name of the resource.
+     * @param errors The list the problems found in the roster are added to.
+     * @return The registry of the providers, in file order.
+     * @throws IOException If the resource does not exist or cannot be read.
+     */
+    public static ProviderRegistry loadResource(String name, List<String> errors) throws IOException {
+        URL url = RosterLoader.class.getResource(name);
+        if (url == null) {
+            throw new FileNotFoundException(name);
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return load(Paths.get(url.toURI()), errors);
+            } catch (URISyntaxException e) {
+                // Not a usable path; read the resource through its stream instead
+            }
+        }
+        try (InputStream in = url.openStream()) {
+            return parse(ByteBuffer.wrap(in.readAllBytes()), errors);
+        }
+    }
+
+    /**
+     * Parses the providers of a roster held in a buffer.
+     *
+     * @param data The roster bytes, from position 0 to the limit.
+     * @param errors The list the problems found in the roster are added to.
+     * @return The registry of the providers, in file order.
+     */
+    public static ProviderRegistry parse(ByteBuffer data, List<String> errors) {
+        RosterLoader loader = new RosterLoader(data, errors);
+        ProviderRegistry registry = new ProviderRegistry();
+        int limit = data.limit();
+        int start = 0;
+        while (start < limit) {
+            int end = start;
+            while (end < limit && data.get(end) != '\n') {
+                end++;
+            }
+            loader.lineNumber++;
+            Provider provider = loader.parseLine(start, end);
+            if (provider != null) {
+                registry.add(provider);
+            }
+            start = end + 1;
+        }
+        return registry;
+    }
+
+    /**
+     * Parses a single provider line.
+     *
+     * @param start The offset of the first byte of the line.
+     * @param end The offset of the line break, or the end of the data.
+     * @return The provider, or null if the line is blank or malformed.
+     */
+    private Provider parseLine(int start, int end) {
+        int fields = split(start, end);
+        if (fields == 0) {
+            return null;
+        }
+        byte type = ends[0] - starts[0] == 1 ? UPPER[data.get(starts[0]) & 0xFF] : 0;
+        if (type != 'D' && type != 'T') {
+            return reject("Invalid provider type", 0);
+        }
+        boolean doctor = type == 'D';
+        int expected = doctor ? MAX_FIELDS : TECHNICIAN_FIELDS;
+        if (fields != expected) {
+            return reject("Expected " + expected + " fields, found " + (fields > MAX_FIELDS ? "more" : fields), -1);
+        }
+
+        Date dob = parseDate(starts[3], ends[3]);
+        if (dob == null) {
+            return reject("Invalid date of birth", 3);
+        }
+        Location location = LOCATIONS.find(data, starts[4], ends[4]);
+        if (location == null) {
+            return reject("Invalid location", 4);
+        }
+        Profile profile = new Profile(text(1), text(2), dob);
+
+        if (doctor) {
+            Specialty specialty = SPECIALTIES.find(data, starts[5], ends[5]);
+            if (specialty == null) {
+                return reject("Invalid specialty", 5);
+            }
+            return new Doctor(profile, location, specialty, text(6));
+        }
+        int rate = parseNumber(starts[5], ends[5]);
+        if (rate < 0) {
+            return reject("Invalid rate", 5);
+        }
+        return new Technician(profile, location, rate);
+    }
+
+    /**
+     * Splits a line into fields separated by spaces, tabs or a trailing carriage return.
+     * Stops counting one past the longest line so that extra text is detected without scanning it.
+     *
+     * @param start The offset of the first byte of the line.
+     * @param end The offset after the last byte of the line.
+     * @return The number of fields, at most one more than a doctor line has.
+     */
+    private int split(int start, int end) {
+        int fields = 0;
+        int i = start;
+        while (fields <= MAX_FIELDS) {
+            while (i < end && isSpace(data.get(i))) {
+                i++;
+            }
+            if (i == end) {
+                break;
+            }
+            starts[fields] = i;
+            while (i < end && !isSpace(data.get(i))) {
+                i++;
+            }
+            ends[fields++] = i;
+        }
+        return fields;
+    }
+
+    /**
+     * Checks whether a byte separates fields.
+     *
+     * @param b The byte.
+     * @return true for a space, tab or carriage return.
+     */
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Parses a date of the form M/D/YYYY, with one or two digit months and days, from a field.
+     *
+     * @param start The offset of the first byte of the field.
+     * @param end The offset after the last byte of the field.
+     * @return The date, or null if the field is not a valid date.
+     */
+    private Date parseDate(int start, int end) {
+        int i = start;
+        int month = 0;
+        int digits = 0;
+        for (int d; i < end && (d = DIGIT[data.get(i) & 0xFF]) >= 0; i++, digits++) {
+            month = month * 10 + d;
+        }
+        if (digits == 0 || digits > 2 || i == end || data.get(i++) != '/') {
+            return null;
+        }
+        int day = 0;
+        digits = 0;
+        for (int d; i < end && (d = DIGIT[data.get(i) & 0xFF]) >= 0; i++, digits++) {
+            day = day * 10 + d;
+        }
+        if (digits == 0 || digits > 2 || i == end || data.get(i++) != '/') {
+            return null;
+        }
+        if (end - i != 4) {
+            return null;
+        }
+        int year = parseNumber(i, end);
+        if (year < 0) {
+            return null;
+        }
+        Date date = new Date(year, month, day);
+        return date.isValid() ? date : null;
+    }
+
+    /**
+     * Parses a non-negative number of at most nine digits from a field.
+     *
+     * @param start The offset of the first byte of the field.
+     * @param end The offset after the last byte of the field.
+     * @return The number, or -1 if the field is not a number.
+     */
+    private int parseNumber(int start, int end) {
+        if (start == end || end - start > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int d = DIGIT[data.get(i) & 0xFF];
+            if (d < 0) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    /**
+     * Copies a field of the current line out as text.
+     *
+     * @param field The index of the field.
+     * @return The text of the field.
+     */
+    private String text(int field) {
+        byte[] bytes = new byte[ends[field] - starts[field]];
+        data.get(starts[field], bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reports a malformed line.
+     *
+     * @param problem The problem with the line.
+     * @param field The index of the field at fault, or -1 to name the line only.
+     * @return null, so that a parser can return the result directly.
+     */
+    private Provider reject(String problem, int field) {
+        errors.add(field < 0 ? problem + " (line " + lineNumber + ")"
+                : problem + ": " + text(field) + " (line " + lineNumber + ")");
+        return null;
+    }
+
+    /**
+     * Main testbed method: writes a roster of 200,000 providers and times loading it a few times.
+     *
+     * @param args Not used.
+     * @throws IOException If the roster cannot be written or read.
+     */
+    public static void main(String[] args) throws IOException {
+        int count = 200_000;
+        Path roster = Files.createTempFile("roster", ".txt");
+        Random random = new Random(25);
+        String[] names = {"ANDREW", "RACHAEL", "MONICA", "JOHN", "TOM", "ERIC", "BEN", "JUSTIN", "GARY", "FRANK"};
+        Location[] locations = Location.values();
+        Specialty[] specialties = Specialty.values();
+        StringBuilder text = new StringBuilder(count * 56);
+        for (int i = 0; i < count; i++) {
+            String name = names[random.nextInt(names.length)] + "  " + names[random.nextInt(names.length)] + i;
+            String dob = (1 + random.nextInt(12)) + "/" + (1 + random.nextInt(28)) + "/" + (1950 + random.nextInt(50));
+            String location = locations[random.nextInt(locations.length)].name();
+            if (random.nextInt(4) == 0) {
+                text.append("T  ").append(name).append("  ").append(dob).append("  ").append(location)
+                        .append("  ").append(100 + random.nextInt(100)).append('\n');
+            } else {
+                text.append("D  ").append(name).append("  ").append(dob).append("  ").append(location)
+                        .append("  ").append(specialties[random.nextInt(specialties.length)].name())
+                        .append("  ").append(i).append('\n');
+            }
+        }
+        Files.write(roster, text.toString().getBytes(StandardCharsets.US_ASCII));
+        try {
+            for (int round = 0; round < 5; round++) {
+                long begin = System.nanoTime();
+                ProviderRegistry registry = load(roster, new List<>());
+                long elapsed = System.nanoTime() - begin;
+                System.out.printf("round %d: %d providers in %d ms%n", round, registry.size(), elapsed / 1_000_000);
+            }
+        } finally {
+            Files.delete(roster);
+        }
+    }
+}
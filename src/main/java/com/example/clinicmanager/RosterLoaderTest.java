@@ -0,0 +1,100 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the RosterLoader class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class RosterLoaderTest {
+    private final List<String> errors = new List<>();
+
+    /**
+     * Parses roster text.
+     *
+     * @param text The roster text.
+     * @return The registry of the providers.
+     */
+    private ProviderRegistry parse(String text) {
+        return RosterLoader.parse(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)), errors);
+    }
+
+    /**
+     * Test case for doctor and technician lines, with mixed case, tabs, blank lines and CRLF line ends.
+     */
+    @Test
+    public void testProviderLines() {
+        ProviderRegistry registry = parse("D  ANDREW  PATEL  01/21/1989  BRIDGEWATER  FAMILY  01\r\n"
+                + "\r\n"
+                + "d\tRachael\tLim\t5/23/1985\tbridgewater\tPediatrician\t23\n"
+                + "  T  FRANK  LIN  6/24/1999  PISCATAWAY  120");
+
+        assertEquals(0, errors.size());
+        assertEquals(3, registry.size());
+        Doctor patel = registry.findDoctorByNpi("01");
+        assertEquals(new Profile("ANDREW", "PATEL", new Date(1989, 1, 21)), patel.getProfile());
+        assertEquals(Location.BRIDGEWATER, patel.getLocation());
+        assertEquals(Specialty.FAMILY, patel.getSpecialty());
+        assertEquals(Specialty.PEDIATRICIAN, registry.findDoctorByNpi("23").getSpecialty());
+        Technician lin = registry.getTechnicians().get(0);
+        assertEquals(new Profile("FRANK", "LIN", new Date(1999, 6, 24)), lin.getProfile());
+        assertEquals(Location.PISCATAWAY, lin.getLocation());
+        assertEquals(120, lin.rate());
+    }
+
+    /**
+     * Test case for malformed lines being reported with their line numbers and skipped.
+     */
+    @Test
+    public void testMalformedLines() {
+        ProviderRegistry registry = parse("D  ANDREW  PATEL  01/21/1989  BOSTON  FAMILY  01\n"
+                + "D  ANDREW  PATEL  01/21/1989  EDISON  SURGEON  01\n"
+                + "D  ANDREW  PATEL  02/30/1989  EDISON  FAMILY  01\n"
+                + "D  ANDREW  PATEL  1989-01-21  EDISON  FAMILY  01\n"
+                + "T  FRANK  LIN  6/24/1999  PISCATAWAY  12O\n"
+                + "T  FRANK  LIN  6/24/1999  PISCATAWAY\n"
+                + "T  FRANK  LIN  6/24/1999  PISCATAWAY  120  EXTRA\n"
+                + "X  FRANK  LIN  6/24/1999  PISCATAWAY  120\n"
+                + "T  FRANK  LIN  6/24/1999  PISCATAWAY  120\n");
+
+        assertEquals(1, registry.size());
+        assertEquals(8, errors.size());
+        assertEquals("Invalid location: BOSTON (line 1)", errors.get(0));
+        assertEquals("Invalid specialty: SURGEON (line 2)", errors.get(1));
+        assertEquals("Invalid date of birth: 02/30/1989 (line 3)", errors.get(2));
+        assertEquals("Invalid date of birth: 1989-01-21 (line 4)", errors.get(3));
+        assertEquals("Invalid rate: 12O (line 5)", errors.get(4));
+        assertEquals("Expected 6 fields, found 5 (line 6)", errors.get(5));
+        assertEquals("Expected 6 fields, found 7 (line 7)", errors.get(6));
+        assertEquals("Invalid provider type: X (line 8)", errors.get(7));
+    }
+
+    /**
+     * Test case for a memory-mapped file and the classpath roster loading the same providers.
+     */
+    @Test
+    public void testFileAndResource() throws IOException {
+        ProviderRegistry resource = RosterLoader.loadResource(RosterLoader.DEFAULT_RESOURCE, errors);
+        assertTrue(resource.size() > 0);
+
+        Path file = Files.createTempFile("roster", ".txt");
+        try (InputStream in = RosterLoader.class.getResourceAsStream(RosterLoader.DEFAULT_RESOURCE)) {
+            Files.write(file, in.readAllBytes());
+            ProviderRegistry mapped = RosterLoader.load(file, errors);
+            assertEquals(resource.fingerprint(), mapped.fingerprint());
+        } finally {
+            Files.delete(file);
+        }
+        assertEquals(0, errors.size());
+    }
+}
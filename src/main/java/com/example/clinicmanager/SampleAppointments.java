@@ -0,0 +1,41 @@
+package com.example.clinicmanager;
+
+import java.util.Random;
+
+/**
+ * Random schedules for the tests and the benchmarks. Not used by the application itself.
+ *
+ * @author Varun Bondugula + Sinan Merchant
+ */
+final class SampleAppointments {
+
+    /**
+     * Builds a random schedule of office appointments with 40 doctors across every location.
+     *
+     * @param count The number of appointments to create.
+     * @param random The source of randomness.
+     * @return A list of random office appointments.
+     */
+    static List<Appointment> random(int count, Random random) {
+        String[] names = {"ANDREW", "RACHAEL", "MONICA", "JOHN", "TOM", "ERIC", "BEN", "JUSTIN", "GARY", "FRANK"};
+        Location[] locations = Location.values();
+        Specialty[] specialties = Specialty.values();
+        Provider[] providers = new Provider[40];
+        for (int i = 0; i < providers.length; i++) {
+            Profile profile = new Profile(names[i % names.length], names[(i * 7) % names.length],
+                    new Date(1960 + i, 1 + i % 12, 1 + i % 28));
+            providers[i] = new Doctor(profile, locations[i % locations.length],
+                    specialties[i % specialties.length], String.format("%02d", i));
+        }
+
+        List<Appointment> list = new List<>(count);
+        for (int i = 0; i < count; i++) {
+            Profile patient = new Profile(names[random.nextInt(names.length)], names[random.nextInt(names.length)],
+                    new Date(1950 + random.nextInt(60), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            Date date = new Date(2024 + random.nextInt(2), 1 + random.nextInt(12), 1 + random.nextInt(28));
+            list.add(new Appointment(date, Timeslot.getTimeslot(1 + random.nextInt(12)), new Person(patient),
+                    providers[random.nextInt(providers.length)]));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.clinicmanager;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Ordered views of the scheduled appointments, kept up to date as appointments are added and removed.
+ * There is one view per report order: by date/time/provider, by patient, by location, and the office
+ * and imaging appointments each by county. Every view is a balanced search tree, so scheduling or
+ * cancelling an appointment costs O(log n) per view and printing a report is a plain walk of its view.
+ * The report orders can rank two appointments equally, so each view breaks ties by date, timeslot and
+ * patient, which is unique for every appointment on the schedule. Empty views can also be filled in bulk,
+ * by sorting the appointments once per view and building each tree from the sorted run in linear time.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class ScheduleViews {
+    private static final Comparator<Appointment> BY_PATIENT = Comparator.comparing(Appointment::getPatient);
+
+    private final TreeSet<Appointment> byDate;
+    private final TreeSet<Appointment> byPatient;
+    private final TreeSet<Appointment> byLocation;
+    private final TreeSet<Appointment> office;
+    private final TreeSet<Appointment> imaging;
+
+    /**
+     * Constructor to create empty views.
+     */
+    public ScheduleViews() {
+        byDate = new TreeSet<>(totalOrder('A'));
+        byPatient = new TreeSet<>(totalOrder('P'));
+        byLocation = new TreeSet<>(totalOrder('L'));
+        office = new TreeSet<>(totalOrder('O'));
+        imaging = new TreeSet<>(totalOrder('I'));
+    }
+
+    /**
+     * Adds an appointment to every view it belongs to.
+     *
+     * @param appointment The appointment to add.
+     */
+    public void add(Appointment appointment) {
+        byDate.add(appointment);
+        byPatient.add(appointment);
+        byLocation.add(appointment);
+        (appointment instanceof Imaging ? imaging : office).add(appointment);
+    }
+
+    /**
+     * Adds many appointments to every view they belong to. When the views are empty, each view is built
+     * from a copy of the appointments sorted with Sort.appointment(), which radix sorts large lists and
+     * sorts very large ones on the fork-join pool, instead of inserting the appointments one at a time.
+     *
+     * @param appointments The appointments to add, none of them already in the views.
+     */
+    public void addAll(List<Appointment> appointments) {
+        if (size() > 0) {
+            for (Appointment appointment : appointments) {
+                add(appointment);
+            }
+            return;
+        }
+        // Sort by patient first: each report sort is stable, so appointments it ranks equally
+        // stay in patient order, which is how the views break those ties
+        List<Appointment> byPatientFirst = new List<>(appointments.size());
+        byPatientFirst.addAll(appointments);
+        Sort.appointment(byPatientFirst, BY_PATIENT);
+        List<Appointment> offices = new List<>();
+        List<Appointment> imagings = new List<>();
+        for (Appointment appointment : byPatientFirst) {
+            (appointment instanceof Imaging ? imagings : offices).add(appointment);
+        }
+        fill(byDate, byPatientFirst, 'A');
+        fill(byPatient, byPatientFirst, 'P');
+        fill(byLocation, byPatientFirst, 'L');
+        fill(office, offices, 'O');
+        fill(imaging, imagings, 'I');
+    }
+
+    /**
+     * Removes an appointment from every view it belongs to.
+     *
+     * @param appointment The appointment to remove.
+     */
+    public void remove(Appointment appointment) {
+        byDate.remove(appointment);
+        byPatient.remove(appointment);
+        byLocation.remove(appointment);
+        (appointment instanceof Imaging ? imaging : office).remove(appointment);
+    }
+
+    /**
+     * Returns the appointments in the order of a sort key.
+     *
+     * @param key The sorting key ('P', 'L', 'A', 'O', 'I'); 'O' and 'I' hold only office or imaging appointments.
+     * @return A read-only view of the appointments in that order.
+     * @throws IllegalArgumentException If the key is not a valid sort key.
+     */
+    public Iterable<Appointment> get(char key) {
+        switch (key) {
+            case 'A':
+                return Collections.unmodifiableSet(byDate);
+            case 'P':
+                return Collections.unmodifiableSet(byPatient);
+            case 'L':
+                return Collections.unmodifiableSet(byLocation);
+            case 'O':
+                return Collections.unmodifiableSet(office);
+            case 'I':
+                return Collections.unmodifiableSet(imaging);
+            default:
+                throw new IllegalArgumentException("Invalid sort key");
+        }
+    }
+
+    /**
+     * Copies the appointments of a view, in order, so they can be read while the views keep changing.
+     *
+     * @param key The sorting key ('P', 'L', 'A', 'O', 'I').
+     * @return A new list of the appointments in that order.
+     * @throws IllegalArgumentException If the key is not a valid sort key.
+     */
+    public List<Appointment> snapshot(char key) {
+        List<Appointment> copy = new List<>(byDate.size());
+        for (Appointment appointment : get(key)) {
+            copy.add(appointment);
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the number of appointments in the views.
+     *
+     * @return The number of appointments.
+     */
+    public int size() {
+        return byDate.size();
+    }
+
+    /**
+     * Removes every appointment from the views.
+     */
+    public void clear() {
+        byDate.clear();
+        byPatient.clear();
+        byLocation.clear();
+        office.clear();
+        imaging.clear();
+    }
+
+    /**
+     * Fills an empty view from a sorted copy of some appointments.
+     * The sorted run is checked against the view's ordering first; if two neighbours are out of order,
+     * which only happens if appointments are duplicated, the view is filled one insertion at a time.
+     *
+     * @param view The empty view.
+     * @param appointments The appointments, in the same order for equal sort keys as the view breaks ties.
+     * @param key The sort key of the view.
+     */
+    private static void fill(TreeSet<Appointment> view, List<Appointment> appointments, char key) {
+        List<Appointment> sorted = new List<>(appointments.size());
+        sorted.addAll(appointments);
+        Sort.appointment(sorted, key, true);
+        Comparator<? super Appointment> order = view.comparator();
+        for (int i = 1; i < sorted.size(); i++) {
+            if (order.compare(sorted.get(i - 1), sorted.get(i)) >= 0) {
+                for (Appointment appointment : sorted) {
+                    view.add(appointment);
+                }
+                return;
+            }
+        }
+        view.addAll(new SortedRun(sorted, order));
+    }
+
+    /**
+     * Read-only sorted set over a list already in the order of a view.
+     * TreeSet.addAll() builds an empty tree from a sorted set with the same comparator in linear time,
+     * reading only its size and iterator.
+     */
+    private static final class SortedRun extends AbstractSet<Appointment> implements SortedSet<Appointment> {
+        private final List<Appointment> appointments;
+        private final Comparator<? super Appointment> order;
+
+        /**
+         * Constructor to wrap a sorted list.
+         *
+         * @param appointments The appointments, in strictly increasing order.
+         * @param order The ordering of the list.
+         */
+        SortedRun(List<Appointment> appointments, Comparator<? super Appointment> order) {
+            this.appointments = appointments;
+            this.order = order;
+        }
+
+        /**
+         * Returns an iterator over the appointments in order.
+         *
+         * @return The iterator.
+         */
+        @Override
+        public Iterator<Appointment> iterator() {
+            return appointments.iterator();
+        }
+
+        /**
+         * Returns the number of appointments.
+         *
+         * @return The number of appointments.
+         */
+        @Override
+        public int size() {
+            return appointments.size();
+        }
+
+        /**
+         * Returns the ordering of the appointments.
+         *
+         * @return The comparator of the view the run was sorted for.
+         */
+        @Override
+        public Comparator<? super Appointment> comparator() {
+            return order;
+        }
+
+        /**
+         * Returns the first appointment.
+         *
+         * @return The first appointment.
+         */
+        @Override
+        public Appointment first() {
+            return appointments.get(0);
+        }
+
+        /**
+         * Returns the last appointment.
+         *
+         * @return The last appointment.
+         */
+        @Override
+        public Appointment last() {
+            return appointments.get(appointments.size() - 1);
+        }
+
+        /**
+         * Not supported; the run is only read whole.
+         *
+         * @param from The low end.
+         * @param to The high end.
+         * @return Never returns.
+         */
+        @Override
+        public SortedSet<Appointment> subSet(Appointment from, Appointment to) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Not supported; the run is only read whole.
+         *
+         * @param to The high end.
+         * @return Never returns.
+         */
+        @Override
+        public SortedSet<Appointment> headSet(Appointment to) {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Not supported; the run is only read whole.
+         *
+         * @param from The low end.
+         * @return Never returns.
+         */
+        @Override
+        public SortedSet<Appointment> tailSet(Appointment from) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Extends the ordering of a sort key so that no two scheduled appointments compare equal.
+     *
+     * @param key The sorting key.
+     * @return The report ordering, with ties broken by date, timeslot and patient.
+     */
+    private static Comparator<Appointment> totalOrder(char key) {
+        return Sort.comparator(key)
+                .thenComparing(Appointment::getDate)
+                .thenComparing(Appointment::getTimeslot)
+                .thenComparing(Appointment::getPatient);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the ScheduleViews class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class ScheduleViewsTest {
+
+    /**
+     * Test case for the views staying ordered and complete as appointments are added and removed.
+     */
+    @Test
+    public void testViewsAfterAddAndRemove() {
+        AppointmentIndex index = new AppointmentIndex();
+        ScheduleViews views = new ScheduleViews();
+        List<Appointment> scheduled = new List<>();
+        for (Appointment appointment : SampleAppointments.random(2000, new Random(16))) {
+            if (!index.contains(appointment)) {
+                index.add(appointment);
+                views.add(appointment);
+                scheduled.add(appointment);
+            }
+        }
+        for (int i = scheduled.size() - 1; i >= 0; i -= 3) {
+            views.remove(scheduled.get(i));
+            scheduled.removeAt(i);
+        }
+
+        assertEquals(scheduled.size(), views.size());
+        for (char key : new char[] {'A', 'P', 'L'}) {
+            assertOrdered(views.get(key), Sort.comparator(key), scheduled.size());
+        }
+        assertOrdered(views.get('O'), Sort.comparator('O'), scheduled.size());
+        assertFalse(views.get('I').iterator().hasNext());
+    }
+
+    /**
+     * Test case for views filled in bulk, partly with the parallel sort, matching views filled one appointment at a time.
+     */
+    @Test
+    public void testAddAllMatchesAdd() {
+        Technician technician = new Technician(new Profile("Jane", "Smith", new Date(1980, 3, 15)), Location.EDISON, 125);
+        AppointmentIndex index = new AppointmentIndex();
+        List<Appointment> scheduled = new List<>();
+        int i = 0;
+        for (Appointment appointment : SampleAppointments.random(3000, new Random(17))) {
+            if (i++ % 4 == 0) {
+                appointment = new Imaging(appointment.getDate(), appointment.getTimeslot(), appointment.getPatient(),
+                        technician, Radiology.XRAY);
+            }
+            if (!index.contains(appointment)) {
+                index.add(appointment);
+                scheduled.add(appointment);
+            }
+        }
+        ScheduleViews bulk = new ScheduleViews();
+        int threshold = Sort.getParallelThreshold();
+        Sort.setParallelThreshold(1000); // Take the fork-join path for the larger views
+        try {
+            bulk.addAll(scheduled);
+        } finally {
+            Sort.setParallelThreshold(threshold);
+        }
+        ScheduleViews single = new ScheduleViews();
+        for (Appointment appointment : scheduled) {
+            single.add(appointment);
+        }
+
+        for (char key : new char[] {'A', 'P', 'L', 'O', 'I'}) {
+            List<Appointment> expected = single.snapshot(key);
+            List<Appointment> actual = bulk.snapshot(key);
+            assertEquals(expected.size(), actual.size());
+            for (int j = 0; j < expected.size(); j++) {
+                assertSame(expected.get(j), actual.get(j));
+            }
+        }
+        bulk.remove(scheduled.get(0));
+        bulk.add(scheduled.get(0));
+        assertEquals(scheduled.size(), bulk.size());
+    }
+
+    /**
+     * Test case for an invalid view key.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidKey() {
+        new ScheduleViews().get('X');
+    }
+
+    /**
+     * Checks that a view holds the expected number of appointments in non-decreasing order.
+     *
+     * @param view The view to check.
+     * @param comparator The order of the view.
+     * @param expectedSize The number of appointments the view should hold.
+     */
+    private static void assertOrdered(Iterable<Appointment> view, Comparator<Appointment> comparator, int expectedSize) {
+        Appointment previous = null;
+        int count = 0;
+        for (Appointment appointment : view) {
+            if (previous != null) {
+                assertTrue(comparator.compare(previous, appointment) <= 0);
+            }
+            previous = appointment;
+            count++;
+        }
+        assertEquals(expectedSize, count);
+    }
+}
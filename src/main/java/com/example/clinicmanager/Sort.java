@@ -1,12 +1,30 @@
 package com.example.clinicmanager;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * Utility class to handle sorting of appointments and providers based on various keys.
  * This class provides static methods to sort lists of appointments and providers.
+ * Sorting is done with a stable merge sort that works directly on the backing array of the List,
+ * so equal elements keep the order they had before the sort. Large lists ordered by date or county
+ * are radix sorted on packed primitive keys instead.
  *
  * @author Varun Bondugula + Sinan Merchant
  */
 public class Sort {
+    private static final int INSERTION_SORT_THRESHOLD = 32; // Runs this short are insertion sorted
+    private static final int RADIX_SORT_THRESHOLD = 256;    // Lists this short are merge sorted
+    private static final int RADIX_DIGIT_BITS = 8;
+    private static final int RADIX_BUCKETS = 1 << RADIX_DIGIT_BITS;
+    private static final int SLOT_BITS = 4;                 // Timeslot ordinals, below 12
+    private static final int COUNTY_BITS = 3;
+    private static final int[] COUNTY_RANK = countyRanks();
+    private static final int PARALLEL_GRANULARITY = 8192;   // Ranges this short are sorted by one task
+    private static volatile int parallelThreshold = 1 << 16;
 
     /**
      * Sorts a list of appointments based on the specified key.
@@ -21,18 +39,78 @@ public class Sort {
      * @param key The sorting key ('P', 'L', 'A', 'O', 'I').
      */
     public static void appointment(List<Appointment> list, char key) {
-        int n = list.size();
-        for (int i = 0; i < n - 1; i++) {
-            for (int j = 0; j < n - i - 1; j++) {
-                Appointment a1 = list.get(j);
-                Appointment a2 = list.get(j + 1);
-                if (compareAppointments(a1, a2, key) > 0) {
-                    // Swap the appointments if they are in the wrong order
-                    Appointment temp = list.get(j);
-                    list.set(j, list.get(j + 1));
-                    list.set(j + 1, temp);
-                }
-            }
+        if (key != 'P' && list.size() >= RADIX_SORT_THRESHOLD) {
+            radixSort(list, key);
+        } else {
+            appointment(list, comparator(key));
+        }
+    }
+
+    /**
+     * Sorts a list of appointments with the given comparator.
+     * The sort is stable, so appointments that compare equal keep their relative order.
+     *
+     * @param list The list of appointments to be sorted.
+     * @param comparator The ordering to apply.
+     */
+    public static void appointment(List<Appointment> list, Comparator<? super Appointment> comparator) {
+        mergeSort(list.elements(), list.size(), comparator);
+    }
+
+    /**
+     * Sorts a list of appointments based on the specified key, optionally in parallel.
+     * In parallel mode, lists at or above the parallel threshold are merge sorted on the common
+     * ForkJoinPool; the result is identical to the sequential sort because both are stable.
+     *
+     * @param list The list of appointments to be sorted.
+     * @param key The sorting key ('P', 'L', 'A', 'O', 'I').
+     * @param parallel True to use the fork-join sort for large lists, false to always sort sequentially.
+     */
+    public static void appointment(List<Appointment> list, char key, boolean parallel) {
+        if (parallel && list.size() >= parallelThreshold && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            parallelMergeSort(list.elements(), list.size(), comparator(key), ForkJoinPool.commonPool());
+        } else {
+            appointment(list, key);
+        }
+    }
+
+    /**
+     * Sets the list size at which the parallel mode starts sorting on the fork-join pool.
+     *
+     * @param threshold The minimum list size for a parallel sort.
+     */
+    public static void setParallelThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Invalid parallel threshold");
+        }
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * Gets the list size at which the parallel mode starts sorting on the fork-join pool.
+     *
+     * @return The minimum list size for a parallel sort.
+     */
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Returns the comparator used for the specified sort key.
+     *
+     * @param key The sorting key ('P', 'L', 'A', 'O', 'I').
+     * @return The comparator that orders appointments for that key.
+     */
+    public static Comparator<Appointment> comparator(char key) {
+        switch (key) {
+            case 'P':
+            case 'L':
+            case 'A':
+            case 'O':
+            case 'I':
+                return (a1, a2) -> compareAppointments(a1, a2, key);
+            default:
+                throw new IllegalArgumentException("Invalid sort key");
         }
     }
 
@@ -124,26 +202,410 @@ public class Sort {
         return compareByDateAndTimeslot(a1, a2);
     }
 
+    /**
+     * Sorts appointments for the 'A', 'L', 'O' and 'I' keys with an LSD radix sort over packed keys.
+     * Each appointment is encoded once into a long holding its county rank (except for 'A'),
+     * epoch day and timeslot. Only runs of equal keys, which share a county, date and timeslot,
+     * are then ordered by the provider name comparison of the key.
+     *
+     * @param list The list of appointments to be sorted.
+     * @param key The sorting key ('L', 'A', 'O', 'I').
+     */
+    private static void radixSort(List<Appointment> list, char key) {
+        Comparator<Appointment> comparator = comparator(key);
+        boolean byCounty = key != 'A';
+        Object[] a = list.elements();
+        int n = list.size();
+
+        long[] keys = new long[n];
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            int day = ((Appointment) a[i]).getDate().toEpochDay();
+            keys[i] = day;
+            minDay = Math.min(minDay, day);
+            maxDay = Math.max(maxDay, day);
+        }
+        int dayBits = 32 - Integer.numberOfLeadingZeros(maxDay - minDay);
+        for (int i = 0; i < n; i++) {
+            Appointment appointment = (Appointment) a[i];
+            long packed = keys[i] - minDay;
+            if (byCounty) {
+                int county = COUNTY_RANK[((Provider) appointment.getProvider()).getLocation().ordinal()];
+                packed |= (long) county << dayBits;
+            }
+            keys[i] = packed << SLOT_BITS | appointment.getTimeslot().ordinal();
+        }
+
+        int[] order = radixSortIndices(keys, SLOT_BITS + dayBits + (byCounty ? COUNTY_BITS : 0));
+        Object[] original = new Object[n];
+        System.arraycopy(a, 0, original, 0, n);
+        for (int i = 0; i < n; i++) {
+            a[i] = original[order[i]];
+        }
+        breakTies(a, keys, comparator);
+    }
+
+    /**
+     * Stable LSD radix sort of the keys, one byte per pass.
+     * Passes where every key has the same digit are skipped.
+     *
+     * @param keys The keys to sort; they are left in sorted order.
+     * @param bits The number of low bits that can differ between keys.
+     * @return The original position of each key in sorted order.
+     */
+    private static int[] radixSortIndices(long[] keys, int bits) {
+        int n = keys.length;
+        long[] sortedKeys = keys;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        long[] keyBuffer = new long[n];
+        int[] orderBuffer = new int[n];
+        int[] count = new int[RADIX_BUCKETS + 1];
+
+        for (int shift = 0; shift < bits; shift += RADIX_DIGIT_BITS) {
+            Arrays.fill(count, 0);
+            for (int i = 0; i < n; i++) {
+                count[(int) (keys[i] >>> shift) & (RADIX_BUCKETS - 1)]++;
+            }
+            if (count[(int) (keys[0] >>> shift) & (RADIX_BUCKETS - 1)] == n) {
+                continue;
+            }
+            int position = 0;
+            for (int d = 0; d < RADIX_BUCKETS; d++) {
+                int bucketSize = count[d];
+                count[d] = position;
+                position += bucketSize;
+            }
+            for (int i = 0; i < n; i++) {
+                int destination = count[(int) (keys[i] >>> shift) & (RADIX_BUCKETS - 1)]++;
+                keyBuffer[destination] = keys[i];
+                orderBuffer[destination] = order[i];
+            }
+            long[] swapKeys = keys;
+            keys = keyBuffer;
+            keyBuffer = swapKeys;
+            int[] swapOrder = order;
+            order = orderBuffer;
+            orderBuffer = swapOrder;
+        }
+        if (keys != sortedKeys) {
+            System.arraycopy(keys, 0, sortedKeys, 0, n);
+        }
+        return order;
+    }
+
+    /**
+     * Orders each run of equal packed keys with the full comparator of the sort key.
+     * The radix sort is stable, so each run is still in its original relative order.
+     *
+     * @param a The array of appointments, in packed key order.
+     * @param keys The packed keys, in sorted order.
+     * @param comparator The comparator of the sort key.
+     */
+    @SuppressWarnings("unchecked")
+    private static void breakTies(Object[] a, long[] keys, Comparator<Appointment> comparator) {
+        Comparator<Object> c = (Comparator<Object>) (Comparator<?>) comparator;
+        Object[] buffer = null;
+        int n = keys.length;
+        int start = 0;
+        while (start < n) {
+            int end = start + 1;
+            while (end < n && keys[end] == keys[start]) {
+                end++;
+            }
+            int length = end - start;
+            if (length > INSERTION_SORT_THRESHOLD) {
+                if (buffer == null || buffer.length < (length + 1) / 2) {
+                    buffer = new Object[(length + 1) / 2];
+                }
+                mergeSort(a, buffer, 0, start, end, c);
+            } else if (length > 1) {
+                insertionSort(a, start, end, c);
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Ranks each location by county name, with locations in the same county sharing a rank.
+     *
+     * @return The county rank of each location, indexed by ordinal.
+     */
+    private static int[] countyRanks() {
+        Location[] locations = Location.values();
+        int[] ranks = new int[locations.length];
+        for (Location location : locations) {
+            int rank = 0;
+            for (Location other : locations) {
+                if (other.getCounty().compareTo(location.getCounty()) < 0 && isFirstInCounty(other)) {
+                    rank++;
+                }
+            }
+            ranks[location.ordinal()] = rank;
+        }
+        return ranks;
+    }
+
+    /**
+     * Checks if a location is the first one declared in its county.
+     *
+     * @param location The location to check.
+     * @return True if no earlier location shares its county, false otherwise.
+     */
+    private static boolean isFirstInCounty(Location location) {
+        for (Location other : Location.values()) {
+            if (other == location) {
+                return true;
+            }
+            if (other.getCounty().equals(location.getCounty())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Sorts a list of providers alphabetically by profile (name).
      *
      * @param list The list of providers to be sorted.
      */
     public static void provider(List<Provider> list) {
-        int n = list.size();
-        for (int i = 0; i < n - 1; i++) {
-            for (int j = 0; j < n - i - 1; j++) {
-                Provider p1 = list.get(j);
-                Provider p2 = list.get(j + 1);
-                if (p1.getProfile().compareTo(p2.getProfile()) > 0) {
-                    // Swap the providers if they are in the wrong order
-                    Provider temp = list.get(j);
-                    list.set(j, list.get(j + 1));
-                    list.set(j + 1, temp);
-                }
+        Comparator<Provider> byProfile = (p1, p2) -> p1.getProfile().compareTo(p2.getProfile());
+        mergeSort(list.elements(), list.size(), byProfile);
+    }
+
+    /**
+     * Stable merge sort over the first n slots of an array.
+     * Short runs are insertion sorted, and a merge is skipped when the two halves are already in order.
+     *
+     * @param a The array to sort in place.
+     * @param n The number of leading elements to sort.
+     * @param comparator The ordering to apply.
+     */
+    @SuppressWarnings("unchecked")
+    static void mergeSort(Object[] a, int n, Comparator<?> comparator) {
+        if (n < 2) {
+            return;
+        }
+        Comparator<Object> c = (Comparator<Object>) comparator;
+        Object[] buffer = new Object[(n + 1) / 2];
+        mergeSort(a, buffer, 0, 0, n, c);
+    }
+
+    /**
+     * Recursively sorts the range [lo, hi) of the array.
+     *
+     * @param a The array to sort.
+     * @param buffer Scratch space holding at least half of the range from bufferBase on.
+     * @param bufferBase The first index of the scratch space this range may use.
+     * @param lo The first index of the range (inclusive).
+     * @param hi The last index of the range (exclusive).
+     * @param c The ordering to apply.
+     */
+    static void mergeSort(Object[] a, Object[] buffer, int bufferBase, int lo, int hi, Comparator<Object> c) {
+        if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(a, lo, hi, c);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, buffer, bufferBase, lo, mid, c);
+        mergeSort(a, buffer, bufferBase, mid, hi, c);
+        merge(a, buffer, bufferBase, lo, mid, hi, c);
+    }
+
+    /**
+     * Merges the sorted ranges [lo, mid) and [mid, hi) of the array.
+     * Ties are taken from the left range to keep the sort stable.
+     *
+     * @param a The array holding both ranges.
+     * @param buffer Scratch space for the left range.
+     * @param bufferBase The first index of the scratch space to copy the left range to.
+     * @param lo The first index of the left range.
+     * @param mid The first index of the right range.
+     * @param hi The end of the right range (exclusive).
+     * @param c The ordering to apply.
+     */
+    static void merge(Object[] a, Object[] buffer, int bufferBase, int lo, int mid, int hi, Comparator<Object> c) {
+        if (c.compare(a[mid - 1], a[mid]) <= 0) {
+            return; // The halves are already in order
+        }
+        int leftLength = mid - lo;
+        System.arraycopy(a, lo, buffer, bufferBase, leftLength);
+        int i = bufferBase;
+        int leftEnd = bufferBase + leftLength;
+        int j = mid;
+        int k = lo;
+        while (i < leftEnd && j < hi) {
+            if (c.compare(a[j], buffer[i]) < 0) {
+                a[k++] = a[j++];
+            } else {
+                a[k++] = buffer[i++];
             }
         }
+        if (i < leftEnd) {
+            System.arraycopy(buffer, i, a, k, leftEnd - i);
+        }
     }
 
+    /**
+     * Stable merge sort over the first n slots of an array, split across a fork-join pool.
+     * Each task sorts its half with its own region of one shared scratch buffer, so the
+     * merges are exactly those of the sequential sort.
+     *
+     * @param a The array to sort in place.
+     * @param n The number of leading elements to sort.
+     * @param comparator The ordering to apply.
+     * @param pool The pool to run the sort on.
+     */
+    @SuppressWarnings("unchecked")
+    static void parallelMergeSort(Object[] a, int n, Comparator<?> comparator, ForkJoinPool pool) {
+        if (n < 2) {
+            return;
+        }
+        Comparator<Object> c = (Comparator<Object>) comparator;
+        pool.invoke(new MergeSortTask(a, new Object[n], 0, n, c));
+    }
 
+    /**
+     * Fork-join task that merge sorts the range [lo, hi) of an array.
+     * The task may use the scratch buffer from index lo up to index hi.
+     */
+    private static class MergeSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final Object[] a;
+        private final Object[] buffer;
+        private final int lo;
+        private final int hi;
+        private final Comparator<Object> c;
+
+        /**
+         * Constructor to create a task for one range of the array.
+         *
+         * @param a The array to sort.
+         * @param buffer Scratch space as long as the array.
+         * @param lo The first index of the range (inclusive).
+         * @param hi The last index of the range (exclusive).
+         * @param c The ordering to apply.
+         */
+        MergeSortTask(Object[] a, Object[] buffer, int lo, int hi, Comparator<Object> c) {
+            this.a = a;
+            this.buffer = buffer;
+            this.lo = lo;
+            this.hi = hi;
+            this.c = c;
+        }
+
+        /**
+         * Sorts short ranges directly and splits longer ones into two subtasks.
+         */
+        @Override
+        protected void compute() {
+            if (hi - lo <= PARALLEL_GRANULARITY) {
+                mergeSort(a, buffer, lo, lo, hi, c);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new MergeSortTask(a, buffer, lo, mid, c), new MergeSortTask(a, buffer, mid, hi, c));
+            merge(a, buffer, lo, lo, mid, hi, c);
+        }
+    }
+
+    /**
+     * Stable insertion sort of the range [lo, hi) of the array.
+     *
+     * @param a The array to sort.
+     * @param lo The first index of the range (inclusive).
+     * @param hi The last index of the range (exclusive).
+     * @param c The ordering to apply.
+     */
+    static void insertionSort(Object[] a, int lo, int hi, Comparator<Object> c) {
+        for (int i = lo + 1; i < hi; i++) {
+            Object current = a[i];
+            int j = i - 1;
+            while (j >= lo && c.compare(a[j], current) > 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = current;
+        }
+    }
+
+    /**
+     * Copies a list so that every sort in the benchmark starts from the same order.
+     *
+     * @param list The list to copy.
+     * @return A new list with the same elements in the same order.
+     */
+    private static List<Appointment> copyOf(List<Appointment> list) {
+        List<Appointment> copy = new List<>(list.size());
+        copy.addAll(list);
+        return copy;
+    }
+
+    /**
+     * Benchmarks the parallel sort on pools of 1, 2, 4, ... threads up to the number of cores.
+     *
+     * @param size The number of appointments to sort.
+     */
+    private static void parallelBenchmark(int size) {
+        List<Appointment> schedule = SampleAppointments.random(size, new Random(size));
+        Comparator<Appointment> byDate = comparator('A');
+        int cores = Runtime.getRuntime().availableProcessors();
+        double baseline = 0;
+        for (int threads = 1; ; threads = Math.min(threads * 2, cores)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            long best = Long.MAX_VALUE;
+            for (int run = 0; run < 5; run++) {
+                List<Appointment> sorted = copyOf(schedule);
+                long start = System.nanoTime();
+                parallelMergeSort(sorted.elements(), sorted.size(), byDate, pool);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            pool.shutdown();
+            if (threads == 1) {
+                baseline = best;
+            }
+            System.out.printf("n=%,d threads=%d parallel merge=%.1f ms speedup=%.2fx%n",
+                    size, threads, best / 1e6, baseline / best);
+            if (threads == cores) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Benchmarks the comparator merge sort against the sort by key at 10k, 100k and 1M appointments,
+     * then the parallel sort.
+     *
+     * @param args command line arguments (not used)
+     */
+    public static void main(String[] args) {
+        int[] sizes = {10_000, 100_000, 1_000_000};
+        char[] keys = {'A', 'P', 'L'};
+        for (int size : sizes) {
+            List<Appointment> schedule = SampleAppointments.random(size, new Random(size));
+            for (char key : keys) {
+                for (int warmup = 0; warmup < 3; warmup++) {
+                    appointment(copyOf(schedule), comparator(key));
+                    appointment(copyOf(schedule), key);
+                }
+                List<Appointment> sorted = copyOf(schedule);
+                long start = System.nanoTime();
+                appointment(sorted, comparator(key));
+                long mergeNanos = System.nanoTime() - start;
+
+                sorted = copyOf(schedule);
+                start = System.nanoTime();
+                appointment(sorted, key);
+                long keyNanos = System.nanoTime() - start;
+
+                System.out.printf("n=%,d key=%c merge=%.1f ms by key=%.1f ms%n",
+                        size, key, mergeNanos / 1e6, keyNanos / 1e6);
+            }
+        }
+        parallelBenchmark(1_000_000);
+    }
 }
@@ -0,0 +1,95 @@
+package com.example.clinicmanager;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test class for the appointment orderings in the Sort class.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class SortTest {
+
+    /**
+     * Test case for sorting by date/timeslot/provider.
+     */
+    @Test
+    public void testSortByDate() {
+        List<Appointment> list = SampleAppointments.random(500, new Random(7));
+        Sort.appointment(list, 'A');
+        for (int i = 1; i < list.size(); i++) {
+            assertTrue(Sort.comparator('A').compare(list.get(i - 1), list.get(i)) <= 0);
+        }
+    }
+
+    /**
+     * Test case for sorting keeping the original order of appointments that compare equal.
+     */
+    @Test
+    public void testSortIsStable() {
+        Doctor doctor = new Doctor(new Profile("John", "Doe", new Date(1975, 3, 15)),
+                Location.BRIDGEWATER, Specialty.FAMILY, "01");
+        Date date = new Date(2024, 10, 30);
+        List<Appointment> list = new List<>();
+        for (int i = 0; i < 100; i++) {
+            Person patient = new Person(new Profile("Pat" + i, "Smith", new Date(1990, 1, 1)));
+            list.add(new Appointment(date, Timeslot.getTimeslot(1 + i % 2), patient, doctor));
+        }
+        List<Appointment> original = new List<>();
+        original.addAll(list);
+
+        Sort.appointment(list, 'L');
+        for (int i = 0; i < 50; i++) {
+            assertSame(original.get(2 * i), list.get(i));
+            assertSame(original.get(2 * i + 1), list.get(50 + i));
+        }
+    }
+
+    /**
+     * Test case for the radix sort of large lists giving the same order as the comparator sort.
+     */
+    @Test
+    public void testRadixSortMatchesComparatorSort() {
+        for (char key : new char[]{'A', 'L', 'O', 'I'}) {
+            List<Appointment> radixSorted = SampleAppointments.random(3000, new Random(key));
+            List<Appointment> mergeSorted = new List<>();
+            mergeSorted.addAll(radixSorted);
+
+            Sort.appointment(radixSorted, key);
+            Sort.appointment(mergeSorted, Sort.comparator(key));
+            for (int i = 0; i < radixSorted.size(); i++) {
+                assertSame(mergeSorted.get(i), radixSorted.get(i));
+            }
+        }
+    }
+
+    /**
+     * Test case for the parallel sort giving the same order as the sequential sort.
+     */
+    @Test
+    public void testParallelSortMatchesSequentialSort() {
+        List<Appointment> parallelSorted = SampleAppointments.random(50000, new Random(11));
+        List<Appointment> sequentialSorted = new List<>();
+        sequentialSorted.addAll(parallelSorted);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Sort.parallelMergeSort(parallelSorted.elements(), parallelSorted.size(), Sort.comparator('P'), pool);
+        pool.shutdown();
+        Sort.appointment(sequentialSorted, 'P');
+        for (int i = 0; i < parallelSorted.size(); i++) {
+            assertSame(sequentialSorted.get(i), parallelSorted.get(i));
+        }
+    }
+
+    /**
+     * Test case for an invalid sort key.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidKey() {
+        Sort.appointment(new List<>(), 'X');
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.clinicmanager;
+
+/**
+ * Strategy for choosing the technician of an imaging appointment.
+ * Strategies that keep their own bookkeeping are told about every imaging appointment
+ * that is booked or released.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public interface TechnicianAssigner {
+
+    /**
+     * Chooses a technician who is free at the date and timeslot and whose location has the room free.
+     *
+     * @param date The date of the imaging service.
+     * @param timeslot The timeslot of the imaging service.
+     * @param room The radiology room required for the service.
+     * @return The assigned technician, or null if no technician is available.
+     */
+    Technician assign(Date date, Timeslot timeslot, Radiology room);
+
+    /**
+     * Records that an imaging appointment was added to the schedule.
+     *
+     * @param appointment The imaging appointment.
+     */
+    default void booked(Imaging appointment) {
+    }
+
+    /**
+     * Records that an imaging appointment was removed from the schedule.
+     *
+     * @param appointment The imaging appointment.
+     */
+    default void released(Imaging appointment) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.clinicmanager;
+
+import java.util.HashMap;
+
+/**
+ * Circular rotation over the technicians for assigning imaging appointments.
+ * A cursor remembers where the last assignment stopped, so each search starts at the
+ * technician after the one assigned last and work is spread in rotation-list order.
+ * Availability of a technician and of the room at their location are each one bitmask lookup,
+ * so finding the next free technician is a single pass over the rotation.
+ *
+ * @author Sinan Merchant + Varun Bondugula
+ */
+public class TechnicianRotation implements TechnicianAssigner {
+    private final List<Technician> technicians;
+    private final OccupancyCalendar<? super Technician> calendar;
+    private final RoomSchedule rooms;
+    private int cursor; // Index of the technician the next search starts at
+    private HashMap<Technician, Integer> positions; // Index of each technician, built on first use
+
+    /**
+     * Constructor to create a rotation over a list of technicians.
+     *
+     * @param technicians The technicians in rotation order.
+     * @param calendar The calendar holding the booked timeslots of each technician.
+     * @param rooms The schedule of the imaging rooms.
+     */
+    public TechnicianRotation(List<Technician> technicians, OccupancyCalendar<? super Technician> calendar,
+                              RoomSchedule rooms) {
+        this.technicians = technicians;
+        this.calendar = calendar;
+        this.rooms = rooms;
+        this.cursor = 0;
+    }
+
+    /**
+     * Gets the index of the technician the next search starts at.
+     *
+     * @return The rotation cursor.
+     */
+    public int getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Moves the rotation cursor, for example when restoring a saved state.
+     *
+     * @param cursor The index of the technician the next search starts at; out of range values start over at 0.
+     */
+    public void setCursor(int cursor) {
+        this.cursor = cursor >= 0 && cursor < technicians.size() ? cursor : 0;
+    }
+
+    /**
+     * Moves the cursor past a technician, as assigning them did, when replaying an imaging booking.
+     *
+     * @param technician The technician the booking was assigned to; one not in the rotation is ignored.
+     */
+    public void advancePast(Technician technician) {
+        if (positions == null) {
+            positions = new HashMap<>();
+            for (int i = 0; i < technicians.size(); i++) {
+                positions.putIfAbsent(technicians.get(i), i);
+            }
+        }
+        Integer i = positions.get(technician);
+        if (i != null) {
+            cursor = i + 1 < technicians.size() ? i + 1 : 0;
+        }
+    }
+
+    /**
+     * Finds the next technician in the rotation who is free at the date and timeslot and whose
+     * location has the room free, and moves the cursor past them.
+     *
+     * @param date The date of the imaging service.
+     * @param timeslot The timeslot of the imaging service.
+     * @param room The radiology room required for the service.
+     * @return The assigned technician, or null if no technician is available.
+     */
+    @Override
+    public Technician assign(Date date, Timeslot timeslot, Radiology room) {
+        int n = technicians.size();
+        if (cursor >= n) {
+            cursor = 0;
+        }
+        for (int k = 0; k < n; k++) {
+            int i = cursor + k < n ? cursor + k : cursor + k - n;
+            Technician technician = technicians.get(i);
+            if (!calendar.isBooked(technician, date, timeslot)
+                    && rooms.isAvailable(technician.getLocation(), date, room, timeslot)) {
+                cursor = i + 1 < n ? i + 1 : 0;
+                return technician;
+            }
+        }
+        return null;
+    }
+}
@@ -2,23 +2,47 @@ package com.example.clinicmanager;
 
 /**
  * Represents a time slot for scheduling appointments with hour and minute details.
+ * There are exactly 12 timeslots a day; each one is a single shared instance with an ordinal
+ * from 0 to 11, so timeslots can be compared by ordinal and used to index arrays and bitmasks.
  *
  * @author Sinan Merchant + Varun Bondugula
  */
 
 public class Timeslot implements Comparable<Timeslot> {
-    private int hour;
-    private int minute;
+    public static final int COUNT = 12; // Number of timeslots in a day
+
+    private static final Timeslot[] SLOTS = {
+            new Timeslot(0, 9, 0),    // 9:00 AM
+            new Timeslot(1, 9, 30),   // 9:30 AM
+            new Timeslot(2, 10, 0),   // 10:00 AM
+            new Timeslot(3, 10, 30),  // 10:30 AM
+            new Timeslot(4, 11, 0),   // 11:00 AM
+            new Timeslot(5, 11, 30),  // 11:30 AM
+            new Timeslot(6, 14, 0),   // 2:00 PM
+            new Timeslot(7, 14, 30),  // 2:30 PM
+            new Timeslot(8, 15, 0),   // 3:00 PM
+            new Timeslot(9, 15, 30),  // 3:30 PM
+            new Timeslot(10, 16, 0),  // 4:00 PM
+            new Timeslot(11, 16, 30)  // 4:30 PM
+    };
+
+    private final int ordinal;
+    private final int hour;
+    private final int minute;
+    private final String text; // Formatted once since every display of a timeslot uses it
 
     /**
-     * Constructor to initialize a timeslot with a specific hour and minute.
+     * Constructor to initialize one of the shared timeslots.
      *
+     * @param ordinal The position of the timeslot in the day, from 0 to 11.
      * @param hour   The hour of the timeslot (24-hour format).
      * @param minute The minute of the timeslot.
      */
-    public Timeslot(int hour, int minute) {
+    private Timeslot(int ordinal, int hour, int minute) {
+        this.ordinal = ordinal;
         this.hour = hour;
         this.minute = minute;
+        this.text = format(hour, minute);
     }
 
     /**
@@ -40,7 +64,16 @@ public class Timeslot implements Comparable<Timeslot> {
     }
 
     /**
-     * Compares this timeslot to another timeslot based on hour and minute.
+     * Gets the position of the timeslot in the day.
+     *
+     * @return The ordinal of the timeslot, from 0 to 11.
+     */
+    public int ordinal() {
+        return ordinal;
+    }
+
+    /**
+     * Compares this timeslot to another timeslot based on their position in the day.
      *
      * @param other The other timeslot to compare to.
      * @return A negative integer, zero, or a positive integer as this timeslot is earlier than,
@@ -48,17 +81,14 @@ public class Timeslot implements Comparable<Timeslot> {
      */
     @Override
     public int compareTo(Timeslot other) {
-        if (this.hour != other.hour) {
-            return this.hour - other.hour;
-        }
-        return this.minute - other.minute;
+        return this.ordinal - other.ordinal;
     }
 
     /**
      * Checks if this timeslot is equal to another object.
      *
      * @param obj The object to compare to.
-     * @return true if the object is a Timeslot and has the same hour and minute; false otherwise.
+     * @return true if the object is a Timeslot at the same position in the day; false otherwise.
      */
     @Override
     public boolean equals(Object obj) {
@@ -68,45 +98,43 @@ public class Timeslot implements Comparable<Timeslot> {
         if (obj == null || getClass() != obj.getClass()) {
             return false;
         }
-        Timeslot timeslot = (Timeslot) obj;
-        return hour == timeslot.hour && minute == timeslot.minute;
+        return ordinal == ((Timeslot) obj).ordinal;
+    }
+
+    /**
+     * Returns a hash code consistent with equals.
+     *
+     * @return The ordinal of the timeslot.
+     */
+    @Override
+    public int hashCode() {
+        return ordinal;
     }
 
     /**
      * Returns a timeslot based on a number from 1 to 12.
      *
      * @param number The timeslot number
-     * @return The corresponding Timeslot object.
+     * @return The corresponding shared Timeslot object.
      */
     public static Timeslot getTimeslot(int number) {
-        switch (number) {
-            case 1:
-                return new Timeslot(9, 0);    // 9:00 AM
-            case 2:
-                return new Timeslot(9, 30);   // 9:30 AM
-            case 3:
-                return new Timeslot(10, 0);   // 10:00 AM
-            case 4:
-                return new Timeslot(10, 30);  // 10:30 AM
-            case 5:
-                return new Timeslot(11, 0);   // 11:00 AM
-            case 6:
-                return new Timeslot(11, 30);  // 11:30 AM
-            case 7:
-                return new Timeslot(14, 0);   // 2:00 PM
-            case 8:
-                return new Timeslot(14, 30);  // 2:30 PM
-            case 9:
-                return new Timeslot(15, 0);   // 3:00 PM
-            case 10:
-                return new Timeslot(15, 30);  // 3:30 PM
-            case 11:
-                return new Timeslot(16, 0);   // 4:00 PM
-            case 12:
-                return new Timeslot(16, 30);  // 4:30 PM
-            default:
-                throw new IllegalArgumentException("Invalid timeslot number.");
+        if (number < 1 || number > COUNT) {
+            throw new IllegalArgumentException("Invalid timeslot number.");
+        }
+        return SLOTS[number - 1];
+    }
+
+    /**
+     * Returns the timeslot at a position in the day.
+     *
+     * @param ordinal The ordinal of the timeslot, from 0 to 11.
+     * @return The corresponding shared Timeslot object.
+     */
+    public static Timeslot fromOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= COUNT) {
+            throw new IllegalArgumentException("Invalid timeslot ordinal.");
         }
+        return SLOTS[ordinal];
     }
 
     /**
@@ -116,6 +144,17 @@ public class Timeslot implements Comparable<Timeslot> {
      */
     @Override
     public String toString() {
+        return text;
+    }
+
+    /**
+     * Formats an hour and minute in HH:MM AM/PM format.
+     *
+     * @param hour The hour (24-hour format).
+     * @param minute The minute.
+     * @return A formatted string of the time.
+     */
+    private static String format(int hour, int minute) {
         String period = "AM";
         int formattedHour = hour;
         if (hour >= 12) {